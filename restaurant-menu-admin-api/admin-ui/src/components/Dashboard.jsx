@@ -90,6 +90,26 @@ function Dashboard({ onLogout }) {
     }
   };
 
+  const handleUploadImage = (dish) => {
+    const input = document.createElement('input');
+    input.type = 'file';
+    input.accept = 'image/jpeg,image/png';
+    input.onchange = async () => {
+      const file = input.files[0];
+      if (!file) return;
+
+      try {
+        await dishAPI.uploadImage(selectedCategory.id, dish.id, file);
+        selectCategory(selectedCategory);
+        alert(`Image for ${dish.name} uploaded! Resized versions are committed to GitHub shortly.`);
+      } catch (error) {
+        console.error('Error uploading image:', error);
+        alert(error.response?.data?.message || 'Failed to upload image');
+      }
+    };
+    input.click();
+  };
+
   const totalDishes = categories.reduce((sum, cat) => sum + cat.dishes.length, 0);
   const availableDishes = categories.reduce(
     (sum, cat) => sum + cat.dishes.filter(d => d.available).length,
@@ -216,6 +236,13 @@ function Dashboard({ onLogout }) {
                         >
                           Price
                         </button>
+                        <button
+                          className="btn-icon btn-edit"
+                          onClick={() => handleUploadImage(dish)}
+                          title="Upload Image"
+                        >
+                          Image
+                        </button>
                         <button
                           className="btn-icon btn-delete"
                           onClick={() => handleDeleteDish(dish)}
@@ -64,6 +64,13 @@ export const dishAPI = {
   delete: (categoryId, dishId) => api.delete(`/api/categories/${categoryId}/dishes/${dishId}`),
   toggleAvailability: (categoryId, dishId) => api.patch(`/api/categories/${categoryId}/dishes/${dishId}/availability`),
   updatePrice: (categoryId, dishId, price) => api.patch(`/api/categories/${categoryId}/dishes/${dishId}/price`, { price }),
+  uploadImage: (categoryId, dishId, file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post(`/api/categories/${categoryId}/dishes/${dishId}/image`, formData, {
+      headers: { 'Content-Type': 'multipart/form-data' },
+    });
+  },
 };
 
 export default api;
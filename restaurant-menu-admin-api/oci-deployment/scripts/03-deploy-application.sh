@@ -181,6 +181,8 @@ ADMIN_EMAIL=admin@bapukikutia.com
 SPRING_PROFILES_ACTIVE=prod
 SERVER_PORT=8080
 GITHUB_LOCAL_CLONE_DIRECTORY=/opt/repo
+# Clone/pull after startup; traffic waits on /actuator/health/readiness
+GIT_ASYNC_INIT=true
 EOF
 )
 
@@ -232,37 +234,48 @@ ssh opc@$PUBLIC_IP "sudo -u appuser bash -c ' \
 echo -e "${GREEN}✓ Containers started${NC}"
 echo ""
 
-# Wait for application startup
-echo -e "${BLUE}Waiting for application to start (60 seconds)...${NC}"
-sleep 60
-echo ""
-
-# Health check
-echo -e "${BLUE}Performing health check...${NC}"
-HEALTH_URL="http://$PUBLIC_IP:8080/actuator/health"
+# Wait for application startup: liveness comes up with the web server, readiness once the
+# menu repository has been cloned or pulled
+echo -e "${BLUE}Waiting for application to start...${NC}"
+LIVENESS_URL="http://$PUBLIC_IP:8080/actuator/health/liveness"
+READINESS_URL="http://$PUBLIC_IP:8080/actuator/health/readiness"
 
-MAX_RETRIES=10
+MAX_RETRIES=60
 RETRY_COUNT=0
+STARTED_AT=$(date +%s)
+LIVE_AFTER=""
+READY_AFTER=""
 
 while [ $RETRY_COUNT -lt $MAX_RETRIES ]; do
-    HTTP_CODE=$(curl -s -o /dev/null -w "%{http_code}" "$HEALTH_URL" 2>/dev/null || echo "000")
-
-    if [ "$HTTP_CODE" = "200" ]; then
-        echo -e "${GREEN}✓ Application is healthy${NC}"
-        break
-    else
-        echo -n "."
-        sleep 10
-        RETRY_COUNT=$((RETRY_COUNT + 1))
+    if [ -z "$LIVE_AFTER" ]; then
+        HTTP_CODE=$(curl -s -o /dev/null -w "%{http_code}" "$LIVENESS_URL" 2>/dev/null || echo "000")
+        if [ "$HTTP_CODE" = "200" ]; then
+            LIVE_AFTER=$(( $(date +%s) - STARTED_AT ))
+            echo ""
+            echo -e "${GREEN}✓ Application is live after ${LIVE_AFTER}s${NC}"
+        fi
+    fi
+    if [ -n "$LIVE_AFTER" ]; then
+        HTTP_CODE=$(curl -s -o /dev/null -w "%{http_code}" "$READINESS_URL" 2>/dev/null || echo "000")
+        if [ "$HTTP_CODE" = "200" ]; then
+            READY_AFTER=$(( $(date +%s) - STARTED_AT ))
+            echo -e "${GREEN}✓ Application is ready after ${READY_AFTER}s${NC}"
+            break
+        fi
     fi
+    echo -n "."
+    sleep 5
+    RETRY_COUNT=$((RETRY_COUNT + 1))
 done
 
-if [ $RETRY_COUNT -ge $MAX_RETRIES ]; then
+if [ -z "$READY_AFTER" ]; then
     echo ""
-    echo -e "${YELLOW}⚠ Health check did not return 200 (got $HTTP_CODE)${NC}"
+    echo -e "${YELLOW}⚠ Application did not become ready (last status $HTTP_CODE)${NC}"
     echo "Check application logs:"
     echo "  ssh opc@$PUBLIC_IP 'docker logs restaurant-menu-admin-api'"
 else
+    FIRST_REQUEST=$(curl -s -o /dev/null -w "%{time_total}" "http://$PUBLIC_IP:8080/public/menu" 2>/dev/null || echo "n/a")
+    echo -e "${GREEN}✓ First menu request took ${FIRST_REQUEST}s${NC}"
     echo ""
 fi
 
@@ -273,6 +286,7 @@ echo -e "${BLUE}=====================================${NC}"
 echo ""
 echo -e "${GREEN}Application URLs:${NC}"
 echo "  Health Check: http://$PUBLIC_IP:8080/actuator/health"
+echo "  Readiness: http://$PUBLIC_IP:8080/actuator/health/readiness"
 echo "  Login: http://$PUBLIC_IP:8080/api/auth/login"
 echo "  Categories: http://$PUBLIC_IP:8080/api/categories"
 echo ""
@@ -0,0 +1,109 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.config.DraftConfig;
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.config.MenuCacheConfig;
+import com.bapukikutia.menuadmin.config.MenuScheduleConfig;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.GitService;
+import com.bapukikutia.menuadmin.service.MenuDiff;
+import com.bapukikutia.menuadmin.service.MenuDrafts;
+import com.bapukikutia.menuadmin.service.MenuMerger;
+import com.bapukikutia.menuadmin.service.MenuScheduler;
+import com.bapukikutia.menuadmin.service.MenuService;
+import com.bapukikutia.menuadmin.service.TenantMenuRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A throwaway bare repository on local disk seeded with a synthetic menu,
+ * plus a {@link GitService}/{@link MenuService} pair wired to it the same way
+ * Spring would wire them against GitHub.
+ */
+public final class BenchmarkRepository implements AutoCloseable {
+
+    public static final String BRANCH = "main";
+    public static final String MENU_FILE = "static/data/menu-data.json";
+
+    private final Path root;
+    private final GitService gitService;
+    private final MenuService menuService;
+
+    private BenchmarkRepository(Path root, GitService gitService, MenuService menuService) {
+        this.root = root;
+        this.gitService = gitService;
+        this.menuService = menuService;
+    }
+
+    public static BenchmarkRepository create(MenuData menuData, ObjectMapper objectMapper) throws Exception {
+        Path root = Files.createTempDirectory("menu-bench");
+        Path remote = root.resolve("remote.git");
+        Path seed = root.resolve("seed");
+
+        try (Git git = Git.init().setBare(true).setInitialBranch(BRANCH).setDirectory(remote.toFile()).call()) {
+            // GitHub doesn't gc in our process; a background gc of the remote would skew push timings
+            StoredConfig config = git.getRepository().getConfig();
+            config.setBoolean("receive", null, "autogc", false);
+            config.save();
+        }
+        try (Git git = Git.init().setInitialBranch(BRANCH).setDirectory(seed.toFile()).call()) {
+            Path menuFile = seed.resolve(MENU_FILE);
+            Files.createDirectories(menuFile.getParent());
+            Files.writeString(menuFile, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(menuData));
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Seed menu").setSign(false).call();
+            git.push().setRemote(remote.toUri().toString()).add(BRANCH).call();
+        }
+
+        GitConfig gitConfig = gitConfig(remote.toUri().toString(), root.resolve("clone").toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MenuMetrics menuMetrics = new MenuMetrics(meterRegistry);
+        MenuMerger menuMerger = new MenuMerger(objectMapper, gitConfig);
+        GitService gitService = new GitService(gitConfig, menuMetrics, List.of(menuMerger), event -> {
+        });
+        gitService.initialize();
+
+        TenantMenuRegistry tenantMenuRegistry = new TenantMenuRegistry(
+                gitService, gitConfig, new MenuCacheConfig(), objectMapper, menuMetrics,
+                new MenuScheduler(new MenuScheduleConfig()), meterRegistry);
+        MenuDrafts menuDrafts = new MenuDrafts(gitService, tenantMenuRegistry, menuMerger,
+                new MenuDiff(objectMapper), objectMapper, new DraftConfig());
+        MenuService menuService = new MenuService(
+                gitService, tenantMenuRegistry, objectMapper, menuMetrics, List.of(), menuDrafts);
+        return new BenchmarkRepository(root, gitService, menuService);
+    }
+
+    public static GitConfig gitConfig(String url, String cloneDirectory) {
+        GitConfig gitConfig = new GitConfig();
+        gitConfig.getRepository().setUrl(url);
+        gitConfig.getRepository().setBranch(BRANCH);
+        gitConfig.getRepository().setUsername("benchmark");
+        gitConfig.getRepository().setToken("benchmark");
+        gitConfig.getMenu().setFilePath(MENU_FILE);
+        gitConfig.getLocal().setCloneDirectory(cloneDirectory);
+        return gitConfig;
+    }
+
+    public GitService gitService() {
+        return gitService;
+    }
+
+    public MenuService menuService() {
+        return menuService;
+    }
+
+    @Override
+    public void close() throws IOException {
+        gitService.close();
+        FileSystemUtils.deleteRecursively(root);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.MenuService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.bapukikutia.menuadmin.service.TenantMenuRegistry.DEFAULT_RESTAURANT_ID;
+
+/**
+ * Commit latency of a dish edit on a clone aged by {@code history} earlier
+ * edits, all left as loose objects, against the same clone after the nightly
+ * gc has repacked it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GitMaintenanceBenchmark {
+
+    @Param({"1000"})
+    private int history;
+
+    @Param({"false", "true"})
+    private boolean maintained;
+
+    private BenchmarkRepository repository;
+    private MenuService menuService;
+    private String categoryId;
+    private String dishId;
+    private int price;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MenuData menuData = MenuGenerator.generate(150);
+        repository = BenchmarkRepository.create(menuData, new ObjectMapper().findAndRegisterModules());
+        menuService = repository.menuService();
+        categoryId = MenuGenerator.categoryId(0);
+        dishId = MenuGenerator.dishId(0, 0);
+
+        for (int i = 0; i < history; i++) {
+            menuService.toggleDishAvailability(DEFAULT_RESTAURANT_ID, categoryId, dishId);
+        }
+        if (maintained) {
+            repository.gitService().maintain(Duration.ZERO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+    }
+
+    @Benchmark
+    public Dish updateDishPrice() {
+        return menuService.updateDishPrice(DEFAULT_RESTAURANT_ID, categoryId, dishId, 100 + (price++ & 0xff));
+    }
+}
@@ -0,0 +1,68 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson parse/serialize cost of the whole menu document, as done by
+ * MenuService on every read and write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuCodecBenchmark {
+
+    @Param({"150", "10000", "100000"})
+    private int dishes;
+
+    private MenuData menuData;
+    private String menuJson;
+    private ObjectReader reader;
+    private ObjectWriter prettyWriter;
+    private ObjectWriter compactWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        reader = objectMapper.readerFor(MenuData.class);
+        prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
+        compactWriter = objectMapper.writer();
+
+        menuData = MenuGenerator.generate(dishes);
+        menuJson = prettyWriter.writeValueAsString(menuData);
+    }
+
+    @Benchmark
+    public MenuData parse() throws IOException {
+        return reader.readValue(menuJson);
+    }
+
+    @Benchmark
+    public String serializePretty() throws IOException {
+        return prettyWriter.writeValueAsString(menuData);
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() throws IOException {
+        return compactWriter.writeValueAsBytes(menuData);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.CompactMenu;
+import com.bapukikutia.menuadmin.service.MenuSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap per dish of a parsed menu, of its snapshot and of its compact form
+ * (measured with JOL and printed once per trial), and the cost of getting a
+ * menu back into the cache from either the menu file or the compact form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// JOL attaches to its own JVM to read object layouts
+@Fork(value = 1, jvmArgsAppend = {"-Djdk.attach.allowAttachSelf", "-XX:+EnableDynamicAgentLoading"})
+public class MenuFootprintBenchmark {
+
+    @Param({"150", "10000"})
+    private int dishes;
+
+    private ObjectReader reader;
+    private String menuJson;
+    private MenuData menuData;
+    private CompactMenu compactMenu;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        reader = objectMapper.readerFor(MenuData.class);
+        // Parsed like the cache does, so strings aren't shared the way the generator shares them
+        menuJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(MenuGenerator.generate(dishes));
+        menuData = reader.readValue(menuJson);
+        compactMenu = CompactMenu.of(menuData);
+
+        if (!compactMenu.toMenuData().equals(menuData)) {
+            throw new IllegalStateException("Compact menu does not round-trip");
+        }
+
+        long parsed = GraphLayout.parseInstance(menuData).totalSize();
+        long snapshot = GraphLayout.parseInstance(MenuSnapshot.of(menuData, 0)).totalSize();
+        long compact = GraphLayout.parseInstance(compactMenu).totalSize();
+        System.out.printf("%n%d dishes, %d bytes of JSON: MenuData %d B/dish, MenuSnapshot %d B/dish, "
+                        + "CompactMenu %d B/dish (%.1fx smaller than MenuData)%n",
+                dishes, menuJson.length(), parsed / dishes, snapshot / dishes, compact / dishes,
+                (double) parsed / compact);
+    }
+
+    @Benchmark
+    public MenuData parse() throws IOException {
+        return reader.readValue(menuJson);
+    }
+
+    @Benchmark
+    public MenuData inflate() {
+        return compactMenu.toMenuData();
+    }
+
+    @Benchmark
+    public CompactMenu compact() {
+        return CompactMenu.of(menuData);
+    }
+}
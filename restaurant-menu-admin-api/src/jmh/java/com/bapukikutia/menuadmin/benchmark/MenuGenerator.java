@@ -0,0 +1,84 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic menus shaped like static/data/menu-data.json:
+ * roughly a dozen dishes per category, short tag lists and image paths
+ * under static/images/dishes.
+ */
+public final class MenuGenerator {
+
+    private static final String[] TAGS = {"popular", "spicy", "chef-special", "new", "crispy", "healthy", "sweet"};
+    private static final String[] WORDS = {"paneer", "masala", "tikka", "dal", "aloo", "gobhi", "butter",
+            "tandoori", "chilli", "veg", "kadai", "malai", "jeera", "palak", "shahi"};
+
+    private MenuGenerator() {
+    }
+
+    public static MenuData generate(int dishCount) {
+        return generate(dishCount, 12);
+    }
+
+    public static MenuData generate(int dishCount, int dishesPerCategory) {
+        Random random = new Random(42);
+        int categoryCount = Math.max(1, (dishCount + dishesPerCategory - 1) / dishesPerCategory);
+        List<Category> categories = new ArrayList<>(categoryCount);
+
+        int remaining = dishCount;
+        for (int c = 0; c < categoryCount; c++) {
+            String categoryId = categoryId(c);
+            Category category = Category.builder()
+                    .id(categoryId)
+                    .name("Category " + c)
+                    .displayOrder(c + 1)
+                    .dishes(new ArrayList<>())
+                    .build();
+
+            int dishesHere = Math.min(dishesPerCategory, remaining);
+            for (int d = 0; d < dishesHere; d++) {
+                category.getDishes().add(dish(random, categoryId, dishId(c, d)));
+            }
+            remaining -= dishesHere;
+            categories.add(category);
+        }
+
+        return MenuData.builder().categories(categories).build();
+    }
+
+    public static String categoryId(int category) {
+        return "category-" + category;
+    }
+
+    public static String dishId(int category, int dish) {
+        return "dish-" + category + "-" + dish;
+    }
+
+    private static Dish dish(Random random, String categoryId, String dishId) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        List<String> tags = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        return Dish.builder()
+                .id(dishId)
+                .name(name)
+                .price(50 + random.nextInt(400))
+                .image("static/images/dishes/" + dishId + ".jpg")
+                .altText(name)
+                .description(random.nextBoolean() ? "" : "Freshly made " + name + " served hot")
+                .available(random.nextInt(10) > 0)
+                .categoryId(categoryId)
+                .isVegetarian(true)
+                .isVegan(random.nextInt(5) == 0)
+                .isSpicy(random.nextInt(3) == 0)
+                .tags(tags)
+                .build();
+    }
+}
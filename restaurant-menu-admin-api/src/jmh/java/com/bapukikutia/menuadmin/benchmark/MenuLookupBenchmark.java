@@ -0,0 +1,82 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.MenuService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.bapukikutia.menuadmin.service.TenantMenuRegistry.DEFAULT_RESTAURANT_ID;
+
+/**
+ * Read paths of MenuService against a local clone, i.e. what every GET costs.
+ * The looked-up category and dish sit in the middle of the menu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuLookupBenchmark {
+
+    @Param({"150", "10000", "100000"})
+    private int dishes;
+
+    private BenchmarkRepository repository;
+    private MenuService menuService;
+    private String categoryId;
+    private String dishId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MenuData menuData = MenuGenerator.generate(dishes);
+        repository = BenchmarkRepository.create(menuData, new ObjectMapper().findAndRegisterModules());
+        menuService = repository.menuService();
+
+        int middle = menuData.getCategories().size() / 2;
+        categoryId = MenuGenerator.categoryId(middle);
+        dishId = MenuGenerator.dishId(middle, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+    }
+
+    @Benchmark
+    public MenuData getMenuData() {
+        return menuService.getMenuData(DEFAULT_RESTAURANT_ID);
+    }
+
+    @Benchmark
+    public Category getCategoryById() {
+        return menuService.getCategoryById(DEFAULT_RESTAURANT_ID, categoryId);
+    }
+
+    @Benchmark
+    public Dish getDishById() {
+        return menuService.getDishById(DEFAULT_RESTAURANT_ID, categoryId, dishId);
+    }
+
+    @Benchmark
+    public List<Dish> getAllDishes() {
+        return menuService.getAllDishes(DEFAULT_RESTAURANT_ID);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.MenuService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.bapukikutia.menuadmin.service.TenantMenuRegistry.DEFAULT_RESTAURANT_ID;
+
+/**
+ * End-to-end cost of each MenuService mutation: read, parse, apply, serialize,
+ * write, git add/commit and a push to a bare repository on local disk.
+ * Create/delete run as pairs so the menu size stays constant across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MenuMutationBenchmark {
+
+    @Param({"150", "10000"})
+    private int dishes;
+
+    private BenchmarkRepository repository;
+    private MenuService menuService;
+    private String categoryId;
+    private String dishId;
+    private int price;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MenuData menuData = MenuGenerator.generate(dishes);
+        repository = BenchmarkRepository.create(menuData, new ObjectMapper().findAndRegisterModules());
+        menuService = repository.menuService();
+
+        int middle = menuData.getCategories().size() / 2;
+        categoryId = MenuGenerator.categoryId(middle);
+        dishId = MenuGenerator.dishId(middle, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        repository.close();
+    }
+
+    @Benchmark
+    public Dish updateDishPrice() {
+        return menuService.updateDishPrice(DEFAULT_RESTAURANT_ID, categoryId, dishId, 100 + (price++ & 0xff));
+    }
+
+    @Benchmark
+    public Dish toggleDishAvailability() {
+        return menuService.toggleDishAvailability(DEFAULT_RESTAURANT_ID, categoryId, dishId);
+    }
+
+    @Benchmark
+    public Dish updateDish() {
+        Dish dish = newDish(dishId);
+        dish.setPrice(100 + (price++ & 0xff));
+        return menuService.updateDish(DEFAULT_RESTAURANT_ID, categoryId, dishId, dish);
+    }
+
+    @Benchmark
+    public Category updateCategory() {
+        Category category = Category.builder()
+                .id(categoryId)
+                .name("Renamed " + (price++ & 0xff))
+                .displayOrder(1)
+                .build();
+        return menuService.updateCategory(DEFAULT_RESTAURANT_ID, categoryId, category);
+    }
+
+    @Benchmark
+    public void createAndDeleteDish() {
+        menuService.createDish(DEFAULT_RESTAURANT_ID, categoryId, newDish("bench-dish"));
+        menuService.deleteDish(DEFAULT_RESTAURANT_ID, categoryId, "bench-dish");
+    }
+
+    @Benchmark
+    public void createAndDeleteCategory() {
+        Category category = Category.builder()
+                .id("bench-category")
+                .name("Bench Category")
+                .displayOrder(999)
+                .dishes(new ArrayList<>())
+                .build();
+        menuService.createCategory(DEFAULT_RESTAURANT_ID, category);
+        menuService.deleteCategory(DEFAULT_RESTAURANT_ID, "bench-category");
+    }
+
+    private Dish newDish(String id) {
+        return Dish.builder()
+                .id(id)
+                .name("Bench Dish")
+                .price(199)
+                .image("static/images/dishes/" + id + ".jpg")
+                .altText("Bench Dish")
+                .description("Benchmark dish")
+                .categoryId(categoryId)
+                .tags(new ArrayList<>(List.of("new")))
+                .build();
+    }
+}
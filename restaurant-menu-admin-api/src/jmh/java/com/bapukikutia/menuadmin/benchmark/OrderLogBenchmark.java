@@ -0,0 +1,90 @@
+package com.bapukikutia.menuadmin.benchmark;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.model.Order;
+import com.bapukikutia.menuadmin.service.BillNumberSequence;
+import com.bapukikutia.menuadmin.service.OrderLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders per second through the order log with 64 request threads waiting for
+ * their fsync, i.e. how well group commit amortizes the disk flush, plus the
+ * cost of taking a bill number under the same contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class OrderLogBenchmark {
+
+    private Path directory;
+    private OrderLog orderLog;
+    private BillNumberSequence billNumberSequence;
+    private byte[] line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("order-log-bench");
+        OrderConfig orderConfig = new OrderConfig();
+        orderConfig.setDirectory(directory.toString());
+
+        orderLog = new OrderLog(orderConfig, new SimpleMeterRegistry());
+        // Leader election is off by default, so the sequence never reaches for the repository
+        billNumberSequence = new BillNumberSequence(orderConfig, null, new GitConfig());
+
+        Order.Line item = Order.Line.builder()
+                .dishId("paneer-butter-masala").categoryId("main-course").name("Paneer Butter Masala")
+                .price(280).quantity(2).amount(560)
+                .build();
+        Order order = Order.builder()
+                .billNumber("BKK2610000001").restaurantId("default").placedAt(Instant.now())
+                .items(List.of(item, item, item))
+                .subtotal(1680).gst(84).serviceCharge(34).grandTotal(1798)
+                .build();
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(order);
+        line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        orderLog.shutdown();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void appendAndAwaitFsync() {
+        orderLog.append(line).join();
+    }
+
+    @Benchmark
+    public long nextBillNumber() {
+        return billNumberSequence.next();
+    }
+}
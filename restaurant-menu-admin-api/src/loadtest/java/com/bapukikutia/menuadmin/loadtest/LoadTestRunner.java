@@ -0,0 +1,364 @@
+package com.bapukikutia.menuadmin.loadtest;
+
+import com.bapukikutia.menuadmin.MenuAdminApplication;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Drives mixed read/write traffic through the REST API of an in-process
+ * application whose git remote is a {@link LocalGitServer} on localhost.
+ * <p>
+ * Each writer owns a disjoint set of dishes and writes unique prices to them,
+ * so after the run the last acknowledged price of every dish is known. Any dish
+ * whose price on the remote differs from that is counted as a lost update.
+ */
+public final class LoadTestRunner {
+
+    private static final String BRANCH = "main";
+    private static final String MENU_FILE = "static/data/menu-data.json";
+    private static final String USERNAME = "loadtest";
+    private static final String PASSWORD = "loadtest-password";
+    private static final Pattern PATH_SEGMENT = Pattern.compile("[A-Za-z0-9._~-]+");
+
+    private final Options options;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final OperationStats readMenu = new OperationStats("read_menu");
+    private final OperationStats readCategory = new OperationStats("read_category");
+    private final OperationStats readDish = new OperationStats("read_dish");
+    private final OperationStats writePrice = new OperationStats("write_price");
+
+    private final Map<String, Integer> acknowledgedPrices = new ConcurrentHashMap<>();
+    private final Set<String> uncertainDishes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextPrice = new AtomicInteger(10_000);
+
+    private String baseUrl;
+    private volatile long measureFromNanos;
+
+    private LoadTestRunner(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        int lostUpdates = new LoadTestRunner(options).run();
+        System.exit(lostUpdates > 0 && options.failOnLostUpdates ? 1 : 0);
+    }
+
+    private int run() throws Exception {
+        Path workDirectory = Files.createTempDirectory("menu-loadtest");
+        Path remote = workDirectory.resolve("menu.git");
+        MenuData seedMenu = seedRemote(remote, workDirectory.resolve("seed"));
+
+        try (LocalGitServer gitServer = LocalGitServer.start(remote.toFile(),
+                workDirectory.resolve("git-server").toFile(), Duration.ofMillis(options.pushLatencyMs));
+             ConfigurableApplicationContext application = startApplication(
+                     gitServer.url("menu.git"), workDirectory)) {
+
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            List<DishRef> dishes = dishesOf(seedMenu);
+
+            runTraffic(dishes);
+
+            int lostUpdates;
+            try {
+                lostUpdates = countLostUpdates(readRemoteMenu(remote));
+            } catch (JsonProcessingException e) {
+                System.out.println("Remote " + MENU_FILE + " is not valid JSON: " + e.getOriginalMessage());
+                lostUpdates = acknowledgedPrices.size();
+            }
+            report(gitServer.getPushCount(), lostUpdates);
+            return lostUpdates;
+        } finally {
+            if (!options.keep) {
+                FileSystemUtils.deleteRecursively(workDirectory);
+            } else {
+                System.out.println("Kept work directory: " + workDirectory);
+            }
+        }
+    }
+
+    // ==================== Setup ====================
+
+    private MenuData seedRemote(Path remote, Path seed) throws Exception {
+        Git.init().setBare(true).setInitialBranch(BRANCH).setDirectory(remote.toFile()).call().close();
+
+        try (Git git = Git.init().setInitialBranch(BRANCH).setDirectory(seed.toFile()).call()) {
+            Path menuFile = seed.resolve(MENU_FILE);
+            Files.createDirectories(menuFile.getParent());
+            Files.copy(options.menuFile, menuFile);
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Seed menu for load test").setSign(false).call();
+            git.push().setRemote(remote.toUri().toString()).add(BRANCH).call();
+            return objectMapper.readValue(menuFile.toFile(), MenuData.class);
+        }
+    }
+
+    // Everything the application writes stays in the work directory, including the
+    // bill sequence, stock levels and ratings that otherwise default to the home directory
+    private ConfigurableApplicationContext startApplication(String remoteUrl, Path workDirectory) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(MenuAdminApplication.class).run(
+                "--server.port=0",
+                "--github.repository.url=" + remoteUrl,
+                "--github.repository.branch=" + BRANCH,
+                "--github.local.clone-directory=" + workDirectory.resolve("clone"),
+                "--orders.directory=" + workDirectory.resolve("orders"),
+                "--admin.username=" + USERNAME,
+                "--admin.password=" + PASSWORD,
+                "--jwt.secret=load-test-secret-that-is-at-least-32-bytes",
+                "--rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.bapukikutia.menuadmin=" + (options.verbose ? "WARN" : "OFF"),
+                "--logging.level.org.springframework.security=WARN");
+    }
+
+    // IDs such as "momos-veg-steam/fry" can't be addressed by the dish endpoints (an
+    // encoded slash is rejected too), so they'd only add harness 404s to the error column
+    private static List<DishRef> dishesOf(MenuData menuData) {
+        List<DishRef> dishes = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Category category : menuData.getCategories()) {
+            for (Dish dish : category.getDishes()) {
+                DishRef ref = new DishRef(category.getId(), dish.getId());
+                if (PATH_SEGMENT.matcher(ref.categoryId()).matches() && PATH_SEGMENT.matcher(ref.dishId()).matches()) {
+                    dishes.add(ref);
+                } else {
+                    skipped.add(ref.key());
+                }
+            }
+        }
+        if (!skipped.isEmpty()) {
+            System.out.printf("Skipping %d dishes whose IDs aren't a single URL path segment: %s%n",
+                    skipped.size(), skipped);
+        }
+        return dishes;
+    }
+
+    // ==================== Traffic ====================
+
+    private void runTraffic(List<DishRef> dishes) throws Exception {
+        System.out.printf("Running %ds (+%ds warm-up) with %d readers, %d writers, push latency %d ms, %d dishes%n",
+                options.durationSeconds, options.warmupSeconds, options.readers, options.writers,
+                options.pushLatencyMs, dishes.size());
+
+        long start = System.nanoTime();
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long deadline = measureFromNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int r = 0; r < options.readers; r++) {
+                users.submit(() -> reader(dishes, deadline));
+            }
+            for (int w = 0; w < options.writers; w++) {
+                List<DishRef> owned = new ArrayList<>();
+                for (int i = w; i < dishes.size(); i += options.writers) {
+                    owned.add(dishes.get(i));
+                }
+                users.submit(() -> writer(owned, deadline));
+            }
+        }
+    }
+
+    private Void reader(List<DishRef> dishes, long deadline) throws Exception {
+        String token = login();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            DishRef dish = dishes.get(random.nextInt(dishes.size()));
+            int pick = random.nextInt(4);
+            if (pick < 2) {
+                send(readMenu, token, "GET", "/api/menu", null);
+            } else if (pick == 2) {
+                send(readCategory, token, "GET", "/api/categories/" + dish.categoryId(), null);
+            } else {
+                send(readDish, token, "GET",
+                        "/api/categories/" + dish.categoryId() + "/dishes/" + dish.dishId(), null);
+            }
+        }
+        return null;
+    }
+
+    private Void writer(List<DishRef> owned, long deadline) throws Exception {
+        String token = login();
+        for (int i = 0; System.nanoTime() < deadline && !owned.isEmpty(); i++) {
+            DishRef dish = owned.get(i % owned.size());
+            int price = nextPrice.getAndIncrement();
+            boolean ok = send(writePrice, token, "PATCH",
+                    "/api/categories/" + dish.categoryId() + "/dishes/" + dish.dishId() + "/price",
+                    "{\"price\":" + price + "}");
+            if (ok) {
+                acknowledgedPrices.put(dish.key(), price);
+            } else {
+                // The write may or may not have landed, so this dish can't be checked
+                uncertainDishes.add(dish.key());
+            }
+        }
+        return null;
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private boolean send(OperationStats stats, String token, String method, String path, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(2));
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (start >= measureFromNanos) {
+            stats.record(start, success);
+        }
+        return success;
+    }
+
+    // ==================== Verification ====================
+
+    private MenuData readRemoteMenu(Path remote) throws IOException {
+        try (Repository repository = new FileRepositoryBuilder().setGitDir(remote.toFile()).setBare().build();
+             RevWalk revWalk = new RevWalk(repository)) {
+            ObjectId head = repository.resolve("refs/heads/" + BRANCH);
+            try (TreeWalk treeWalk = TreeWalk.forPath(repository, MENU_FILE, revWalk.parseCommit(head).getTree())) {
+                byte[] content = repository.open(treeWalk.getObjectId(0)).getBytes();
+                return objectMapper.readValue(content, MenuData.class);
+            }
+        }
+    }
+
+    private int countLostUpdates(MenuData remoteMenu) {
+        Map<String, Integer> remotePrices = new ConcurrentHashMap<>();
+        for (Category category : remoteMenu.getCategories()) {
+            for (Dish dish : category.getDishes()) {
+                remotePrices.put(new DishRef(category.getId(), dish.getId()).key(), dish.getPrice());
+            }
+        }
+
+        int lost = 0;
+        for (Map.Entry<String, Integer> acknowledged : acknowledgedPrices.entrySet()) {
+            if (uncertainDishes.contains(acknowledged.getKey())) {
+                continue;
+            }
+            if (!acknowledged.getValue().equals(remotePrices.get(acknowledged.getKey()))) {
+                lost++;
+            }
+        }
+        return lost;
+    }
+
+    private void report(long pushes, int lostUpdates) {
+        double seconds = options.durationSeconds;
+        System.out.println();
+        System.out.println(OperationStats.header());
+        for (OperationStats stats : List.of(readMenu, readCategory, readDish, writePrice)) {
+            System.out.println(stats.formatRow(seconds));
+        }
+        long reads = readMenu.count() + readCategory.count() + readDish.count();
+        System.out.println();
+        System.out.printf("Throughput: %.1f reads/s, %.1f writes/s%n", reads / seconds, writePrice.count() / seconds);
+        System.out.printf("Pushes received by remote: %d%n", pushes);
+        System.out.printf("Dishes with acknowledged writes: %d (%d excluded after a failed write)%n",
+                acknowledgedPrices.size(), uncertainDishes.size());
+        System.out.printf("Lost updates: %d%n", lostUpdates);
+    }
+
+    private record DishRef(String categoryId, String dishId) {
+        String key() {
+            return categoryId + "/" + dishId;
+        }
+    }
+
+    private static final class Options {
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int readers = 16;
+        int writers = 4;
+        long pushLatencyMs = 200;
+        Path menuFile = Path.of("../static/data/menu-data.json");
+        boolean keep;
+        boolean failOnLostUpdates;
+        boolean verbose;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--duration" -> options.durationSeconds = Integer.parseInt(args[++i]);
+                    case "--warmup" -> options.warmupSeconds = Integer.parseInt(args[++i]);
+                    case "--readers" -> options.readers = Integer.parseInt(args[++i]);
+                    case "--writers" -> options.writers = Integer.parseInt(args[++i]);
+                    case "--push-latency-ms" -> options.pushLatencyMs = Long.parseLong(args[++i]);
+                    case "--menu" -> options.menuFile = Path.of(args[++i]);
+                    case "--keep" -> options.keep = true;
+                    case "--fail-on-lost-updates" -> options.failOnLostUpdates = true;
+                    case "--verbose" -> options.verbose = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.bapukikutia.menuadmin.loadtest;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.eclipse.jgit.http.server.GitServlet;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves one bare repository over smart HTTP, standing in for GitHub.
+ * Every push ({@code POST .../git-receive-pack}) is delayed by a fixed latency
+ * before it reaches the repository, so push cost can be dialled up or down.
+ */
+public final class LocalGitServer implements AutoCloseable {
+
+    private final Tomcat tomcat;
+    private final Repository repository;
+    private final AtomicLong pushes = new AtomicLong();
+
+    private LocalGitServer(Tomcat tomcat, Repository repository) {
+        this.tomcat = tomcat;
+        this.repository = repository;
+    }
+
+    public static LocalGitServer start(File bareRepository, File workDirectory, Duration pushLatency)
+            throws IOException, LifecycleException {
+        Repository repository = new FileRepositoryBuilder()
+                .setGitDir(bareRepository)
+                .setBare()
+                .build();
+        StoredConfig config = repository.getConfig();
+        config.setBoolean("http", null, "receivepack", true);
+        config.save();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(workDirectory.getAbsolutePath());
+        tomcat.setPort(0);
+
+        LocalGitServer server = new LocalGitServer(tomcat, repository);
+
+        Context context = tomcat.addContext("", workDirectory.getAbsolutePath());
+        GitServlet gitServlet = new GitServlet();
+        gitServlet.setRepositoryResolver((request, name) -> {
+            repository.incrementOpen();
+            return repository;
+        });
+        Tomcat.addServlet(context, "git", gitServlet);
+        context.addServletMappingDecoded("/*", "git");
+
+        FilterDef latencyFilter = new FilterDef();
+        latencyFilter.setFilterName("push-latency");
+        latencyFilter.setFilter(server.new PushLatencyFilter(pushLatency));
+        context.addFilterDef(latencyFilter);
+        FilterMap latencyMapping = new FilterMap();
+        latencyMapping.setFilterName("push-latency");
+        latencyMapping.addURLPattern("/*");
+        context.addFilterMap(latencyMapping);
+
+        tomcat.getConnector();
+        tomcat.start();
+        return server;
+    }
+
+    public String url(String repositoryName) {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + "/" + repositoryName;
+    }
+
+    public long getPushCount() {
+        return pushes.get();
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+        repository.close();
+    }
+
+    private final class PushLatencyFilter implements Filter {
+
+        private final Duration latency;
+
+        PushLatencyFilter(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            if ("POST".equals(httpRequest.getMethod()) && httpRequest.getRequestURI().endsWith("/git-receive-pack")) {
+                pushes.incrementAndGet();
+                if (!latency.isZero()) {
+                    try {
+                        Thread.sleep(latency);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ServletException("Interrupted while simulating push latency", e);
+                    }
+                }
+            }
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bapukikutia.menuadmin.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count for one kind of request.
+ */
+final class OperationStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram latencyMicros = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long startNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencyMicros.recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    String formatRow(double seconds) {
+        return String.format("%-14s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                name,
+                count(),
+                errors.sum(),
+                count() / seconds,
+                millis(latencyMicros.getValueAtPercentile(50.0)),
+                millis(latencyMicros.getValueAtPercentile(99.0)),
+                millis(latencyMicros.getValueAtPercentile(99.9)),
+                millis(latencyMicros.getMaxValue()));
+    }
+
+    static String header() {
+        return String.format("%-14s %9s %8s %10s %9s %9s %9s %9s",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
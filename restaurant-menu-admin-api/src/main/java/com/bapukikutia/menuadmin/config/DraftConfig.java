@@ -0,0 +1,14 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "drafts")
+public class DraftConfig {
+
+    // Each draft is the ref {ref-prefix}{restaurantId}/{name} on the remote, outside refs/heads so no deploy runs
+    private String refPrefix = "refs/menu-admin/drafts/";
+}
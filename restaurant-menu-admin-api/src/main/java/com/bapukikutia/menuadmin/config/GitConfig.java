@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "github")
@@ -12,6 +15,9 @@ public class GitConfig {
     private Repository repository = new Repository();
     private Menu menu = new Menu();
     private Local local = new Local();
+    private Maintenance maintenance = new Maintenance();
+    private Health health = new Health();
+    private Leader leader = new Leader();
 
     @Data
     public static class Repository {
@@ -24,11 +30,71 @@ public class GitConfig {
     @Data
     public static class Menu {
         private String filePath;
+        // Menu file of each additional outlet; {restaurantId} is replaced with the outlet ID
+        private String outletFilePath = "static/data/outlets/{restaurantId}/menu-data.json";
     }
 
     @Data
     public static class Local {
         private String cloneDirectory;
         private boolean skipPull = false;  // Skip pull in local development
+        private boolean asyncInit = false;  // Clone or pull after startup, behind the readiness probe
+    }
+
+    @Data
+    public static class Maintenance {
+        private boolean enabled = true;
+        private String cron = "0 30 3 * * *";
+        private String zone = "Asia/Kolkata";
+        // Unreachable objects younger than this survive, as git's own gc.pruneExpire
+        private Duration pruneExpire = Duration.ofHours(1);
+        // Below this many loose objects, with a single pack, the run is skipped
+        private int minLooseObjects = 500;
+    }
+
+    /**
+     * Limits past which the instance reports itself out of service for
+     * readiness. Unset durations are not checked.
+     */
+    @Data
+    public static class Health {
+        private int maxUnpushedCommits = 20;
+        private Duration maxUnpushedAge = Duration.ofMinutes(10);
+        private int maxBehindCommits = 0;
+        private Duration maxPullAge;
+    }
+
+    /**
+     * Several instances sharing the repository elect one leader, the only one
+     * that commits and pushes. The lease is the ref below on the remote.
+     */
+    @Data
+    public static class Leader {
+        private boolean enabled = false;
+        private String ref = "refs/menu-admin/leader";
+        // Blocks of bill numbers taken by any leader, so a new one never repeats a number
+        private String billSequenceRef = "refs/menu-admin/bill-sequence";
+        // Must differ between instances; defaults to the host name with a random suffix
+        private String instanceId;
+        // Base URL the other instances reach this one on, e.g. http://10.0.0.5:8080
+        private String url;
+        private Duration leaseDuration = Duration.ofSeconds(30);
+        // The leader renews its lease, followers check it and sync their clone
+        private Duration renewInterval = Duration.ofSeconds(10);
+        private FollowerWrites followerWrites = FollowerWrites.FORWARD;
+        private Duration forwardTimeout = Duration.ofSeconds(30);
+        // Reads of state kept only by the leader, sent there like writes
+        private List<String> leaderReads = List.of(
+                "/api/stock/**", "/api/*/stock/**",
+                "/api/sales/**", "/api/*/sales/**",
+                "/api/ratings/**", "/api/*/ratings/**",
+                "/api/kitchen/**", "/api/*/kitchen/**",
+                "/api/drafts/**", "/api/*/drafts/**",
+                // Carries the leader's sold-out dishes and review scores
+                "/public/menu/**", "/public/*/menu/**");
+    }
+
+    public enum FollowerWrites {
+        FORWARD, REDIRECT
     }
 }
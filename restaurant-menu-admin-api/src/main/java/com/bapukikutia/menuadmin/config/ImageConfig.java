@@ -0,0 +1,27 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "image")
+public class ImageConfig {
+
+    // Repository directory for uploaded originals; variants go to its "variants" subdirectory
+    private String directory = "static/images/dishes";
+
+    // Width buckets for the srcset; widths at or above the original's are skipped
+    private List<Integer> widths = List.of(320, 640, 1024);
+
+    private float quality = 0.8f;       // JPEG encoder quality (0.0 - 1.0)
+    private int workerThreads = 2;      // Background variant encoders
+    private int queueCapacity = 64;     // Pending uploads before new ones are rejected
+
+    // Variant filenames carry a content hash, so they can be cached forever
+    private Duration variantMaxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,22 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "kitchen")
+public class KitchenConfig {
+
+    // Station for dishes when neither the dish nor its category names one
+    private String defaultStation = "kitchen";
+
+    // Station screens reconnect after this; EventSource does so on its own
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Comment sent to idle streams so proxies don't close them
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
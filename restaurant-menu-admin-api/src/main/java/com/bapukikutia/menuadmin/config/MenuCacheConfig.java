@@ -0,0 +1,18 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "menu-cache")
+public class MenuCacheConfig {
+
+    // Estimated heap used by loaded outlet menus before least recently used ones are dropped
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    // Estimated heap for evicted menus kept in compact form, which reload without reading the menu file; 0 drops them
+    private DataSize compactMaxSize = DataSize.ofMegabytes(64);
+}
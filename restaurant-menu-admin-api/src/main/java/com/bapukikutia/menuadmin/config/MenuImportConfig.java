@@ -0,0 +1,17 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "menu-import")
+public class MenuImportConfig {
+
+    private int maxRows = 100_000;      // Larger files are rejected
+    private int maxErrors = 100;        // Row errors reported; the rest are only counted
+
+    private int batchSize = 1_000;      // Rows validated per task
+    private int validatorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+}
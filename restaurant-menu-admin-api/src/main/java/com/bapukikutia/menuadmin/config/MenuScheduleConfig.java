@@ -0,0 +1,16 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "menu-schedule")
+public class MenuScheduleConfig {
+
+    // Local time that dish and category schedules are written in
+    private ZoneId zone = ZoneId.of("Asia/Kolkata");
+}
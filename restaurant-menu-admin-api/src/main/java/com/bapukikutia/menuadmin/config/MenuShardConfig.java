@@ -0,0 +1,16 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "menu-shards")
+public class MenuShardConfig {
+
+    private boolean enabled = true;
+
+    // Created next to each outlet's menu file
+    private String directory = "menu";
+}
@@ -0,0 +1,38 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "orders")
+public class OrderConfig {
+
+    // Order log and bill sequence live outside the menu repository; orders are never committed
+    private String directory = System.getProperty("user.home") + "/.restaurant-menu-orders";
+
+    private String billPrefix = "BKK";
+
+    // Decides which day's log file an order goes to and the month in its bill number
+    private ZoneId zone = ZoneId.of("Asia/Kolkata");
+
+    // Same rates and rounding as calculateBill() in bill.html
+    private double gstRate = 0.05;
+    private double serviceChargeRate = 0.02;
+
+    private int maxItems = 50;          // Line items per order
+    private int maxQuantity = 99;       // Quantity per line item
+
+    // Bill numbers reserved per fsync of the sequence file; at most this many are skipped after a crash
+    private int billBlockSize = 1000;
+
+    private int queueCapacity = 10000;  // Orders waiting for the log writer before new ones get 503
+    private int maxBatch = 512;         // Orders written per fsync
+
+    // How long a request waits for its order to reach the disk
+    private Duration ackTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,19 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "prerender")
+public class PrerenderConfig {
+
+    private boolean enabled = true;
+
+    // Public page of the default outlet, relative to the repository root
+    private String page = "index.html";
+
+    // Dish images above the fold are loaded eagerly, the rest lazily
+    private int eagerImages = 4;
+}
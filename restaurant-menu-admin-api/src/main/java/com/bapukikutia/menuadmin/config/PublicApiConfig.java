@@ -0,0 +1,25 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "public-api")
+public class PublicApiConfig {
+
+    // How long browsers and CDNs may reuse a response without asking again
+    private Duration maxAge = Duration.ofSeconds(60);
+
+    // After max-age, a cached copy may still be served while it is refreshed in the background
+    private Duration staleWhileRevalidate = Duration.ofMinutes(10);
+
+    // ...or while this service is failing
+    private Duration staleIfError = Duration.ofDays(1);
+
+    private List<String> allowedOrigins = List.of("*");
+}
@@ -0,0 +1,46 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+
+    // Buckets that have been full for this long are dropped from memory
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    // Clients beyond this share one bucket per limit until the sweep frees room
+    private int maxBuckets = 100_000;
+
+    // GET, HEAD and OPTIONS requests
+    private Route read = new Route(new Limit(120, 60), new Limit(300, 150));
+
+    // Everything else - each of these ends up as a git push
+    private Route write = new Route(new Limit(20, 10), new Limit(40, 20));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        private Limit perPrincipal;
+        private Limit perIp;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int capacity;          // Burst size in requests
+        private int refillPerMinute;   // Sustained rate
+    }
+}
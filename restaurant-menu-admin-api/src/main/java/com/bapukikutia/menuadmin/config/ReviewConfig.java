@@ -0,0 +1,16 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "reviews")
+public class ReviewConfig {
+
+    // Reviews show on the public menu, and reach the disk, at most this long after they're submitted
+    private Duration flushInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,14 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "server-timing")
+public class ServerTimingConfig {
+
+    private boolean enabled = false;      // Time every request
+    private double sampleRate = 0.0;      // Otherwise time this fraction of requests (0.0 - 1.0)
+}
@@ -0,0 +1,16 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "stock")
+public class StockConfig {
+
+    // Portions sold since the last write are recovered from the order log after a crash
+    private Duration flushInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,26 @@
+package com.bapukikutia.menuadmin.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Paths;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final GitConfig gitConfig;
+    private final ImageConfig imageConfig;
+
+    // Image variants straight from the clone, at the same path they have in the repository
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String variants = imageConfig.getDirectory() + "/variants/";
+        registry.addResourceHandler("/" + variants + "**")
+                .addResourceLocations(Paths.get(gitConfig.getLocal().getCloneDirectory(), variants).toUri().toString())
+                .setCacheControl(CacheControl.maxAge(imageConfig.getVariantMaxAge()).cachePublic().immutable());
+    }
+}
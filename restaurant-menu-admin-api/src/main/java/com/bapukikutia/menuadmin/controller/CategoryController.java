@@ -13,7 +13,7 @@ import java.util.List;
 
 @Slf4j
 @RestController
-@RequestMapping("/api/categories")
+@RequestMapping({"/api/categories", "/api/{restaurantId}/categories"})
 @RequiredArgsConstructor
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class CategoryController {
@@ -21,39 +21,46 @@ public class CategoryController {
     private final MenuService menuService;
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<Category>> getAllCategories(@PathVariable(required = false) String restaurantId) {
         log.info("GET /api/categories - Fetching all categories");
-        List<Category> categories = menuService.getAllCategories();
+        List<Category> categories = menuService.getAllCategories(restaurantId);
         return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/{categoryId}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable String categoryId) {
+    public ResponseEntity<Category> getCategoryById(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId) {
         log.info("GET /api/categories/{} - Fetching category", categoryId);
-        Category category = menuService.getCategoryById(categoryId);
+        Category category = menuService.getCategoryById(restaurantId, categoryId);
         return ResponseEntity.ok(category);
     }
 
     @PostMapping
-    public ResponseEntity<Category> createCategory(@Valid @RequestBody Category category) {
+    public ResponseEntity<Category> createCategory(
+            @PathVariable(required = false) String restaurantId,
+            @Valid @RequestBody Category category) {
         log.info("POST /api/categories - Creating new category: {}", category.getName());
-        Category created = menuService.createCategory(category);
+        Category created = menuService.createCategory(restaurantId, category);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{categoryId}")
     public ResponseEntity<Category> updateCategory(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @Valid @RequestBody Category category) {
         log.info("PUT /api/categories/{} - Updating category", categoryId);
-        Category updated = menuService.updateCategory(categoryId, category);
+        Category updated = menuService.updateCategory(restaurantId, categoryId, category);
         return ResponseEntity.ok(updated);
     }
 
     @DeleteMapping("/{categoryId}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable String categoryId) {
+    public ResponseEntity<Void> deleteCategory(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId) {
         log.info("DELETE /api/categories/{} - Deleting category", categoryId);
-        menuService.deleteCategory(categoryId);
+        menuService.deleteCategory(restaurantId, categoryId);
         return ResponseEntity.noContent().build();
     }
 }
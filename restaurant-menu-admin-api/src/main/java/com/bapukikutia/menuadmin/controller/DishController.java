@@ -2,95 +2,119 @@ package com.bapukikutia.menuadmin.controller;
 
 import com.bapukikutia.menuadmin.dto.PriceUpdateRequest;
 import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.service.ImageService;
 import com.bapukikutia.menuadmin.service.MenuService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
 @Slf4j
 @RestController
-@RequestMapping("/api/categories/{categoryId}/dishes")
+@RequestMapping({"/api/categories/{categoryId}/dishes", "/api/{restaurantId}/categories/{categoryId}/dishes"})
 @RequiredArgsConstructor
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class DishController {
 
     private final MenuService menuService;
+    private final ImageService imageService;
 
     @GetMapping
-    public ResponseEntity<List<Dish>> getDishesByCategory(@PathVariable String categoryId) {
+    public ResponseEntity<List<Dish>> getDishesByCategory(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId) {
         log.info("GET /api/categories/{}/dishes - Fetching dishes", categoryId);
-        List<Dish> dishes = menuService.getDishesByCategory(categoryId);
+        List<Dish> dishes = menuService.getDishesByCategory(restaurantId, categoryId);
         return ResponseEntity.ok(dishes);
     }
 
     @GetMapping("/{dishId}")
     public ResponseEntity<Dish> getDishById(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @PathVariable String dishId) {
         log.info("GET /api/categories/{}/dishes/{} - Fetching dish", categoryId, dishId);
-        Dish dish = menuService.getDishById(categoryId, dishId);
+        Dish dish = menuService.getDishById(restaurantId, categoryId, dishId);
         return ResponseEntity.ok(dish);
     }
 
     @PostMapping
     public ResponseEntity<Dish> createDish(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @Valid @RequestBody Dish dish) {
         log.info("POST /api/categories/{}/dishes - Creating dish: {}", categoryId, dish.getName());
-        Dish created = menuService.createDish(categoryId, dish);
+        Dish created = menuService.createDish(restaurantId, categoryId, dish);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{dishId}")
     public ResponseEntity<Dish> updateDish(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @PathVariable String dishId,
             @Valid @RequestBody Dish dish) {
         log.info("PUT /api/categories/{}/dishes/{} - Updating dish", categoryId, dishId);
-        Dish updated = menuService.updateDish(categoryId, dishId, dish);
+        Dish updated = menuService.updateDish(restaurantId, categoryId, dishId, dish);
         return ResponseEntity.ok(updated);
     }
 
     @DeleteMapping("/{dishId}")
     public ResponseEntity<Void> deleteDish(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @PathVariable String dishId) {
         log.info("DELETE /api/categories/{}/dishes/{} - Deleting dish", categoryId, dishId);
-        menuService.deleteDish(categoryId, dishId);
+        menuService.deleteDish(restaurantId, categoryId, dishId);
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/{dishId}/availability")
     public ResponseEntity<Dish> toggleAvailability(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @PathVariable String dishId) {
         log.info("PATCH /api/categories/{}/dishes/{}/availability - Toggling availability",
                 categoryId, dishId);
-        Dish updated = menuService.toggleDishAvailability(categoryId, dishId);
+        Dish updated = menuService.toggleDishAvailability(restaurantId, categoryId, dishId);
         return ResponseEntity.ok(updated);
     }
 
     @PatchMapping("/{dishId}/price")
     public ResponseEntity<Dish> updatePrice(
+            @PathVariable(required = false) String restaurantId,
             @PathVariable String categoryId,
             @PathVariable String dishId,
             @Valid @RequestBody PriceUpdateRequest request) {
         log.info("PATCH /api/categories/{}/dishes/{}/price - Updating price to ₹{}",
                 categoryId, dishId, request.getPrice());
-        Dish updated = menuService.updateDishPrice(categoryId, dishId, request.getPrice());
+        Dish updated = menuService.updateDishPrice(restaurantId, categoryId, dishId, request.getPrice());
+        return ResponseEntity.ok(updated);
+    }
+
+    @PostMapping(value = "/{dishId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Dish> uploadImage(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId,
+            @PathVariable String dishId,
+            @RequestParam("file") MultipartFile file) {
+        log.info("POST /api/categories/{}/dishes/{}/image - Uploading image ({} bytes)",
+                categoryId, dishId, file.getSize());
+        Dish updated = imageService.upload(restaurantId, categoryId, dishId, file);
         return ResponseEntity.ok(updated);
     }
 
     // Get all dishes across all categories
     @GetMapping("/all")
-    public ResponseEntity<List<Dish>> getAllDishes() {
+    public ResponseEntity<List<Dish>> getAllDishes(@PathVariable(required = false) String restaurantId) {
         log.info("GET /api/categories//all/dishes - Fetching all dishes");
-        List<Dish> dishes = menuService.getAllDishes();
+        List<Dish> dishes = menuService.getAllDishes(restaurantId);
         return ResponseEntity.ok(dishes);
     }
 }
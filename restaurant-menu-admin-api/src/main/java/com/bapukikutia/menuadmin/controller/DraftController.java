@@ -0,0 +1,93 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.DraftPreview;
+import com.bapukikutia.menuadmin.dto.DraftRequest;
+import com.bapukikutia.menuadmin.dto.DraftSummary;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.MenuDrafts;
+import com.bapukikutia.menuadmin.service.MenuService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Drafts of the menu. Edits are staged in one by sending the usual menu,
+ * category and dish requests with an {@code X-Menu-Draft} header.
+ */
+@Slf4j
+@RestController
+@RequestMapping({"/api/drafts", "/api/{restaurantId}/drafts"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class DraftController {
+
+    private final MenuDrafts menuDrafts;
+    private final MenuService menuService;
+
+    @GetMapping
+    public ResponseEntity<List<DraftSummary>> getDrafts(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/drafts - Fetching drafts");
+        List<DraftSummary> drafts = menuDrafts.list(restaurantId);
+        return ResponseEntity.ok(drafts);
+    }
+
+    @PostMapping
+    public ResponseEntity<DraftSummary> createDraft(
+            @PathVariable(required = false) String restaurantId,
+            @Valid @RequestBody(required = false) DraftRequest request) {
+        String name = request == null ? null : request.getName();
+        log.info("POST /api/drafts - Starting draft: {}", name);
+        DraftSummary created = menuDrafts.create(restaurantId, name);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<DraftSummary> getDraft(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String name) {
+        log.info("GET /api/drafts/{} - Fetching draft", name);
+        DraftSummary draft = menuDrafts.get(restaurantId, name);
+        return ResponseEntity.ok(draft);
+    }
+
+    @GetMapping("/{name}/menu")
+    public ResponseEntity<MenuData> getDraftMenu(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String name) {
+        log.info("GET /api/drafts/{}/menu - Fetching draft menu", name);
+        MenuData menuData = menuDrafts.getMenuData(restaurantId, name);
+        return ResponseEntity.ok(menuData);
+    }
+
+    @GetMapping("/{name}/diff")
+    public ResponseEntity<DraftPreview> previewDraft(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String name) {
+        log.info("GET /api/drafts/{}/diff - Comparing draft with the live menu", name);
+        DraftPreview preview = menuDrafts.preview(restaurantId, name);
+        return ResponseEntity.ok(preview);
+    }
+
+    @PostMapping("/{name}/publish")
+    public ResponseEntity<DraftPreview> publishDraft(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String name) {
+        log.info("POST /api/drafts/{}/publish - Publishing draft", name);
+        DraftPreview published = menuService.publishDraft(restaurantId, name);
+        return ResponseEntity.ok(published);
+    }
+
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> discardDraft(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String name) {
+        log.info("DELETE /api/drafts/{} - Discarding draft", name);
+        menuDrafts.discard(restaurantId, name);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.service.KitchenDisplayService;
+import com.bapukikutia.menuadmin.service.KitchenTicket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping({"/api/kitchen", "/api/{restaurantId}/kitchen"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class KitchenController {
+
+    private final KitchenDisplayService kitchenDisplayService;
+
+    @GetMapping("/stations")
+    public ResponseEntity<Map<String, Integer>> getStations(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/kitchen/stations - Fetching open tickets per station");
+        return ResponseEntity.ok(kitchenDisplayService.getStations(restaurantId));
+    }
+
+    @GetMapping("/stations/{station}/tickets")
+    public ResponseEntity<List<KitchenTicket>> getTickets(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String station) {
+        log.info("GET /api/kitchen/stations/{}/tickets - Fetching station queue", station);
+        return ResponseEntity.ok(kitchenDisplayService.getTickets(restaurantId, station));
+    }
+
+    @GetMapping(value = "/stations/{station}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTickets(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String station) {
+        log.info("GET /api/kitchen/stations/{}/stream - Station screen connected", station);
+        return kitchenDisplayService.stream(restaurantId, station);
+    }
+
+    @PostMapping("/tickets/{ticketId}/bump")
+    public ResponseEntity<KitchenTicket> bumpTicket(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String ticketId) {
+        log.info("POST /api/kitchen/tickets/{}/bump - Raising ticket priority", ticketId);
+        return ResponseEntity.ok(kitchenDisplayService.bump(restaurantId, ticketId));
+    }
+
+    @PostMapping("/tickets/{ticketId}/complete")
+    public ResponseEntity<Void> completeTicket(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String ticketId) {
+        log.info("POST /api/kitchen/tickets/{}/complete - Completing ticket", ticketId);
+        kitchenDisplayService.complete(restaurantId, ticketId);
+        return ResponseEntity.noContent().build();
+    }
+}
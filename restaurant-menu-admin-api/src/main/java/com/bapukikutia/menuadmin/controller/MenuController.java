@@ -1,25 +1,78 @@
 package com.bapukikutia.menuadmin.controller;
 
+import com.bapukikutia.menuadmin.dto.ImportResult;
 import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.service.BulkMenuService;
 import com.bapukikutia.menuadmin.service.MenuService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 
 @Slf4j
 @RestController
-@RequestMapping("/api/menu")
+@RequestMapping({"/api/menu", "/api/{restaurantId}/menu"})
 @RequiredArgsConstructor
 @CrossOrigin(origins = "${cors.allowed-origins}")
 public class MenuController {
 
     private final MenuService menuService;
+    private final BulkMenuService bulkMenuService;
 
     @GetMapping
-    public ResponseEntity<MenuData> getMenuData() {
+    public ResponseEntity<MenuData> getMenuData(@PathVariable(required = false) String restaurantId) {
         log.info("GET /api/menu - Fetching complete menu data");
-        MenuData menuData = menuService.getMenuData();
+        MenuData menuData = menuService.getMenuData(restaurantId);
         return ResponseEntity.ok(menuData);
     }
+
+    @GetMapping("/live")
+    public ResponseEntity<MenuData> getLiveMenuData(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/menu/live - Fetching menu for the current schedule window");
+        MenuData menuData = menuService.getLiveMenuData(restaurantId);
+        return ResponseEntity.ok(menuData);
+    }
+
+    @PutMapping("/holidays")
+    public ResponseEntity<List<LocalDate>> updateHolidays(
+            @PathVariable(required = false) String restaurantId,
+            @RequestBody List<LocalDate> holidays) {
+        log.info("PUT /api/menu/holidays - Setting {} holidays", holidays.size());
+        List<LocalDate> updated = menuService.updateHolidays(restaurantId, holidays);
+        return ResponseEntity.ok(updated);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMenu(
+            @PathVariable(required = false) String restaurantId,
+            @RequestParam(defaultValue = "csv") String format) {
+        log.info("GET /api/menu/export - Exporting dishes as {}", format);
+        BulkMenuService.Format exportFormat = BulkMenuService.Format.of(format);
+        StreamingResponseBody body = bulkMenuService.export(restaurantId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("menu." + exportFormat.extension()).build().toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResult> importMenu(
+            @PathVariable(required = false) String restaurantId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(defaultValue = "false") boolean replace,
+            InputStream body) {
+        log.info("POST /api/menu/import - Importing {} (replace: {})", contentType, replace);
+        ImportResult result = bulkMenuService.importMenu(restaurantId, BulkMenuService.Format.of(contentType),
+                body, replace);
+        return ResponseEntity.ok(result);
+    }
 }
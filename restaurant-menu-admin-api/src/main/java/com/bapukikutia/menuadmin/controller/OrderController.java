@@ -0,0 +1,37 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.OrderRequest;
+import com.bapukikutia.menuadmin.model.Order;
+import com.bapukikutia.menuadmin.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Guest checkout. The cart is priced on the server and the response carries the
+ * bill number and totals to print.
+ */
+@Slf4j
+@RestController
+@RequestMapping({"/public/orders", "/public/{restaurantId}/orders"})
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderService orderService;
+
+    @PostMapping
+    public ResponseEntity<Order> placeOrder(
+            @PathVariable(required = false) String restaurantId,
+            @Valid @RequestBody OrderRequest request) {
+        log.debug("POST /public/orders - Placing order with {} items for {}", request.getItems().size(), restaurantId);
+        Order order = orderService.placeOrder(restaurantId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+    }
+}
@@ -0,0 +1,36 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.model.PricingRule;
+import com.bapukikutia.menuadmin.service.MenuService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping({"/api/pricing-rules", "/api/{restaurantId}/pricing-rules"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class PricingRuleController {
+
+    private final MenuService menuService;
+
+    @GetMapping
+    public ResponseEntity<List<PricingRule>> getPricingRules(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/pricing-rules - Fetching pricing rules");
+        return ResponseEntity.ok(menuService.getPricingRules(restaurantId));
+    }
+
+    @PutMapping
+    public ResponseEntity<List<PricingRule>> updatePricingRules(
+            @PathVariable(required = false) String restaurantId,
+            @Valid @RequestBody List<@Valid PricingRule> pricingRules) {
+        log.info("PUT /api/pricing-rules - Replacing with {} rules", pricingRules.size());
+        List<PricingRule> updated = menuService.updatePricingRules(restaurantId, pricingRules);
+        return ResponseEntity.ok(updated);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.config.PublicApiConfig;
+import com.bapukikutia.menuadmin.service.PublicMenuService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read-only menu for the storefront, served without authentication. Responses
+ * carry an ETag and public Cache-Control, and Spring answers a matching
+ * If-None-Match with 304, so a CDN in front can absorb almost all reads.
+ */
+@Slf4j
+@RestController
+@RequestMapping({"/public/menu", "/public/{restaurantId}/menu"})
+@RequiredArgsConstructor
+public class PublicMenuController {
+
+    private final PublicMenuService publicMenuService;
+    private final PublicApiConfig publicApiConfig;
+
+    @GetMapping
+    public ResponseEntity<byte[]> getMenu(@PathVariable(required = false) String restaurantId) {
+        log.debug("GET /public/menu - Fetching public menu for {}", restaurantId);
+        PublicMenuService.PublishedMenu menu = publicMenuService.getPublishedMenu(restaurantId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(menu.etag())
+                .cacheControl(cacheControl())
+                .body(menu.body());
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(publicApiConfig.getMaxAge())
+                .cachePublic()
+                .staleWhileRevalidate(publicApiConfig.getStaleWhileRevalidate())
+                .staleIfError(publicApiConfig.getStaleIfError());
+    }
+}
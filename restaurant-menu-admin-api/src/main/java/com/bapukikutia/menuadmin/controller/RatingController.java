@@ -0,0 +1,26 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.DishRating;
+import com.bapukikutia.menuadmin.service.DishRatings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping({"/api/ratings", "/api/{restaurantId}/ratings"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class RatingController {
+
+    private final DishRatings dishRatings;
+
+    @GetMapping
+    public ResponseEntity<List<DishRating>> getRatings(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/ratings - Fetching dish ratings");
+        return ResponseEntity.ok(dishRatings.getRatings(restaurantId));
+    }
+}
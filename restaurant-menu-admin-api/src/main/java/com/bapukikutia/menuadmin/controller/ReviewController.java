@@ -0,0 +1,38 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.DishRating;
+import com.bapukikutia.menuadmin.dto.ReviewRequest;
+import com.bapukikutia.menuadmin.service.DishRatings;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Guest reviews of dishes. The response carries the dish's rating with the
+ * review counted in.
+ */
+@Slf4j
+@RestController
+@RequestMapping({"/public/reviews", "/public/{restaurantId}/reviews"})
+@RequiredArgsConstructor
+public class ReviewController {
+
+    private final DishRatings dishRatings;
+
+    @PostMapping
+    public ResponseEntity<DishRating> submitReview(
+            @PathVariable(required = false) String restaurantId,
+            @Valid @RequestBody ReviewRequest request) {
+        log.debug("POST /public/reviews - {} stars for {} in {}", request.getRating(), request.getDishId(),
+                request.getCategoryId());
+        DishRating rating = dishRatings.submit(restaurantId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(rating);
+    }
+}
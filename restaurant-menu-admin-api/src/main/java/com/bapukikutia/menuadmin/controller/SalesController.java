@@ -0,0 +1,39 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.SalesReport;
+import com.bapukikutia.menuadmin.service.SalesAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping({"/api/sales", "/api/{restaurantId}/sales"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class SalesController {
+
+    private final SalesAggregator salesAggregator;
+
+    @GetMapping("/dishes")
+    public ResponseEntity<SalesReport> getTopDishes(
+            @PathVariable(required = false) String restaurantId,
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "quantity") String sort,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/sales/dishes - Top {} dishes by {} over {}", limit, sort, window);
+        SalesReport report = salesAggregator.topDishes(restaurantId,
+                SalesAggregator.Window.of(window), SalesAggregator.SortBy.of(sort), limit);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<SalesReport> getRevenueByCategory(
+            @PathVariable(required = false) String restaurantId,
+            @RequestParam(defaultValue = "1h") String window) {
+        log.info("GET /api/sales/categories - Revenue per category over {}", window);
+        SalesReport report = salesAggregator.revenueByCategory(restaurantId, SalesAggregator.Window.of(window));
+        return ResponseEntity.ok(report);
+    }
+}
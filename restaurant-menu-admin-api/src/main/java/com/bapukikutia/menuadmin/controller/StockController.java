@@ -0,0 +1,60 @@
+package com.bapukikutia.menuadmin.controller;
+
+import com.bapukikutia.menuadmin.dto.StockLevel;
+import com.bapukikutia.menuadmin.dto.StockUpdateRequest;
+import com.bapukikutia.menuadmin.service.StockLevels;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping({"/api/stock", "/api/{restaurantId}/stock"})
+@RequiredArgsConstructor
+@CrossOrigin(origins = "${cors.allowed-origins}")
+public class StockController {
+
+    private final StockLevels stockLevels;
+
+    @GetMapping
+    public ResponseEntity<List<StockLevel>> getLevels(@PathVariable(required = false) String restaurantId) {
+        log.info("GET /api/stock - Fetching stock levels");
+        return ResponseEntity.ok(stockLevels.getLevels(restaurantId));
+    }
+
+    @PutMapping("/{categoryId}/{dishId}")
+    public ResponseEntity<StockLevel> setLevel(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId,
+            @PathVariable String dishId,
+            @Valid @RequestBody StockUpdateRequest request) {
+        log.info("PUT /api/stock/{}/{} - Setting stock to {}", categoryId, dishId, request.getQuantity());
+        StockLevel level = stockLevels.set(restaurantId, categoryId, dishId, request.getQuantity());
+        return ResponseEntity.ok(level);
+    }
+
+    @PostMapping("/{categoryId}/{dishId}/replenish")
+    public ResponseEntity<StockLevel> replenish(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId,
+            @PathVariable String dishId,
+            @Valid @RequestBody StockUpdateRequest request) {
+        log.info("POST /api/stock/{}/{}/replenish - Adding {}", categoryId, dishId, request.getQuantity());
+        StockLevel level = stockLevels.replenish(restaurantId, categoryId, dishId, request.getQuantity());
+        return ResponseEntity.ok(level);
+    }
+
+    @DeleteMapping("/{categoryId}/{dishId}")
+    public ResponseEntity<Void> untrack(
+            @PathVariable(required = false) String restaurantId,
+            @PathVariable String categoryId,
+            @PathVariable String dishId) {
+        log.info("DELETE /api/stock/{}/{} - Stopping stock tracking", categoryId, dishId);
+        stockLevels.untrack(restaurantId, categoryId, dishId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A dish's rating with the reviews counted into the menu file and those
+ * submitted since. Only the latter have a breakdown by stars.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DishRating {
+
+    @JsonProperty("category_id")
+    private String categoryId;
+
+    @JsonProperty("dish_id")
+    private String dishId;
+
+    // Null once the dish has been deleted from the menu
+    private String name;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double rating;
+
+    @JsonProperty("num_reviews")
+    private int numReviews;
+
+    // Reviews submitted since the menu file's count, from one star to five
+    private long[] histogram;
+}
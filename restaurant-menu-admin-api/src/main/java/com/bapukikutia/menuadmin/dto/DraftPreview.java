@@ -0,0 +1,32 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What publishing a draft changes on the live menu. With conflicts, the
+ * changes are the draft against live as it is, and it can't be published.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftPreview {
+
+    private String name;
+
+    // Commit on the branch the draft was published as, once it is
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String commit;
+
+    private List<MenuChange> changes;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> conflicts;
+}
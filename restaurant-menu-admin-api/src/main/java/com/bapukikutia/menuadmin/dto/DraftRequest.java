@@ -0,0 +1,19 @@
+package com.bapukikutia.menuadmin.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftRequest {
+
+    // Defaults to the caller's username, for a personal draft
+    @Size(max = 64, message = "Draft name must be at most 64 characters")
+    @Pattern(regexp = "[a-z0-9]+([._-][a-z0-9]+)*",
+            message = "Draft name must be lowercase letters and digits, optionally separated by '.', '_' or '-'")
+    private String name;
+}
@@ -0,0 +1,46 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A draft and the edits staged in it, newest first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftSummary {
+
+    private String name;
+
+    @JsonProperty("restaurant_id")
+    private String restaurantId;
+
+    // Git ref holding the draft, and the commit it points at
+    private String ref;
+
+    private String head;
+
+    private List<Edit> edits;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Edit {
+
+        private String commit;
+
+        private String message;
+
+        private String author;
+
+        private Instant time;
+    }
+}
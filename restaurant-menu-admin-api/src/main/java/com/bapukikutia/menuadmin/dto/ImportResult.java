@@ -0,0 +1,38 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a bulk import changed; all of it went into a single commit.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+
+    private int rows;
+
+    @JsonProperty("dishes_created")
+    private int dishesCreated;
+
+    @JsonProperty("dishes_updated")
+    private int dishesUpdated;
+
+    @JsonProperty("dishes_unchanged")
+    private int dishesUnchanged;
+
+    // Only when the import replaced the menu
+    @JsonProperty("dishes_removed")
+    private int dishesRemoved;
+
+    @JsonProperty("categories_created")
+    private int categoriesCreated;
+
+    @JsonProperty("categories_removed")
+    private int categoriesRemoved;
+}
@@ -0,0 +1,32 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One difference between two menus. Paths name categories, dishes and
+ * pricing rules by ID, e.g. {@code categories[starters].dishes[paneer-tikka].price}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MenuChange {
+
+    public enum Type {
+        ADDED, REMOVED, CHANGED, REORDERED
+    }
+
+    private String path;
+
+    private Type type;
+
+    private JsonNode before;
+
+    private JsonNode after;
+}
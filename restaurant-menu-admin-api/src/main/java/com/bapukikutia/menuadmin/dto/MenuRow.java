@@ -0,0 +1,121 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One dish in a bulk import or export, flattened with its category so the
+ * menu fits a CSV file or one JSON object per line. Image variants and
+ * schedules are not part of a row; an import keeps the dish's existing ones.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"category_id", "category_name", "id", "name", "price", "image", "alt_text", "description",
+        "available", "is_vegetarian", "is_vegan", "is_spicy", "tags", "station"})
+public class MenuRow {
+
+    @JsonProperty("category_id")
+    @NotBlank(message = "Category ID is required")
+    private String categoryId;
+
+    // Names the category if the import creates it
+    @JsonProperty("category_name")
+    private String categoryName;
+
+    @NotBlank(message = "Dish ID is required")
+    private String id;
+
+    @NotBlank(message = "Dish name is required")
+    private String name;
+
+    @NotNull(message = "Price is required")
+    @Min(value = 0, message = "Price must be non-negative")
+    private Integer price;
+
+    @NotBlank(message = "Image path is required")
+    private String image;
+
+    @JsonProperty("alt_text")
+    private String altText;
+
+    private String description;
+
+    @Builder.Default
+    private Boolean available = true;
+
+    @JsonProperty("is_vegetarian")
+    @Builder.Default
+    private Boolean isVegetarian = true;
+
+    @JsonProperty("is_vegan")
+    @Builder.Default
+    private Boolean isVegan = false;
+
+    @JsonProperty("is_spicy")
+    @Builder.Default
+    private Boolean isSpicy = false;
+
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
+
+    @Pattern(regexp = "[a-z0-9][a-z0-9-]*", message = "Station must be lowercase letters, digits and hyphens")
+    private String station;
+
+    public static MenuRow of(Category category, Dish dish) {
+        return MenuRow.builder()
+                .categoryId(category.getId())
+                .categoryName(category.getName())
+                .id(dish.getId())
+                .name(dish.getName())
+                .price(dish.getPrice())
+                .image(dish.getImage())
+                .altText(dish.getAltText())
+                .description(dish.getDescription())
+                .available(dish.getAvailable())
+                .isVegetarian(dish.getIsVegetarian())
+                .isVegan(dish.getIsVegan())
+                .isSpicy(dish.getIsSpicy())
+                .tags(dish.getTags())
+                .station(dish.getStation())
+                .build();
+    }
+
+    /**
+     * Copies the row onto a dish, dropping image variants that were generated
+     * from a different image.
+     */
+    public Dish applyTo(Dish dish) {
+        if (!image.equals(dish.getImage())) {
+            dish.setSrcset(null);
+        }
+        dish.setId(id);
+        dish.setName(name);
+        dish.setPrice(price);
+        dish.setImage(image);
+        dish.setAltText(altText);
+        dish.setDescription(description);
+        dish.setAvailable(available);
+        dish.setIsVegetarian(isVegetarian);
+        dish.setIsVegan(isVegan);
+        dish.setIsSpicy(isSpicy);
+        dish.setTags(tags == null ? new ArrayList<>() : new ArrayList<>(tags));
+        dish.setStation(station);
+        dish.setCategoryId(categoryId);
+        return dish;
+    }
+}
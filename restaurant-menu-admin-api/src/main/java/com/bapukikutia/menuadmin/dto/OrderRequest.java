@@ -0,0 +1,44 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A guest's cart. Only dish IDs and quantities are taken from the client; names
+ * and prices come from the menu.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+
+    @NotEmpty(message = "Order must contain at least one item")
+    private List<@Valid Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @JsonProperty("dish_id")
+        @NotBlank(message = "Dish ID is required")
+        private String dishId;
+
+        // Optional; needed only when the dish ID appears in more than one category
+        @JsonProperty("category_id")
+        private String categoryId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The menu as guests see it: available dishes only, without admin-only fields.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PublicMenu {
+
+    private List<PublicCategory> categories;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PublicCategory {
+        private String id;
+        private String name;
+
+        @JsonProperty("display_order")
+        private Integer displayOrder;
+
+        private List<PublicDish> dishes;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PublicDish {
+        private String id;
+        private String name;
+        private Integer price;
+        private String image;
+        private String srcset;
+
+        @JsonProperty("alt_text")
+        private String altText;
+
+        private String description;
+
+        @JsonProperty("is_vegetarian")
+        private Boolean isVegetarian;
+
+        @JsonProperty("is_vegan")
+        private Boolean isVegan;
+
+        @JsonProperty("is_spicy")
+        private Boolean isSpicy;
+
+        private List<String> tags;
+
+        // Includes reviews submitted since the menu was last saved
+        private Double rating;
+
+        @JsonProperty("num_reviews")
+        private Integer numReviews;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sales for one outlet over a rolling window, either per dish or per category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesReport {
+
+    @JsonProperty("restaurant_id")
+    private String restaurantId;
+
+    private String window;
+
+    // Totals over the whole window, not just the listed entries
+    private long quantity;
+    private long revenue;
+
+    private List<Entry> dishes;
+    private List<Entry> categories;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Entry {
+        private String id;
+
+        @JsonProperty("category_id")
+        private String categoryId;
+
+        private String name;
+        private long quantity;
+        private long revenue;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bapukikutia.menuadmin.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Portions left of a dish whose stock is tracked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+
+    @JsonProperty("category_id")
+    private String categoryId;
+
+    @JsonProperty("dish_id")
+    private String dishId;
+
+    // Null once the dish has been deleted from the menu
+    private String name;
+
+    private int remaining;
+}
@@ -0,0 +1,28 @@
+package com.bapukikutia.menuadmin.exception;
+
+import java.util.Map;
+
+/**
+ * A bulk import with invalid rows; nothing was applied. Errors are keyed by
+ * row and field, e.g. {@code row 12.price}, up to {@code menu-import.max-errors}
+ * of {@code invalidRows}.
+ */
+public class ImportValidationException extends RuntimeException {
+
+    private final int invalidRows;
+    private final Map<String, String> errors;
+
+    public ImportValidationException(int invalidRows, Map<String, String> errors) {
+        super(invalidRows + (invalidRows == 1 ? " row is" : " rows are") + " invalid; nothing was imported");
+        this.invalidRows = invalidRows;
+        this.errors = errors;
+    }
+
+    public int getInvalidRows() {
+        return invalidRows;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
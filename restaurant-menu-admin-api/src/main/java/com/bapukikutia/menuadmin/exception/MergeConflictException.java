@@ -0,0 +1,22 @@
+package com.bapukikutia.menuadmin.exception;
+
+import java.util.Map;
+
+/**
+ * A change that can't be combined with changes made on the remote in the
+ * meantime. Conflicts are described by path, e.g.
+ * {@code categories[starters].dishes[paneer-tikka].price}.
+ */
+public class MergeConflictException extends RuntimeException {
+
+    private final Map<String, String> conflicts;
+
+    public MergeConflictException(String message, Map<String, String> conflicts) {
+        super(message);
+        this.conflicts = conflicts;
+    }
+
+    public Map<String, String> getConflicts() {
+        return conflicts;
+    }
+}
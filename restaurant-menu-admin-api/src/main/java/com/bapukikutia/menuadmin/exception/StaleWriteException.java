@@ -0,0 +1,16 @@
+package com.bapukikutia.menuadmin.exception;
+
+import java.util.Map;
+
+/**
+ * A change made to a version of a file that has since been replaced in HEAD,
+ * by remote edits merged for another writer's push. Committing it would undo
+ * those edits; the change has to be made again on the merged file.
+ */
+public class StaleWriteException extends MergeConflictException {
+
+    public StaleWriteException(String filePath) {
+        super("The menu was merged with remote changes while this change was being saved; reload and try again",
+                Map.of(filePath, "merged with remote changes while this change was being saved"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.bapukikutia.menuadmin.metrics;
+
+import com.bapukikutia.menuadmin.model.MenuData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for the git, JSON and rendering hot paths.
+ * <p>
+ * Tags are limited to fixed operation names and an outcome, so the number of
+ * time series stays constant no matter how many dishes or commits there are.
+ */
+@Component
+public class MenuMetrics {
+
+    private static final String GIT_TIMER = "menu.git.operation";
+    private static final String JSON_TIMER = "menu.json.operation";
+    private static final String RENDER_TIMER = "menu.render.operation";
+    private static final String MUTATION_COUNTER = "menu.mutations";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, OperationTimers> gitTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OperationTimers> jsonTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OperationTimers> renderTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> mutationCounters = new ConcurrentHashMap<>();
+
+    private final AtomicInteger categoryCount = new AtomicInteger();
+    private final AtomicInteger dishCount = new AtomicInteger();
+    private final AtomicLong lastPullMillis = new AtomicLong();
+    private final AtomicLong lastPushMillis = new AtomicLong();
+    private final AtomicLong looseObjects = new AtomicLong();
+    private final AtomicLong packedObjects = new AtomicLong();
+    private final AtomicLong packFiles = new AtomicLong();
+    private final AtomicLong packSize = new AtomicLong();
+
+    public MenuMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        Gauge.builder("menu.categories", categoryCount, AtomicInteger::get)
+                .description("Number of categories in the last loaded menu")
+                .register(registry);
+        Gauge.builder("menu.dishes", dishCount, AtomicInteger::get)
+                .description("Number of dishes in the last loaded menu")
+                .register(registry);
+        Gauge.builder("menu.git.last.pull.age", lastPullMillis, MenuMetrics::secondsSince)
+                .description("Seconds since the last successful pull")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("menu.git.last.push.age", lastPushMillis, MenuMetrics::secondsSince)
+                .description("Seconds since the last successful push")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("menu.git.objects", looseObjects, AtomicLong::get)
+                .description("Objects in the local clone, as of the last check")
+                .tag("storage", "loose")
+                .register(registry);
+        Gauge.builder("menu.git.objects", packedObjects, AtomicLong::get)
+                .description("Objects in the local clone, as of the last check")
+                .tag("storage", "packed")
+                .register(registry);
+        Gauge.builder("menu.git.pack.files", packFiles, AtomicLong::get)
+                .description("Pack files in the local clone")
+                .register(registry);
+        Gauge.builder("menu.git.pack.size", packSize, AtomicLong::get)
+                .description("Size of all pack files in the local clone")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    public <T, E extends Exception> T timeGit(String operation, Action<T, E> action) throws E {
+        return time(gitTimers.computeIfAbsent(operation, op -> timers(GIT_TIMER, op)), action);
+    }
+
+    public <T, E extends Exception> T timeJson(String operation, Action<T, E> action) throws E {
+        return time(jsonTimers.computeIfAbsent(operation, op -> timers(JSON_TIMER, op)), action);
+    }
+
+    public <T, E extends Exception> T timeRender(String operation, Action<T, E> action) throws E {
+        return time(renderTimers.computeIfAbsent(operation, op -> timers(RENDER_TIMER, op)), action);
+    }
+
+    public void recordMutation(String type) {
+        mutationCounters.computeIfAbsent(type, t -> Counter.builder(MUTATION_COUNTER)
+                        .description("Menu mutations committed, by type")
+                        .tag("type", t)
+                        .register(registry))
+                .increment();
+    }
+
+    public void recordMenuSize(MenuData menuData) {
+        categoryCount.set(menuData.getCategories().size());
+        dishCount.set(menuData.getCategories().stream()
+                .mapToInt(category -> category.getDishes().size())
+                .sum());
+    }
+
+    /**
+     * Takes the statistics JGit reports for the clone before or after a gc.
+     */
+    public void recordRepository(Properties statistics) {
+        looseObjects.set(count(statistics, "numberOfLooseObjects"));
+        packedObjects.set(count(statistics, "numberOfPackedObjects"));
+        packFiles.set(count(statistics, "numberOfPackFiles"));
+        packSize.set(count(statistics, "sizeOfPackedObjects"));
+    }
+
+    private static long count(Properties statistics, String key) {
+        return statistics.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    public void markPulled() {
+        lastPullMillis.set(System.currentTimeMillis());
+    }
+
+    public void markPushed() {
+        lastPushMillis.set(System.currentTimeMillis());
+    }
+
+    public long getLastPullMillis() {
+        return lastPullMillis.get();
+    }
+
+    public long getLastPushMillis() {
+        return lastPushMillis.get();
+    }
+
+    private <T, E extends Exception> T time(OperationTimers timers, Action<T, E> action) throws E {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = action.call();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            (success ? timers.success() : timers.failure()).record(elapsed, TimeUnit.NANOSECONDS);
+            if (timers.phase() != null) {
+                ServerTiming.recordElapsed(timers.phase(), elapsed);
+            }
+        }
+    }
+
+    private OperationTimers timers(String name, String operation) {
+        return new OperationTimers(
+                timer(name, operation, "success"),
+                timer(name, operation, "failure"),
+                phaseOf(operation));
+    }
+
+    private static ServerTiming.Phase phaseOf(String operation) {
+        return switch (operation) {
+            case "read_file" -> ServerTiming.Phase.READ;
+            case "parse" -> ServerTiming.Phase.PARSE;
+            case "serialize" -> ServerTiming.Phase.SERIALIZE;
+            case "write_file" -> ServerTiming.Phase.WRITE;
+            case "page", "shards" -> ServerTiming.Phase.RENDER;
+            case "add", "commit" -> ServerTiming.Phase.COMMIT;
+            case "push", "fetch", "merge" -> ServerTiming.Phase.PUSH;
+            default -> null;
+        };
+    }
+
+    private Timer timer(String name, String operation, String outcome) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private record OperationTimers(Timer success, Timer failure, ServerTiming.Phase phase) {
+    }
+
+    private static double secondsSince(AtomicLong epochMillis) {
+        long millis = epochMillis.get();
+        return millis == 0 ? Double.NaN : (System.currentTimeMillis() - millis) / 1000.0;
+    }
+}
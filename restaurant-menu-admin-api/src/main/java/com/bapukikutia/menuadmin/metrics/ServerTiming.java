@@ -0,0 +1,86 @@
+package com.bapukikutia.menuadmin.metrics;
+
+/**
+ * Per-request phase timings rendered as a {@code Server-Timing} response header.
+ * <p>
+ * A recorder is bound to the request thread only when {@link ServerTimingFilter}
+ * decides to time the request. All static methods are no-ops otherwise, so
+ * instrumented code pays a thread-local lookup and nothing else.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+        AUTH("auth", "JWT filter"),
+        READ("read", "Menu file read"),
+        PARSE("parse", "JSON parse"),
+        APPLY("apply", "Mutation apply"),
+        SERIALIZE("serialize", "JSON serialize"),
+        RENDER("render", "HTML pre-render"),
+        WRITE("write", "Menu file write"),
+        COMMIT("commit", "Git add and commit"),
+        PUSH("push", "Git push");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[PHASES.length];
+
+    static void bind(ServerTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns a start timestamp for {@link #record}, or 0 when the request is not timed.
+     */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void record(Phase phase, long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null && startNanos != 0) {
+            timing.nanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    public static void recordElapsed(Phase phase, long elapsedNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.nanos[phase.ordinal()] += elapsedNanos;
+        }
+    }
+
+    String toHeaderValue(long totalNanos) {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            long phaseNanos = nanos[phase.ordinal()];
+            if (phaseNanos > 0) {
+                appendMetric(header, phase.metricName, phase.description, phaseNanos);
+            }
+        }
+        appendMetric(header, "total", "Total", totalNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, String description, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name)
+                .append(";desc=\"").append(description).append('"')
+                .append(";dur=").append(nanos / 1000 / 1000.0);
+    }
+}
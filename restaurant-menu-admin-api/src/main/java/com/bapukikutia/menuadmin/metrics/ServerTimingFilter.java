@@ -0,0 +1,114 @@
+package com.bapukikutia.menuadmin.metrics;
+
+import com.bapukikutia.menuadmin.config.ServerTimingConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adds a {@code Server-Timing} header to timed requests. Runs ahead of the
+ * security chain so that JWT filter time is included in the breakdown.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final ServerTimingConfig serverTimingConfig;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (serverTimingConfig.isEnabled()) {
+            return false;
+        }
+        double sampleRate = serverTimingConfig.getSampleRate();
+        return sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        ServerTiming timing = new ServerTiming();
+        TimingResponse timingResponse = new TimingResponse(response, timing, start);
+
+        ServerTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            ServerTiming.unbind();
+            timingResponse.writeHeader();
+        }
+    }
+
+    /**
+     * Writes the header just before the body is first written, which is the last
+     * moment headers can still be changed; responses without a body get it on the way out.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private final long start;
+        private boolean headerWritten;
+
+        TimingResponse(HttpServletResponse response, ServerTiming timing, long start) {
+            super(response);
+            this.timing = timing;
+            this.start = start;
+        }
+
+        void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                headerWritten = true;
+                setHeader(HEADER, timing.toHeaderValue(System.nanoTime() - start));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package com.bapukikutia.menuadmin.model;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
@@ -30,7 +37,24 @@ public class Category {
     @Min(value = 1, message = "Display order must be at least 1")
     private Integer displayOrder;
 
+    // Kitchen station that prepares this category's dishes, e.g. "tandoor"
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Pattern(regexp = "[a-z0-9][a-z0-9-]*", message = "Station must be lowercase letters, digits and hyphens")
+    private String station;
+
+    // Served only in these windows; outside them all its dishes are off the live menu
+    @Valid
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Schedule schedule;
+
     @Valid
     @Builder.Default
     private List<Dish> dishes = new ArrayList<>();
+
+    // Unknown fields, kept so that saving the category doesn't drop them
+    @JsonIgnore
+    @JsonAnySetter
+    @JsonAnyGetter
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
 }
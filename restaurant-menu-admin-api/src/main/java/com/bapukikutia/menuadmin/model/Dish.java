@@ -1,19 +1,27 @@
 package com.bapukikutia.menuadmin.model;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Dish {
@@ -31,6 +39,10 @@ public class Dish {
     @NotBlank(message = "Image path is required")
     private String image;
 
+    // Resized variants of image, maintained by ImageService
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String srcset;
+
     @JsonProperty("alt_text")
     private String altText;
 
@@ -57,4 +69,29 @@ public class Dish {
 
     @Builder.Default
     private List<String> tags = new ArrayList<>();
+
+    // Overrides the category's kitchen station
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Pattern(regexp = "[a-z0-9][a-z0-9-]*", message = "Station must be lowercase letters, digits and hyphens")
+    private String station;
+
+    // Served only in these windows, on top of the category's schedule
+    @Valid
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Schedule schedule;
+
+    // Reviews counted into the menu file; reviews submitted since are kept by DishRatings
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double rating;
+
+    @JsonProperty("num_reviews")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer numReviews;
+
+    // Fields this version doesn't know, written back as they were read
+    @JsonIgnore
+    @JsonAnySetter
+    @JsonAnyGetter
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
 }
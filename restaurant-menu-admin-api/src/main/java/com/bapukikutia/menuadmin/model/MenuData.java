@@ -1,13 +1,21 @@
 package com.bapukikutia.menuadmin.model;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -18,4 +26,23 @@ public class MenuData {
     @Valid
     @Builder.Default
     private List<Category> categories = new ArrayList<>();
+
+    // Applied to dish prices in the live menu and in orders; prices in categories stay the base prices
+    @Valid
+    @JsonProperty("pricing_rules")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Builder.Default
+    private List<PricingRule> pricingRules = new ArrayList<>();
+
+    // Dates on which schedules with a holidays rule apply it
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Builder.Default
+    private List<LocalDate> holidays = new ArrayList<>();
+
+    // Top-level fields added by other tools survive a save
+    @JsonIgnore
+    @JsonAnySetter
+    @JsonAnyGetter
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
 }
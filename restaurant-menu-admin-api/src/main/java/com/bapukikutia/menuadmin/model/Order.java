@@ -0,0 +1,66 @@
+package com.bapukikutia.menuadmin.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A priced order as written to the order log and returned to the guest.
+ * Amounts are whole rupees, like dish prices.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Order {
+
+    @JsonProperty("bill_number")
+    private String billNumber;
+
+    @JsonProperty("restaurant_id")
+    private String restaurantId;
+
+    @JsonProperty("placed_at")
+    private Instant placedAt;
+
+    private List<Line> items;
+
+    private long subtotal;
+
+    private long gst;
+
+    @JsonProperty("service_charge")
+    private long serviceCharge;
+
+    @JsonProperty("grand_total")
+    private long grandTotal;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @JsonProperty("dish_id")
+        private String dishId;
+
+        @JsonProperty("category_id")
+        private String categoryId;
+
+        private String name;
+
+        // Kitchen station that prepares it, resolved from the dish or its category when the order was placed
+        private String station;
+
+        private int price;
+
+        private int quantity;
+
+        private long amount;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bapukikutia.menuadmin.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A price adjustment applied on top of dish prices, e.g. a happy-hour discount
+ * on beverages or a weekend surcharge. Rules that match a dish are applied in
+ * the order they are listed; empty conditions match everything.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PricingRule {
+
+    @NotBlank(message = "Rule ID is required")
+    private String id;
+
+    private String name;
+
+    // Category IDs
+    @Builder.Default
+    private List<String> categories = new ArrayList<>();
+
+    // Dishes with any of these tags
+    @Builder.Default
+    private List<String> tags = new ArrayList<>();
+
+    // When the rule applies; always if null
+    @Valid
+    private Schedule schedule;
+
+    // Applies only to orders with at least this many items in total
+    @JsonProperty("min_items")
+    @Min(value = 1, message = "Minimum items must be at least 1")
+    private Integer minItems;
+
+    // Percentage added to the price, negative for a discount
+    @Min(value = -100, message = "Percent must be at least -100")
+    private Integer percent;
+
+    // Rupees added after the percentage, negative for a discount
+    private Integer amount;
+}
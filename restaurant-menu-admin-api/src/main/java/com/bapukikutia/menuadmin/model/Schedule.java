@@ -0,0 +1,50 @@
+package com.bapukikutia.menuadmin.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * When a category or dish is served, in the outlet's local time. An empty
+ * {@code days} or {@code hours} list means every day or all day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Schedule {
+
+    @Builder.Default
+    private List<DayOfWeek> days = new ArrayList<>();
+
+    @Valid
+    @Builder.Default
+    private List<Hours> hours = new ArrayList<>();
+
+    // On the menu's holidays: true serves it whatever the day, false never, null treats them as ordinary days
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean holidays;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hours {
+
+        @NotNull(message = "Start time is required")
+        private LocalTime from;
+
+        // Exclusive; earlier than from for hours that run past midnight
+        @NotNull(message = "End time is required")
+        private LocalTime until;
+    }
+}
@@ -9,6 +9,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +21,9 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    private static final String CLIENT_CLAIM = "client";
+    private static final long FORWARDING_EXPIRATION_MILLIS = 60_000;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -28,6 +34,16 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
 
+    // Derived from the same secret, so a forwarding token never passes as a login token
+    private SecretKey getForwardingKey() {
+        try {
+            return Keys.hmacShaKeyFor(MessageDigest.getInstance("SHA-256")
+                    .digest((secret + ":forwarding").getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -71,6 +87,39 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Vouches for the client address of a request one instance forwards to
+     * another. Every instance shares {@code jwt.secret}, so only they can sign it.
+     */
+    public String generateForwardingToken(String instanceId, String clientAddress) {
+        Date now = new Date();
+        return Jwts.builder()
+                .claims(Map.of(CLIENT_CLAIM, clientAddress))
+                .subject(instanceId)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + FORWARDING_EXPIRATION_MILLIS))
+                .signWith(getForwardingKey())
+                .compact();
+    }
+
+    /**
+     * The client address from a forwarding token, or null if the token isn't
+     * valid.
+     */
+    public String extractForwardedClient(String token) {
+        try {
+            return Jwts.parser()
+                    .verifyWith(getForwardingKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload()
+                    .get(CLIENT_CLAIM, String.class);
+        } catch (Exception e) {
+            log.warn("Ignoring invalid forwarding token: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
             final String username = extractUsername(token);
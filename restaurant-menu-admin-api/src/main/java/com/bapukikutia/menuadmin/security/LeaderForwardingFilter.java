@@ -0,0 +1,204 @@
+package com.bapukikutia.menuadmin.security;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.exception.GlobalExceptionHandler.ErrorResponse;
+import com.bapukikutia.menuadmin.service.LeaderElection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * On a follower, sends writes, and reads of state only the leader keeps, to
+ * the leader: proxied with {@code github.leader.follower-writes=forward}, or
+ * answered with a 307 redirect that keeps the method and body. Runs before
+ * the security chains; the leader authenticates and rate limits the request,
+ * by the client address this instance vouches for in {@link #FORWARDED_CLIENT}.
+ * <p>
+ * A request that was already forwarded once is never forwarded again, so two
+ * instances that disagree about who leads answer 503 rather than loop.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LeaderForwardingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_BY = "X-Menu-Forwarded-By";
+    static final String FORWARDED_CLIENT = "X-Menu-Forwarded-Client";
+
+    // Hop-by-hop headers, and those HttpClient sets itself
+    private static final Set<String> SKIPPED_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "host", "content-length",
+            "expect", "http2-settings");
+
+    private final LeaderElection leaderElection;
+    private final GitConfig.Leader config;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final HttpClient httpClient;
+
+    public LeaderForwardingFilter(LeaderElection leaderElection, GitConfig gitConfig, ObjectMapper objectMapper,
+                                  JwtUtil jwtUtil) {
+        this.leaderElection = leaderElection;
+        this.config = gitConfig.getLeader();
+        this.objectMapper = objectMapper;
+        this.jwtUtil = jwtUtil;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getForwardTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !leaderElection.isEnabled() || leaderElection.isLeader() || !needsLeader(request);
+    }
+
+    private boolean needsLeader(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (!path.startsWith("/api/") && !path.startsWith("/public/")) {
+            return false;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            // Drafts are cached by the leader, which stages edits in them
+            return request.getHeader(MenuDraftFilter.HEADER) != null
+                    || config.getLeaderReads().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        }
+        // Logging in only signs a token, and preflights are answered here
+        return !HttpMethod.OPTIONS.matches(method) && !path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        String leaderUrl = leaderElection.leaderUrl();
+        if (leaderUrl == null || request.getHeader(FORWARDED_BY) != null) {
+            reject(response, leaderUrl == null
+                    ? "No leader is elected yet" : "Forwarded to an instance that isn't the leader");
+            return;
+        }
+
+        String target = leaderUrl.replaceAll("/+$", "") + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        if (config.getFollowerWrites() == GitConfig.FollowerWrites.REDIRECT) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target);
+            return;
+        }
+
+        try {
+            forward(request, response, target);
+        } catch (IOException e) {
+            log.warn("Forwarding {} {} to the leader failed: {}", request.getMethod(), request.getRequestURI(),
+                    e.getMessage());
+            if (!response.isCommitted()) {
+                reject(response, "The leader can't be reached");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, "Forwarding to the leader was interrupted");
+        }
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String target)
+            throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher body = request.getContentLengthLong() == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofInputStream(() -> inputStream(request));
+        if (request.getContentLengthLong() > 0) {
+            body = HttpRequest.BodyPublishers.fromPublisher(body, request.getContentLengthLong());
+        }
+
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(URI.create(target))
+                .timeout(config.getForwardTimeout())
+                .method(request.getMethod(), body);
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    forwarded.header(name, value);
+                }
+            }
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        forwarded.setHeader("X-Forwarded-For",
+                forwardedFor == null ? request.getRemoteAddr() : forwardedFor + ", " + request.getRemoteAddr());
+        forwarded.setHeader(FORWARDED_BY, leaderElection.getInstanceId());
+        // Replaces any the client sent
+        forwarded.setHeader(FORWARDED_CLIENT,
+                jwtUtil.generateForwardingToken(leaderElection.getInstanceId(), request.getRemoteAddr()));
+
+        HttpResponse<InputStream> upstream = httpClient.send(forwarded.build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        response.setStatus(upstream.statusCode());
+        upstream.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+
+        // Flushed as it arrives, so event streams such as the kitchen display keep working
+        try (InputStream in = upstream.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        }
+    }
+
+    private static InputStream inputStream(HttpServletRequest request) {
+        try {
+            return request.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(message)
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bapukikutia.menuadmin.security;
+
+import com.bapukikutia.menuadmin.service.MenuDrafts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Points menu reads and edits under {@code /api} at the draft named in the
+ * {@code X-Menu-Draft} header, so the usual endpoints stage changes in it
+ * instead of committing them. Runs after the security chain.
+ */
+@Component
+public class MenuDraftFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Menu-Draft";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        // The draft endpoints name their draft in the path
+        return request.getHeader(HEADER) == null || !path.startsWith("/api/")
+                || pathMatcher.match("/api/drafts/**", path) || pathMatcher.match("/api/*/drafts/**", path);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        MenuDrafts.select(request.getHeader(HEADER));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MenuDrafts.clearSelection();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bapukikutia.menuadmin.security;
+
+import com.bapukikutia.menuadmin.config.RateLimitConfig;
+import com.bapukikutia.menuadmin.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Public reads are cacheable and meant to be absorbed by a CDN, whose IPs would exhaust any per-IP bucket
+    private static final String PUBLIC_PATH = "/public/";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitConfig rateLimitConfig;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitConfig.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod())
+                || (isRead(request) && request.getServletPath().startsWith(PUBLIC_PATH));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        boolean read = isRead(request);
+        RateLimitConfig.Route route = read ? rateLimitConfig.getRead() : rateLimitConfig.getWrite();
+        String prefix = read ? "r:" : "w:";
+        String clientAddress = clientAddress(request);
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(
+                prefix + "ip:" + clientAddress, route.getPerIp());
+
+        String principal = currentPrincipal();
+        if (decision.allowed() && principal != null) {
+            RateLimiter.Decision principalDecision = rateLimiter.tryAcquire(
+                    prefix + "user:" + principal, route.getPerPrincipal());
+            if (!principalDecision.allowed() || principalDecision.remaining() < decision.remaining()) {
+                decision = principalDecision;
+            }
+        }
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            log.warn("Rate limit exceeded for {} {} (principal: {}, ip: {})",
+                    request.getMethod(), request.getRequestURI(), principal, clientAddress);
+            reject(response, decision);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // A follower that forwarded the request vouches for the guest behind it
+    private String clientAddress(HttpServletRequest request) {
+        String token = request.getHeader(LeaderForwardingFilter.FORWARDED_CLIENT);
+        if (token != null) {
+            String client = jwtUtil.extractForwardedClient(token);
+            if (client != null) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void reject(HttpServletResponse response, RateLimiter.Decision decision) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Rate limit exceeded, retry after " + decision.retryAfterSeconds() + " seconds")
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
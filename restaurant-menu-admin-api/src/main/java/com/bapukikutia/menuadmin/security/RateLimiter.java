@@ -0,0 +1,127 @@
+package com.bapukikutia.menuadmin.security;
+
+import com.bapukikutia.menuadmin.config.RateLimitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary client key (principal or IP).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time"
+ * (the GCRA formulation of a token bucket), so acquiring a token is one CAS and the
+ * bucket map is a {@link ConcurrentHashMap} - there is no lock to contend on.
+ * A bucket whose arrival time is in the past is full, so dropping it loses nothing;
+ * the periodic sweep uses that to evict idle clients.
+ * <p>
+ * The map never holds more than {@code maxBuckets} clients. Until the sweep makes
+ * room, clients without a bucket of their own share one overflow bucket per limit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private final RateLimitConfig rateLimitConfig;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RateLimitConfig.Limit, Bucket> overflow = new ConcurrentHashMap<>();
+    private final AtomicInteger bucketCount = new AtomicInteger();
+
+    public Decision tryAcquire(String key, RateLimitConfig.Limit limit) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> reserve() ? new Bucket(limit) : null);
+        }
+        if (bucket == null) {
+            bucket = overflow.computeIfAbsent(limit, Bucket::new);
+        }
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    private boolean reserve() {
+        if (bucketCount.incrementAndGet() <= rateLimitConfig.getMaxBuckets()) {
+            return true;
+        }
+        bucketCount.decrementAndGet();
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long idleBefore = System.nanoTime() - rateLimitConfig.getIdleTimeout().toNanos();
+        int evicted = 0;
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            if (entry.getValue().isIdleSince(idleBefore) && buckets.remove(entry.getKey(), entry.getValue())) {
+                bucketCount.decrementAndGet();
+                evicted++;
+            }
+        }
+        overflow.values().removeIf(bucket -> bucket.isIdleSince(idleBefore));
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets, {} remaining", evicted, bucketCount.get());
+        }
+    }
+
+    public int getBucketCount() {
+        return bucketCount.get();
+    }
+
+    static final class Bucket {
+
+        private final int capacity;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(RateLimitConfig.Limit limit) {
+            this.capacity = limit.getCapacity();
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, limit.getRefillPerMinute());
+            this.burstNanos = emissionIntervalNanos * capacity;
+            // Start full
+            this.theoreticalArrival = new AtomicLong(System.nanoTime() - burstNanos);
+        }
+
+        Decision tryAcquire(long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long newTat = Math.max(tat, now) + emissionIntervalNanos;
+                long allowAt = newTat - burstNanos;
+
+                if (now < allowAt) {
+                    long resetNanos = Math.max(tat, now) - now;
+                    return Decision.rejected(capacity, toSeconds(resetNanos), toSeconds(allowAt - now));
+                }
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    int remaining = (int) Math.min(capacity, (now - allowAt) / emissionIntervalNanos);
+                    return Decision.allowed(capacity, remaining, toSeconds(newTat - now));
+                }
+            }
+        }
+
+        boolean isIdleSince(long idleBefore) {
+            return theoreticalArrival.get() - idleBefore < 0;
+        }
+
+        private static long toSeconds(long nanos) {
+            return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+
+    public record Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+
+        static Decision allowed(int limit, int remaining, long resetSeconds) {
+            return new Decision(true, limit, remaining, resetSeconds, 0);
+        }
+
+        static Decision rejected(int limit, long resetSeconds, long retryAfterSeconds) {
+            return new Decision(false, limit, 0, resetSeconds, Math.max(1, retryAfterSeconds));
+        }
+    }
+}
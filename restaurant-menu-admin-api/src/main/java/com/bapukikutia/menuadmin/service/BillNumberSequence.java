@@ -0,0 +1,103 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out bill sequence numbers that are never reused, even across crashes.
+ * <p>
+ * Numbers are reserved in blocks: before the first number of a block is handed
+ * out, the end of the block is fsynced to a file, and after a restart counting
+ * resumes from there. Inside a block, taking a number is a single atomic
+ * increment. A crash skips the rest of the current block, so bill numbers are
+ * unique and increasing but not gapless.
+ * <p>
+ * With leader election on, each block is also reserved through
+ * {@code github.leader.bill-sequence-ref} on the remote with a
+ * compare-and-swap push, so whichever instance leads after a failover starts
+ * past every block an earlier leader took. Numbers then increase across the
+ * whole cluster but jump at each failover.
+ */
+@Slf4j
+@Component
+public class BillNumberSequence {
+
+    private static final String FILE_NAME = "bill-sequence";
+
+    private final GitService gitService;
+    private final GitConfig.Leader leaderConfig;
+    private final Path file;
+    private final int blockSize;
+    private volatile Block block;
+
+    public BillNumberSequence(OrderConfig orderConfig, GitService gitService, GitConfig gitConfig)
+            throws IOException {
+        this.gitService = gitService;
+        this.leaderConfig = gitConfig.getLeader();
+        Path directory = Path.of(orderConfig.getDirectory());
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.blockSize = orderConfig.getBillBlockSize();
+
+        long start = Files.exists(file)
+                ? Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim())
+                : 1;
+        // Empty, so the first number reserves a block
+        this.block = new Block(start, start);
+        log.info("Bill numbers continue from {}", start);
+    }
+
+    public long next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.limit) {
+                return value;
+            }
+            reserveAfter(current);
+        }
+    }
+
+    private synchronized void reserveAfter(Block exhausted) {
+        if (block != exhausted) {
+            return;
+        }
+        long start = leaderConfig.isEnabled()
+                ? gitService.reserveNumbers(leaderConfig.getBillSequenceRef(), exhausted.limit, blockSize)
+                : exhausted.limit;
+        long limit = start + blockSize;
+        persist(limit);
+        if (start != exhausted.limit) {
+            log.info("Bill numbers jump to {}; another instance reserved the ones before", start);
+        }
+        block = new Block(start, limit);
+    }
+
+    private void persist(long limit) {
+        try {
+            DurableFiles.replace(file, Long.toString(limit).getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reserve bill numbers up to " + limit, e);
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long limit;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
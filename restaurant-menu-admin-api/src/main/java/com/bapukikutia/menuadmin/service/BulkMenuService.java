@@ -0,0 +1,347 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.MenuImportConfig;
+import com.bapukikutia.menuadmin.dto.ImportResult;
+import com.bapukikutia.menuadmin.dto.MenuRow;
+import com.bapukikutia.menuadmin.exception.ImportValidationException;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import and export of an outlet's dishes as CSV or NDJSON, one
+ * {@link MenuRow} per line.
+ * <p>
+ * Both directions stream: an export writes rows straight from the menu
+ * snapshot, and an import parses the request body a row at a time, handing
+ * batches of rows to a small pool that binds and validates them while the
+ * next batch is read. Only the bound rows are kept, so memory grows with the
+ * menu rather than with the upload. An import with any invalid row applies
+ * nothing; a valid one is applied as a single commit.
+ */
+@Slf4j
+@Service
+public class BulkMenuService {
+
+    private static final String CSV_TAG_SEPARATOR = ";";
+    // Free text where an empty cell is an empty text rather than a missing value
+    private static final Set<String> CSV_TEXT_COLUMNS = Set.of("alt_text", "description");
+
+    public enum Format {
+        CSV("csv", MediaType.parseMediaType("text/csv")),
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown format: " + name + " (expected csv or ndjson)");
+        }
+
+        public static Format of(MediaType contentType) {
+            for (Format format : values()) {
+                if (format.mediaType.isCompatibleWith(contentType)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported content type: " + contentType
+                    + " (expected text/csv or application/x-ndjson)");
+        }
+    }
+
+    private final MenuService menuService;
+    private final MenuImportConfig config;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter csvWriter;
+    private final ObjectReader csvReader;
+    private final ExecutorService validators;
+
+    public BulkMenuService(MenuService menuService, MenuImportConfig config, Validator validator,
+                           ObjectMapper objectMapper) {
+        this.menuService = menuService;
+        this.config = config;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(MenuRow.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        CsvMapper csvMapper = new CsvMapper();
+        this.csvWriter = csvMapper.writerFor(MenuRow.class)
+                .with(csvMapper.schemaFor(MenuRow.class).withHeader().withArrayElementSeparator(CSV_TAG_SEPARATOR));
+        // Cells are read as text and bound like NDJSON, so both report the same errors
+        this.csvReader = csvMapper.readerFor(JsonNode.class).with(CsvSchema.emptySchema().withHeader());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validators = Executors.newFixedThreadPool(config.getValidatorThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "import-validator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rows of the outlet's current menu, written as the response is sent. The
+     * outlet is resolved up front so an unknown one fails before streaming.
+     */
+    public StreamingResponseBody export(String restaurantId, Format format) {
+        MenuData menuData = menuService.getMenuData(restaurantId);
+        return out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            if (format == Format.CSV) {
+                try (SequenceWriter writer = csvWriter.writeValues(buffered)) {
+                    for (Category category : menuData.getCategories()) {
+                        for (Dish dish : category.getDishes()) {
+                            writer.write(MenuRow.of(category, dish));
+                        }
+                    }
+                }
+            } else {
+                for (Category category : menuData.getCategories()) {
+                    for (Dish dish : category.getDishes()) {
+                        ndjsonWriter.writeValue(buffered, MenuRow.of(category, dish));
+                        buffered.write('\n');
+                    }
+                }
+                buffered.flush();
+            }
+        };
+    }
+
+    public ImportResult importMenu(String restaurantId, Format format, InputStream body, boolean replace) {
+        // Fail before reading the upload if the outlet doesn't exist and the import can't create it
+        if (replace && MenuDrafts.selected() == null && restaurantId != null) {
+            TenantMenuRegistry.checkNewRestaurantId(restaurantId);
+        } else {
+            menuService.getMenuData(restaurantId);
+        }
+
+        List<MenuRow> rows = readRows(format, body);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("No rows to import");
+        }
+        return menuService.importMenu(restaurantId, rows, replace);
+    }
+
+    private List<MenuRow> readRows(Format format, InputStream body) {
+        RowCollector collector = new RowCollector();
+        Queue<Future<List<RowResult>>> pending = new ArrayDeque<>();
+        int maxPending = config.getValidatorThreads() * 2;
+
+        ObjectReader reader = format == Format.CSV ? csvReader : objectMapper.readerFor(JsonNode.class);
+        try (MappingIterator<JsonNode> nodes = reader.readValues(body)) {
+            List<JsonNode> batch = new ArrayList<>(config.getBatchSize());
+            int firstRow = 1;
+            while (nodes.hasNextValue()) {
+                batch.add(nodes.nextValue());
+                if (firstRow + batch.size() - 1 > config.getMaxRows()) {
+                    throw new IllegalArgumentException("Imports are limited to " + config.getMaxRows() + " rows");
+                }
+                if (batch.size() == config.getBatchSize()) {
+                    pending.add(submit(format, firstRow, batch));
+                    firstRow += batch.size();
+                    batch = new ArrayList<>(config.getBatchSize());
+                    while (pending.size() >= maxPending) {
+                        collector.accept(await(pending.remove()));
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                pending.add(submit(format, firstRow, batch));
+            }
+            while (!pending.isEmpty()) {
+                collector.accept(await(pending.remove()));
+            }
+        } catch (JsonProcessingException e) {
+            String line = e.getLocation() == null ? "" : " at line " + e.getLocation().getLineNr();
+            throw new IllegalArgumentException("Malformed " + format.extension() + line + ": "
+                    + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the import: " + e.getMessage(), e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        if (collector.invalidRows > 0) {
+            throw new ImportValidationException(collector.invalidRows, collector.errors);
+        }
+        return collector.rows;
+    }
+
+    private Future<List<RowResult>> submit(Format format, int firstRow, List<JsonNode> batch) {
+        return validators.submit(() -> {
+            List<RowResult> results = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(bind(format, firstRow + i, batch.get(i)));
+            }
+            return results;
+        });
+    }
+
+    private RowResult bind(Format format, int rowNumber, JsonNode node) {
+        if (!(node instanceof ObjectNode fields)) {
+            return RowResult.invalid(rowNumber, Map.of("row " + rowNumber, "Expected an object"));
+        }
+        if (format == Format.CSV) {
+            normalizeCsv(fields);
+        }
+
+        MenuRow row;
+        try {
+            row = objectMapper.treeToValue(fields, MenuRow.class);
+        } catch (JsonMappingException e) {
+            String field = e.getPath().isEmpty() ? null : e.getPath().get(0).getFieldName();
+            return RowResult.invalid(rowNumber, Map.of("row " + rowNumber + (field == null ? "" : "." + field),
+                    "Invalid value: " + e.getOriginalMessage()));
+        } catch (JsonProcessingException e) {
+            return RowResult.invalid(rowNumber, Map.of("row " + rowNumber, e.getOriginalMessage()));
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<MenuRow> violation : validator.validate(row)) {
+            errors.put("row " + rowNumber + "." + violation.getPropertyPath(), violation.getMessage());
+        }
+        return errors.isEmpty() ? new RowResult(rowNumber, row, Map.of()) : RowResult.invalid(rowNumber, errors);
+    }
+
+    // Empty cells mean "not set", and tags share one cell
+    private static void normalizeCsv(ObjectNode fields) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = fields.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (field.getValue().asText().isBlank() && !CSV_TEXT_COLUMNS.contains(field.getKey())) {
+                it.remove();
+            }
+        }
+        JsonNode tags = fields.get("tags");
+        if (tags != null && tags.isTextual()) {
+            ArrayNode split = fields.arrayNode();
+            for (String tag : tags.asText().split(CSV_TAG_SEPARATOR)) {
+                if (!tag.isBlank()) {
+                    split.add(tag.strip());
+                }
+            }
+            fields.set("tags", split);
+        }
+    }
+
+    private static List<RowResult> await(Future<List<RowResult>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating the import", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to validate the import: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private record RowResult(int rowNumber, MenuRow row, Map<String, String> errors) {
+
+        static RowResult invalid(int rowNumber, Map<String, String> errors) {
+            return new RowResult(rowNumber, null, errors);
+        }
+    }
+
+    /**
+     * Gathers batch results in row order: checks for dishes listed twice,
+     * keeps the valid rows until the first invalid one and the first
+     * {@code max-errors} errors after that.
+     */
+    private final class RowCollector {
+
+        private final List<MenuRow> rows = new ArrayList<>();
+        private final Map<String, Integer> firstRowByDish = new HashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private int invalidRows;
+
+        void accept(List<RowResult> results) {
+            for (RowResult result : results) {
+                Map<String, String> rowErrors = result.errors();
+                if (result.row() != null) {
+                    MenuRow row = result.row();
+                    Integer first = firstRowByDish.putIfAbsent(row.getCategoryId() + "/" + row.getId(), result.rowNumber());
+                    if (first != null) {
+                        rowErrors = Map.of("row " + result.rowNumber() + ".id",
+                                "Dish " + row.getId() + " in category " + row.getCategoryId() + " is already on row " + first);
+                    }
+                }
+
+                if (!rowErrors.isEmpty()) {
+                    invalidRows++;
+                    rows.clear();
+                    rowErrors.forEach((key, message) -> {
+                        if (errors.size() < config.getMaxErrors()) {
+                            errors.put(key, message);
+                        }
+                    });
+                } else if (invalidRows == 0) {
+                    rows.add(result.row());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        validators.shutdown();
+        validators.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
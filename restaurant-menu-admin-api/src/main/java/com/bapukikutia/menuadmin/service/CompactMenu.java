@@ -0,0 +1,206 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.model.PricingRule;
+import com.bapukikutia.menuadmin.model.Schedule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A menu packed for keeping in memory while nobody reads it: prices are
+ * primitives, the four dish flags share a byte, lists are immutable arrays
+ * and strings are deduplicated. IDs, tags, stations and image directories
+ * are interned, so outlets with the same dishes share them too.
+ * <p>
+ * Schedules, pricing rules and unknown fields are rare and kept as they are.
+ * A compact menu converts back to an equal {@link MenuData} with fresh, mutable objects.
+ */
+public final class CompactMenu {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final String[] NO_TAGS = new String[0];
+    private static final PricingRule[] NO_PRICING_RULES = new PricingRule[0];
+    private static final LocalDate[] NO_HOLIDAYS = new LocalDate[0];
+
+    // Two bits per flag, so a missing value survives the round trip
+    private static final int AVAILABLE = 0;
+    private static final int VEGETARIAN = 2;
+    private static final int VEGAN = 4;
+    private static final int SPICY = 6;
+    private static final int PRESENT = 1;
+    private static final int TRUE = 2;
+
+    private final CompactCategory[] categories;
+    private final PricingRule[] pricingRules;
+    private final LocalDate[] holidays;
+    private final Map<String, Object> extra;
+
+    private CompactMenu(CompactCategory[] categories, PricingRule[] pricingRules, LocalDate[] holidays,
+                        Map<String, Object> extra) {
+        this.categories = categories;
+        this.pricingRules = pricingRules;
+        this.holidays = holidays;
+        this.extra = extra;
+    }
+
+    public static CompactMenu of(MenuData menuData) {
+        Strings strings = new Strings();
+        CompactCategory[] categories = menuData.getCategories().stream()
+                .map(category -> CompactCategory.of(category, strings))
+                .toArray(CompactCategory[]::new);
+        // Hand-edited files may have "pricing_rules": null or "holidays": null
+        PricingRule[] pricingRules = menuData.getPricingRules() == null ? NO_PRICING_RULES
+                : menuData.getPricingRules().toArray(PricingRule[]::new);
+        LocalDate[] holidays = menuData.getHolidays() == null ? NO_HOLIDAYS
+                : menuData.getHolidays().toArray(LocalDate[]::new);
+        return new CompactMenu(categories, pricingRules, holidays, compact(menuData.getExtra()));
+    }
+
+    public MenuData toMenuData() {
+        List<Category> categoryList = new ArrayList<>(categories.length);
+        for (CompactCategory category : categories) {
+            categoryList.add(category.toCategory());
+        }
+        return MenuData.builder()
+                .categories(categoryList)
+                .pricingRules(new ArrayList<>(Arrays.asList(pricingRules)))
+                .holidays(new ArrayList<>(Arrays.asList(holidays)))
+                .extra(inflate(extra))
+                .build();
+    }
+
+    public int dishCount() {
+        int count = 0;
+        for (CompactCategory category : categories) {
+            count += category.dishes.length;
+        }
+        return count;
+    }
+
+    private record CompactCategory(String id, String name, int displayOrder, String station, Schedule schedule,
+                                   CompactDish[] dishes, Map<String, Object> extra) {
+
+        static CompactCategory of(Category category, Strings strings) {
+            CompactDish[] dishes = category.getDishes().stream()
+                    .map(dish -> CompactDish.of(dish, strings))
+                    .toArray(CompactDish[]::new);
+            return new CompactCategory(strings.intern(category.getId()), strings.dedupe(category.getName()),
+                    toInt(category.getDisplayOrder()), strings.intern(category.getStation()),
+                    category.getSchedule(), dishes, compact(category.getExtra()));
+        }
+
+        Category toCategory() {
+            List<Dish> dishList = new ArrayList<>(dishes.length);
+            for (CompactDish dish : dishes) {
+                dishList.add(dish.toDish());
+            }
+            return Category.builder()
+                    .id(id)
+                    .name(name)
+                    .displayOrder(toInteger(displayOrder))
+                    .station(station)
+                    .schedule(schedule)
+                    .dishes(dishList)
+                    .extra(inflate(extra))
+                    .build();
+        }
+    }
+
+    private record CompactDish(String id, String name, int price, byte flags, String imageDirectory,
+                               String imageName, String srcset, String altText,
+                               String description, String categoryId, String[] tags, String station,
+                               Schedule schedule, double rating, int numReviews, Map<String, Object> extra) {
+
+        static CompactDish of(Dish dish, Strings strings) {
+            String image = dish.getImage();
+            int slash = image == null ? -1 : image.lastIndexOf('/');
+            byte flags = (byte) (flag(dish.getAvailable(), AVAILABLE) | flag(dish.getIsVegetarian(), VEGETARIAN)
+                    | flag(dish.getIsVegan(), VEGAN) | flag(dish.getIsSpicy(), SPICY));
+            String[] tags = dish.getTags() == null ? null
+                    : dish.getTags().isEmpty() ? NO_TAGS
+                    : dish.getTags().stream().map(strings::intern).toArray(String[]::new);
+
+            return new CompactDish(strings.intern(dish.getId()), strings.dedupe(dish.getName()), toInt(dish.getPrice()),
+                    flags, slash < 0 ? null : strings.intern(image.substring(0, slash + 1)),
+                    slash < 0 ? image : strings.dedupe(image.substring(slash + 1)),
+                    dish.getSrcset(), strings.dedupe(dish.getAltText()),
+                    strings.dedupe(dish.getDescription()), strings.intern(dish.getCategoryId()), tags,
+                    strings.intern(dish.getStation()), dish.getSchedule(),
+                    dish.getRating() == null ? Double.NaN : dish.getRating(), toInt(dish.getNumReviews()),
+                    compact(dish.getExtra()));
+        }
+
+        Dish toDish() {
+            return Dish.builder()
+                    .id(id)
+                    .name(name)
+                    .price(toInteger(price))
+                    .image(imageDirectory == null ? imageName : imageDirectory + imageName)
+                    .srcset(srcset)
+                    .altText(altText)
+                    .description(description)
+                    .available(flag(flags, AVAILABLE))
+                    .categoryId(categoryId)
+                    .isVegetarian(flag(flags, VEGETARIAN))
+                    .isVegan(flag(flags, VEGAN))
+                    .isSpicy(flag(flags, SPICY))
+                    .tags(tags == null ? null : new ArrayList<>(Arrays.asList(tags)))
+                    .station(station)
+                    .schedule(schedule)
+                    .rating(Double.isNaN(rating) ? null : rating)
+                    .numReviews(toInteger(numReviews))
+                    .extra(inflate(extra))
+                    .build();
+        }
+    }
+
+    private static int flag(Boolean value, int shift) {
+        return value == null ? 0 : (PRESENT | (value ? TRUE : 0)) << shift;
+    }
+
+    private static Boolean flag(byte flags, int shift) {
+        int bits = flags >> shift;
+        return (bits & PRESENT) == 0 ? null : (bits & TRUE) != 0;
+    }
+
+    private static int toInt(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private static Integer toInteger(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private static Map<String, Object> compact(Map<String, Object> extra) {
+        return extra == null || extra.isEmpty() ? null : extra;
+    }
+
+    private static Map<String, Object> inflate(Map<String, Object> extra) {
+        return extra == null ? new LinkedHashMap<>() : new LinkedHashMap<>(extra);
+    }
+
+    /**
+     * Shares equal strings within one menu; those that repeat across outlets
+     * go through the JVM's string table.
+     */
+    private static final class Strings {
+
+        private final Map<String, String> seen = new HashMap<>();
+
+        String intern(String value) {
+            return value == null ? null : value.intern();
+        }
+
+        String dedupe(String value) {
+            return value == null ? null : seen.computeIfAbsent(value, v -> v);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.dto.DishRating;
+import com.bapukikutia.menuadmin.dto.ReviewRequest;
+import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reviews submitted by guests, kept per dish as a count of each star rating.
+ * <p>
+ * A review increments one slot of its dish's histogram, so submissions neither
+ * wait on a lock nor touch the menu file or git. The count and mean are worked
+ * out from the histogram when read, on top of the {@code rating} and
+ * {@code num_reviews} the menu file already has.
+ * <p>
+ * Histograms are written to a file outside the menu repository every
+ * {@code reviews.flush-interval}. Outlets that got reviews move to a new
+ * version at the same time, which is when the public menu picks them up.
+ * Reviews submitted since the last write are lost in a crash.
+ */
+@Slf4j
+@Service
+public class DishRatings {
+
+    private static final String FILE_NAME = "dish-ratings.json";
+    private static final int STARS = 5;
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Counter submitted;
+
+    private final ConcurrentHashMap<String, OutletRatings> outlets = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public DishRatings(TenantMenuRegistry tenantMenuRegistry, OrderConfig orderConfig, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) throws IOException {
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.objectMapper = objectMapper;
+
+        Path directory = Path.of(orderConfig.getDirectory());
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.submitted = Counter.builder("reviews.submitted")
+                .description("Dish reviews submitted by guests")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        RatingsFile saved = objectMapper.readValue(file.toFile(), RatingsFile.class);
+        saved.outlets().forEach((restaurantId, categories) -> {
+            OutletRatings outlet = outlet(restaurantId);
+            categories.forEach((categoryId, dishes) -> dishes.forEach((dishId, counts) -> {
+                if (counts.length != STARS) {
+                    log.warn("Skipping saved reviews of {} in {}: expected {} counts", dishId, categoryId, STARS);
+                    return;
+                }
+                outlet.histograms.put(new DishKey(categoryId, dishId), new AtomicLongArray(counts));
+            }));
+        });
+        log.info("Loaded reviews for {} outlets", outlets.size());
+    }
+
+    public DishRating submit(String restaurantId, ReviewRequest request) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant);
+        Dish dish = snapshot.dishesByCategoryId().getOrDefault(request.getCategoryId(), Map.of())
+                .get(request.getDishId());
+        if (dish == null) {
+            throw new ResourceNotFoundException("Dish not found with ID: " + request.getDishId()
+                    + " in category: " + request.getCategoryId());
+        }
+
+        DishKey key = new DishKey(request.getCategoryId(), request.getDishId());
+        OutletRatings outlet = outlet(tenant.getRestaurantId());
+        AtomicLongArray histogram = outlet.histograms.computeIfAbsent(key, k -> new AtomicLongArray(STARS));
+        histogram.incrementAndGet(request.getRating() - 1);
+        outlet.changed.set(true);
+        dirty.set(true);
+        submitted.increment();
+
+        return toRating(key, dish, counts(histogram));
+    }
+
+    /**
+     * Ratings of every dish that has any, including reviews of dishes since
+     * deleted from the menu.
+     */
+    public List<DishRating> getRatings(String restaurantId) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant);
+        OutletRatings outlet = outlets.get(tenant.getRestaurantId());
+        Map<DishKey, AtomicLongArray> histograms = outlet == null ? Map.of() : outlet.histograms;
+
+        List<DishRating> ratings = new ArrayList<>();
+        Set<DishKey> seen = new HashSet<>();
+        snapshot.dishesByCategoryId().forEach((categoryId, dishes) -> dishes.forEach((dishId, dish) -> {
+            DishKey key = new DishKey(categoryId, dishId);
+            AtomicLongArray histogram = histograms.get(key);
+            if (histogram != null || dish.getRating() != null) {
+                ratings.add(toRating(key, dish, histogram == null ? new long[STARS] : counts(histogram)));
+                seen.add(key);
+            }
+        }));
+        histograms.forEach((key, histogram) -> {
+            if (!seen.contains(key)) {
+                ratings.add(toRating(key, null, counts(histogram)));
+            }
+        });
+
+        ratings.sort(Comparator.comparing(DishRating::getCategoryId).thenComparing(DishRating::getDishId));
+        return ratings;
+    }
+
+    /**
+     * A dish's rating and review count with the reviews submitted since the
+     * menu file was written.
+     */
+    public Rating rating(String restaurantId, String categoryId, Dish dish) {
+        OutletRatings outlet = outlets.get(restaurantId);
+        AtomicLongArray histogram = outlet == null ? null
+                : outlet.histograms.get(new DishKey(categoryId, dish.getId()));
+        return histogram == null ? new Rating(dish.getRating(), dish.getNumReviews())
+                : merge(dish, counts(histogram));
+    }
+
+    /**
+     * Changes whenever the outlet's flushed ratings do, so views built from
+     * them know when to rebuild.
+     */
+    public long version(String restaurantId) {
+        OutletRatings outlet = outlets.get(restaurantId);
+        return outlet == null ? 0 : outlet.version.get();
+    }
+
+    private static DishRating toRating(DishKey key, Dish dish, long[] counts) {
+        Rating rating = merge(dish, counts);
+        return DishRating.builder()
+                .categoryId(key.categoryId())
+                .dishId(key.dishId())
+                .name(dish == null ? null : dish.getName())
+                .rating(rating.rating())
+                .numReviews(rating.numReviews() == null ? 0 : rating.numReviews())
+                .histogram(counts)
+                .build();
+    }
+
+    private static Rating merge(Dish dish, long[] counts) {
+        long count = 0;
+        long stars = 0;
+        for (int i = 0; i < STARS; i++) {
+            count += counts[i];
+            stars += counts[i] * (i + 1);
+        }
+        Double baseRating = dish == null ? null : dish.getRating();
+        Integer baseCount = dish == null ? null : dish.getNumReviews();
+        if (count == 0) {
+            return new Rating(baseRating, baseCount);
+        }
+
+        // A file rating without a count carries no weight
+        long weight = baseRating == null || baseCount == null ? 0 : baseCount;
+        long total = weight + count;
+        double mean = ((weight == 0 ? 0 : baseRating * weight) + stars) / total;
+        // One decimal, as in the menu file
+        return new Rating(Math.round(mean * 10) / 10.0, (int) Math.min(total, Integer.MAX_VALUE));
+    }
+
+    private static long[] counts(AtomicLongArray histogram) {
+        long[] counts = new long[STARS];
+        for (int i = 0; i < STARS; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    private OutletRatings outlet(String restaurantId) {
+        return outlets.computeIfAbsent(restaurantId, id -> new OutletRatings());
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.flush-interval:PT5S}")
+    public void flush() {
+        outlets.values().forEach(outlet -> {
+            if (outlet.changed.getAndSet(false)) {
+                outlet.version.incrementAndGet();
+            }
+        });
+        if (dirty.getAndSet(false)) {
+            persist();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private synchronized void persist() {
+        Map<String, Map<String, Map<String, long[]>>> saved = new TreeMap<>();
+        outlets.forEach((restaurantId, outlet) -> outlet.histograms.forEach((key, histogram) ->
+                saved.computeIfAbsent(restaurantId, id -> new TreeMap<>())
+                        .computeIfAbsent(key.categoryId(), id -> new TreeMap<>())
+                        .put(key.dishId(), counts(histogram))));
+        try {
+            DurableFiles.replace(file, objectMapper.writeValueAsBytes(new RatingsFile(saved)));
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to write dish ratings; retrying on the next flush", e);
+        }
+    }
+
+    public record Rating(Double rating, Integer numReviews) {
+    }
+
+    private record DishKey(String categoryId, String dishId) {
+    }
+
+    private static final class OutletRatings {
+
+        private final ConcurrentHashMap<DishKey, AtomicLongArray> histograms = new ConcurrentHashMap<>();
+        private final AtomicBoolean changed = new AtomicBoolean();
+        private final AtomicLong version = new AtomicLong();
+    }
+
+    private record RatingsFile(Map<String, Map<String, Map<String, long[]>>> outlets) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reports whether the menu repository clone is usable and in sync with the
+ * remote. Part of the readiness group, so the instance stops getting traffic
+ * while the clone is loading (with {@code github.local.async-init}) or when
+ * it falls further behind than {@code github.health} allows; liveness is
+ * unaffected. Followers are ready too: they serve reads and pass writes on.
+ */
+@Component
+@RequiredArgsConstructor
+public class GitHealthIndicator implements HealthIndicator {
+
+    private final GitService gitService;
+    private final GitConfig gitConfig;
+    private final MenuMetrics menuMetrics;
+    private final LeaderElection leaderElection;
+
+    @Override
+    public Health health() {
+        CompletableFuture<Void> ready = gitService.whenReady();
+        if (!ready.isDone()) {
+            return Health.outOfService().withDetail("repository", "loading").build();
+        }
+        try {
+            ready.join();
+        } catch (CompletionException e) {
+            return Health.down(e.getCause()).build();
+        }
+
+        GitService.SyncStatus status = gitService.syncStatus();
+        Instant now = Instant.now();
+        Duration pullAge = ageOf(menuMetrics.getLastPullMillis(), now);
+        Duration pushAge = ageOf(menuMetrics.getLastPushMillis(), now);
+        Duration unpushedAge = status.oldestUnpushed() == null ? null : Duration.between(status.oldestUnpushed(), now);
+
+        GitConfig.Health limits = gitConfig.getHealth();
+        List<String> problems = new ArrayList<>();
+        if (status.ahead() > limits.getMaxUnpushedCommits()) {
+            problems.add(status.ahead() + " commits not pushed");
+        }
+        if (unpushedAge != null && limits.getMaxUnpushedAge() != null
+                && unpushedAge.compareTo(limits.getMaxUnpushedAge()) > 0) {
+            problems.add("oldest unpushed commit is " + unpushedAge.toSeconds() + "s old");
+        }
+        if (status.behind() > limits.getMaxBehindCommits()) {
+            problems.add(status.behind() + " remote commits not merged");
+        }
+        if (limits.getMaxPullAge() != null && (pullAge == null || pullAge.compareTo(limits.getMaxPullAge()) > 0)) {
+            problems.add("no pull for " + (pullAge == null ? "ever" : pullAge.toSeconds() + "s"));
+        }
+
+        Health.Builder health = problems.isEmpty() ? Health.up() : Health.outOfService();
+        health.withDetail("head", String.valueOf(status.head()))
+                .withDetail("remoteHead", String.valueOf(status.remoteHead()))
+                .withDetail("unpushedCommits", status.ahead())
+                .withDetail("behindCommits", status.behind());
+        if (unpushedAge != null) {
+            health.withDetail("oldestUnpushedSeconds", unpushedAge.toSeconds());
+        }
+        if (pullAge != null) {
+            health.withDetail("lastPullSeconds", pullAge.toSeconds());
+        }
+        if (pushAge != null) {
+            health.withDetail("lastPushSeconds", pushAge.toSeconds());
+        }
+        if (leaderElection.isEnabled()) {
+            health.withDetail("role", leaderElection.isLeader() ? "leader" : "follower")
+                    .withDetail("leader", String.valueOf(leaderElection.isLeader()
+                            ? leaderElection.getInstanceId() : leaderElection.leaderId()));
+        }
+        if (!problems.isEmpty()) {
+            health.withDetail("problems", problems);
+        }
+        return health.build();
+    }
+
+    private static Duration ageOf(long epochMillis, Instant now) {
+        return epochMillis == 0 ? null : Duration.between(Instant.ofEpochMilli(epochMillis), now);
+    }
+}
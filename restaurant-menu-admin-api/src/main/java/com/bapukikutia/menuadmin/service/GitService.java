@@ -2,21 +2,75 @@ package com.bapukikutia.menuadmin.service;
 
 import com.bapukikutia.menuadmin.config.GitConfig;
 import com.bapukikutia.menuadmin.exception.GitOperationException;
+import com.bapukikutia.menuadmin.exception.MergeConflictException;
+import com.bapukikutia.menuadmin.exception.ServiceUnavailableException;
+import com.bapukikutia.menuadmin.exception.StaleWriteException;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.AddCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.PushCommand;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.RmCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheBuilder;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RefLeaseSpec;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.Transport;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,10 +80,28 @@ import org.slf4j.LoggerFactory;
 public class GitService {
 
     private final GitConfig gitConfig;
+    private final MenuMetrics menuMetrics;
+    private final List<MergeResolver> mergeResolvers;
+    private final ApplicationEventPublisher eventPublisher;
     private Git git;
     private UsernamePasswordCredentialsProvider credentialsProvider;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final ReentrantLock pushLock = new ReentrantLock();
+    private volatile long committedSequence; // Incremented under commitLock
+    private volatile long pushedSequence;    // Highest commit sequence known to be on the remote
+    private volatile long discardedSequence; // Commits up to this were dropped after a merge conflict
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private volatile Lease heldLease;        // Leader lease this instance holds, with github.leader.enabled
+    private static final int SYNC_WALK_LIMIT = 10_000;
+    private static final int MAX_PUSH_ATTEMPTS = 3;
     private static final Logger LOGGER = LoggerFactory.getLogger(GitService.class);
 
+    /**
+     * Opens or clones the repository. With {@code github.local.async-init} the
+     * work runs on a background thread so the application starts without
+     * waiting for it; until it finishes, file and commit operations fail with
+     * 503 and the readiness probe reports out of service.
+     */
     @PostConstruct
     public void initialize() {
         log.info("Initializing Git service...");
@@ -40,6 +112,22 @@ public class GitService {
                 gitConfig.getRepository().getToken()
         );
 
+        if (gitConfig.getLocal().isAsyncInit()) {
+            Thread thread = new Thread(() -> {
+                try {
+                    openRepository();
+                } catch (GitOperationException e) {
+                    // Logged; requests get 503 and readiness stays down
+                }
+            }, "git-init");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            openRepository();
+        }
+    }
+
+    private void openRepository() {
         try {
             File localPath = new File(gitConfig.getLocal().getCloneDirectory());
 
@@ -58,32 +146,65 @@ public class GitService {
                 cloneRepository(localPath);
             }
 
+            recordStatistics();
             log.info("Git service initialized successfully");
+            ready.complete(null);
         } catch (Exception e) {
             log.error("Failed to initialize Git repository", e);
-            throw new GitOperationException("Failed to initialize Git repository: " + e.getMessage(), e);
+            GitOperationException failure =
+                    new GitOperationException("Failed to initialize Git repository: " + e.getMessage(), e);
+            ready.completeExceptionally(failure);
+            throw failure;
+        }
+    }
+
+    /**
+     * Completes once the clone is usable, or exceptionally if it couldn't be
+     * opened or cloned.
+     */
+    public CompletableFuture<Void> whenReady() {
+        return ready.copy();
+    }
+
+    /**
+     * Fails unless this instance can commit right now, so callers can check
+     * before writing files that would otherwise be left uncommitted.
+     */
+    public void checkWritable() {
+        checkReady();
+        checkLeader();
+    }
+
+    private void checkReady() {
+        if (!ready.isDone()) {
+            throw new ServiceUnavailableException("Menu repository is still loading, try again shortly");
+        }
+        if (ready.isCompletedExceptionally()) {
+            throw new ServiceUnavailableException("Menu repository failed to initialize");
         }
     }
 
     private void cloneRepository(File localPath) throws GitAPIException {
-        git = Git.cloneRepository()
+        git = menuMetrics.timeGit("clone", () -> Git.cloneRepository()
                 .setURI(gitConfig.getRepository().getUrl())
                 .setDirectory(localPath)
                 .setBranch(gitConfig.getRepository().getBranch())
                 .setCredentialsProvider(credentialsProvider)
-                .call();
+                .call());
 
+        menuMetrics.markPulled();
         log.info("Repository cloned successfully");
     }
 
     public void pullLatestChanges() {
         try {
             log.info("Pulling latest changes from remote repository...");
-            PullResult result = git.pull()
+            PullResult result = menuMetrics.timeGit("pull", () -> git.pull()
                     .setCredentialsProvider(credentialsProvider)
-                    .call();
+                    .call());
 
             if (result.isSuccessful()) {
+                menuMetrics.markPulled();
                 log.info("Pull successful");
             } else {
                 log.warn("Pull completed with issues: {}", result.toString());
@@ -94,67 +215,1057 @@ public class GitService {
         }
     }
 
-    public void commitAndPush(String commitMessage) {
+    /**
+     * Stages and commits the given paths, then pushes the branch. Paths that no
+     * longer exist in the clone are staged as removals.
+     * <p>
+     * Commits are serialized because they share the index. Pushes are coalesced:
+     * a caller that finds a push already running waits for it and returns without
+     * pushing again if that push already carried its commit.
+     */
+    public void commitAndPush(String commitMessage, String... filePaths) {
+        commitAndPush(commitMessage, Map.of(), filePaths);
+    }
+
+    /**
+     * Like {@link #commitAndPush(String, String...)}, but only commits if HEAD
+     * still has each file in {@code baseBlobIds} at the blob the change was made
+     * from. A merge for another writer's push may have replaced it since.
+     *
+     * @throws StaleWriteException if one of them has changed
+     */
+    public void commitAndPush(String commitMessage, Map<String, String> baseBlobIds, String... filePaths) {
+        long commitSequence = commit(commitMessage, baseBlobIds, filePaths);
+        push(commitSequence);
+    }
+
+    private long commit(String commitMessage, Map<String, String> baseBlobIds, String... filePaths) {
+        checkWritable();
+        commitLock.lock();
         try {
+            for (Map.Entry<String, String> base : baseBlobIds.entrySet()) {
+                if (!Objects.equals(base.getValue(), headBlobId(base.getKey()))) {
+                    throw new StaleWriteException(base.getKey());
+                }
+            }
             log.info("Committing changes with message: {}", commitMessage);
 
-            // Add all changes
-            git.add()
-                    .addFilepattern(gitConfig.getMenu().getFilePath())
-                    .call();
+            // Stage written files, and removals of files that no longer exist
+            AddCommand addCommand = git.add();
+            RmCommand rmCommand = git.rm().setCached(true);
+            boolean anyRemoved = false;
+            for (String filePath : filePaths) {
+                if (exists(filePath)) {
+                    addCommand.addFilepattern(filePath);
+                } else {
+                    rmCommand.addFilepattern(filePath);
+                    anyRemoved = true;
+                }
+            }
+            menuMetrics.timeGit("add", addCommand::call);
+            if (anyRemoved) {
+                menuMetrics.timeGit("add", rmCommand::call);
+            }
 
             // Commit
-            git.commit()
+            menuMetrics.timeGit("commit", () -> git.commit()
                     .setMessage(commitMessage)
-                    .call();
+                    .call());
 
             log.info("Changes committed successfully");
+            return ++committedSequence;
+        } catch (GitAPIException e) {
+            log.error("Failed to commit changes", e);
+            throw new GitOperationException("Failed to commit changes: " + e.getMessage(), e);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void push(long commitSequence) {
+        pushLock.lock();
+        try {
+            if (pushedSequence >= commitSequence) {
+                log.info("Commit already pushed with a concurrent push");
+                return;
+            }
+            if (discardedSequence >= commitSequence) {
+                throw new MergeConflictException(
+                        "Change was discarded because another pending change conflicted with the remote", Map.of());
+            }
+
+            String branch = gitConfig.getRepository().getBranch();
+            for (int attempt = 1; ; attempt++) {
+                checkLeader();
+                long pushingSequence = committedSequence;
+
+                // Push to remote
+                log.info("Pushing changes to remote repository...");
+                PushCommand pushCommand = git.push()
+                        .setCredentialsProvider(credentialsProvider)
+                        .setRemote("origin")
+                        .add(branch);
+
+                // The lease is renewed in the same atomic push, so a leader that lost it can't push
+                Lease held = heldLease;
+                Lease renewal = null;
+                String leaseRef = gitConfig.getLeader().getRef();
+                if (held != null) {
+                    renewal = newLease(held.holder(), held.url());
+                    pushCommand.setAtomic(true)
+                            .add("+" + renewal.id().name() + ":" + leaseRef)
+                            .setRefLeaseSpecs(new RefLeaseSpec(leaseRef, held.id().name()));
+                }
+
+                PushResult result = menuMetrics.timeGit("push", pushCommand::call).iterator().next();
+                if (renewal != null) {
+                    RemoteRefUpdate.Status leaseStatus = result.getRemoteUpdate(leaseRef).getStatus();
+                    if (leaseStatus == RemoteRefUpdate.Status.OK) {
+                        heldLease = renewal;
+                    } else if (leaseStatus == RemoteRefUpdate.Status.REJECTED_REMOTE_CHANGED) {
+                        heldLease = null;
+                        throw new ServiceUnavailableException("This instance lost the leader lease; the change was not pushed");
+                    }
+                }
+                RemoteRefUpdate update = result.getRemoteUpdate(Constants.R_HEADS + branch);
+                RemoteRefUpdate.Status status = update.getStatus();
+                if (status == RemoteRefUpdate.Status.OK || status == RemoteRefUpdate.Status.UP_TO_DATE) {
+                    pushedSequence = pushingSequence;
+                    menuMetrics.markPushed();
+                    log.info("Changes pushed successfully to {}", branch);
+                    return;
+                }
+                if (!isBehindRemote(update) || attempt == MAX_PUSH_ATTEMPTS) {
+                    throw new GitOperationException("Push to " + branch + " rejected: " + status
+                            + (update.getMessage() == null ? "" : " (" + update.getMessage() + ")"));
+                }
+
+                log.warn("Push rejected as {}, merging remote changes (attempt {})", status, attempt);
+                commitLock.lock();
+                try {
+                    mergeRemote();
+                } finally {
+                    commitLock.unlock();
+                }
+            }
+        } catch (GitAPIException | IOException e) {
+            log.error("Failed to push changes", e);
+            throw new GitOperationException("Failed to push changes: " + e.getMessage(), e);
+        } finally {
+            pushLock.unlock();
+        }
+    }
+
+    private static boolean isBehindRemote(RemoteRefUpdate update) {
+        return switch (update.getStatus()) {
+            case REJECTED_NONFASTFORWARD, REJECTED_REMOTE_CHANGED -> true;
+            case REJECTED_OTHER_REASON -> update.getMessage() != null
+                    && (update.getMessage().contains("fetch first") || update.getMessage().contains("non-fast-forward"));
+            default -> false;
+        };
+    }
+
+    /**
+     * Fetches the branch and merges it into HEAD, file by file. Files changed
+     * on one side only take that side; files changed on both are handed to a
+     * {@link MergeResolver}. Only the merged files are rewritten in the working
+     * tree, so files written for commits not made yet are left alone; a writer
+     * whose file was rewritten is stopped when it commits, by its base blob.
+     * <p>
+     * If anything conflicts, all local commits not on the remote are dropped
+     * and the clone is reset to the remote branch, so later writes start from
+     * it instead of failing the same way. Must hold both locks.
+     */
+    private void mergeRemote() throws GitAPIException, IOException {
+        String branch = gitConfig.getRepository().getBranch();
+        menuMetrics.timeGit("fetch", () -> git.fetch()
+                .setCredentialsProvider(credentialsProvider)
+                .setRemote("origin")
+                .call());
+        menuMetrics.markPulled();
+
+        Repository repository = git.getRepository();
+        try (RevWalk walk = new RevWalk(repository);
+             ObjectInserter inserter = repository.newObjectInserter();
+             ObjectReader reader = repository.newObjectReader()) {
+            RevCommit ours = walk.parseCommit(repository.resolve(Constants.HEAD));
+            RevCommit theirs = walk.parseCommit(repository.resolve(Constants.R_REMOTES + "origin/" + branch));
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(ours);
+            walk.markStart(theirs);
+            RevCommit base = walk.next();
+            if (theirs.equals(base)) {
+                return;
+            }
+
+            DirCache merged = DirCache.newInCore();
+            DirCacheBuilder builder = merged.builder();
+            Map<String, ObjectId> rewritten = new TreeMap<>();
+            Map<String, String> conflicts = new LinkedHashMap<>();
+            try (TreeWalk treeWalk = new TreeWalk(repository)) {
+                treeWalk.setRecursive(true);
+                if (base == null) {
+                    treeWalk.addTree(new EmptyTreeIterator());
+                } else {
+                    treeWalk.addTree(base.getTree());
+                }
+                treeWalk.addTree(ours.getTree());
+                treeWalk.addTree(theirs.getTree());
+
+                while (treeWalk.next()) {
+                    String path = treeWalk.getPathString();
+                    ObjectId baseId = idOf(treeWalk, 0);
+                    ObjectId oursId = idOf(treeWalk, 1);
+                    ObjectId theirsId = idOf(treeWalk, 2);
+
+                    ObjectId result;
+                    FileMode mode = treeWalk.getFileMode(1) == FileMode.MISSING
+                            ? treeWalk.getFileMode(2) : treeWalk.getFileMode(1);
+                    if (Objects.equals(oursId, theirsId) || Objects.equals(baseId, theirsId)) {
+                        result = oursId;
+                    } else if (Objects.equals(baseId, oursId)) {
+                        result = theirsId;
+                        mode = treeWalk.getFileMode(2);
+                    } else {
+                        result = resolveBoth(path, baseId, oursId, theirsId, reader, inserter, conflicts);
+                    }
+
+                    if (result != null) {
+                        DirCacheEntry entry = new DirCacheEntry(path);
+                        entry.setFileMode(mode);
+                        entry.setObjectId(result);
+                        builder.add(entry);
+                    }
+                    if (!Objects.equals(result, oursId)) {
+                        rewritten.put(path, result);
+                    }
+                }
+            }
+
+            if (!conflicts.isEmpty()) {
+                discardLocalCommits(ours, theirs, reader);
+                throw new MergeConflictException("Changes conflict with edits made on the remote; "
+                        + "local changes were discarded, reload and try again", conflicts);
+            }
+
+            builder.finish();
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(merged.writeTree(inserter));
+            commit.setParentIds(ours, theirs);
+            PersonIdent ident = new PersonIdent(repository);
+            commit.setAuthor(ident);
+            commit.setCommitter(ident);
+            commit.setMessage("Merge remote changes into " + branch);
+            ObjectId mergeCommit = inserter.insert(commit);
+            inserter.flush();
+
+            // HEAD and index move to the merge; the working tree keeps uncommitted writes
+            menuMetrics.timeGit("merge", () -> git.reset().setMode(ResetCommand.ResetType.MIXED)
+                    .setRef(mergeCommit.name()).call());
+            writeWorkingTree(rewritten, reader);
+            log.info("Merged {} remote changes into {}; rewrote {}", theirs.name(), branch, rewritten.keySet());
+        }
+    }
+
+    private ObjectId resolveBoth(String path, ObjectId baseId, ObjectId oursId, ObjectId theirsId,
+                                 ObjectReader reader, ObjectInserter inserter, Map<String, String> conflicts)
+            throws IOException {
+        MergeResolver resolver = mergeResolvers.stream()
+                .filter(candidate -> candidate.handles(path))
+                .findFirst()
+                .orElse(null);
+        if (resolver == null || oursId == null || theirsId == null) {
+            conflicts.put(path, oursId == null ? "deleted here, changed on the remote"
+                    : theirsId == null ? "changed here, deleted on the remote"
+                    : "changed both here and on the remote");
+            return oursId;
+        }
+        try {
+            byte[] merged = resolver.merge(path,
+                    baseId == null ? null : reader.open(baseId).getBytes(),
+                    reader.open(oursId).getBytes(),
+                    reader.open(theirsId).getBytes());
+            return inserter.insert(Constants.OBJ_BLOB, merged);
+        } catch (MergeConflictException e) {
+            conflicts.putAll(e.getConflicts());
+            return oursId;
+        }
+    }
+
+    private void discardLocalCommits(RevCommit ours, RevCommit theirs, ObjectReader reader)
+            throws GitAPIException, IOException {
+        Set<String> rewritten = resetTo(ours, theirs, reader);
+        discardedSequence = committedSequence;
+        log.warn("Discarded local commits up to {} after a merge conflict; rewrote {}", ours.name(), rewritten);
+    }
+
+    // Moves HEAD and index to theirs and rewrites only the files that differ from ours
+    private Set<String> resetTo(RevCommit ours, RevCommit theirs, ObjectReader reader)
+            throws GitAPIException, IOException {
+        Map<String, ObjectId> rewritten = new TreeMap<>();
+        try (TreeWalk treeWalk = new TreeWalk(git.getRepository())) {
+            treeWalk.setRecursive(true);
+            treeWalk.addTree(ours.getTree());
+            treeWalk.addTree(theirs.getTree());
+            treeWalk.setFilter(TreeFilter.ANY_DIFF);
+            while (treeWalk.next()) {
+                rewritten.put(treeWalk.getPathString(), idOf(treeWalk, 1));
+            }
+        }
+        git.reset().setMode(ResetCommand.ResetType.MIXED).setRef(theirs.name()).call();
+        writeWorkingTree(rewritten, reader);
+        return rewritten.keySet();
+    }
+
+    /**
+     * Puts files back in the index and working tree the way HEAD has them,
+     * deleting those HEAD doesn't have, after a change that wrote them failed
+     * to commit.
+     */
+    public void restoreFromHead(Collection<String> filePaths) {
+        checkReady();
+        commitLock.lock();
+        try {
+            ResetCommand reset = git.reset().setRef(Constants.HEAD);
+            filePaths.forEach(reset::addPath);
+            reset.call();
+
+            Repository repository = git.getRepository();
+            try (RevWalk walk = new RevWalk(repository);
+                 ObjectReader reader = repository.newObjectReader()) {
+                RevTree head = walk.parseCommit(repository.resolve(Constants.HEAD)).getTree();
+                for (String filePath : filePaths) {
+                    try (TreeWalk treeWalk = TreeWalk.forPath(repository, filePath, head)) {
+                        if (treeWalk == null) {
+                            deleteFile(filePath);
+                        } else {
+                            writeFile(filePath, reader.open(treeWalk.getObjectId(0)).getBytes());
+                        }
+                    }
+                }
+            }
+            log.info("Restored {} from HEAD", filePaths);
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Failed to restore " + filePaths + " from HEAD: " + e.getMessage(), e);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Fetches the branch and moves the clone to it, for an instance that
+     * doesn't write: a follower. Local commits not on the remote, left from a
+     * time as leader whose push failed, are dropped.
+     */
+    public void syncFromRemote() {
+        checkReady();
+        String branch = gitConfig.getRepository().getBranch();
+        pushLock.lock();
+        commitLock.lock();
+        try {
+            menuMetrics.timeGit("fetch", () -> git.fetch()
+                    .setCredentialsProvider(credentialsProvider)
+                    .setRemote("origin")
+                    .call());
+            menuMetrics.markPulled();
+
+            Repository repository = git.getRepository();
+            try (RevWalk walk = new RevWalk(repository);
+                 ObjectReader reader = repository.newObjectReader()) {
+                RevCommit ours = walk.parseCommit(repository.resolve(Constants.HEAD));
+                RevCommit theirs = walk.parseCommit(repository.resolve(Constants.R_REMOTES + "origin/" + branch));
+                if (ours.equals(theirs)) {
+                    return;
+                }
+                boolean fastForward = walk.isMergedInto(ours, theirs);
+                Set<String> rewritten = resetTo(ours, theirs, reader);
+                if (fastForward) {
+                    log.info("Synced {} to {}; rewrote {}", branch, theirs.name(), rewritten);
+                } else {
+                    discardedSequence = committedSequence;
+                    log.warn("Synced {} to {}, dropping unpushed local commits up to {}; rewrote {}",
+                            branch, theirs.name(), ours.name(), rewritten);
+                }
+            }
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Failed to sync with the remote: " + e.getMessage(), e);
+        } finally {
+            commitLock.unlock();
+            pushLock.unlock();
+        }
+    }
+
+    private void writeWorkingTree(Map<String, ObjectId> files, ObjectReader reader) throws IOException {
+        for (Map.Entry<String, ObjectId> file : files.entrySet()) {
+            if (file.getValue() == null) {
+                deleteFile(file.getKey());
+            } else {
+                writeFile(file.getKey(), reader.open(file.getValue()).getBytes());
+            }
+        }
+        if (!files.isEmpty()) {
+            eventPublisher.publishEvent(new RemoteChangesMergedEvent(Set.copyOf(files.keySet())));
+        }
+    }
+
+    private static ObjectId idOf(TreeWalk treeWalk, int tree) {
+        return treeWalk.getFileMode(tree) == FileMode.MISSING ? null : treeWalk.getObjectId(tree);
+    }
+
+    // With leader election on, only the lease holder commits and pushes
+    private void checkLeader() {
+        if (gitConfig.getLeader().isEnabled() && heldLease == null) {
+            throw new ServiceUnavailableException("This instance is not the leader; send writes to the leader");
+        }
+    }
+
+    /**
+     * The leader lease on the remote, or null if nobody holds it.
+     */
+    public Lease readLease() {
+        checkReady();
+        try {
+            RevCommit lease = readRemoteRef("lease", gitConfig.getLeader().getRef());
+            return lease == null ? null : Lease.parse(lease.getId(), lease.getFullMessage());
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Failed to read the leader lease: " + e.getMessage(), e);
+        }
+    }
+
+    // The commit a ref points at on the remote, fetched if needed, or null if there is no such ref
+    private RevCommit readRemoteRef(String operation, String ref) throws GitAPIException, IOException {
+        Ref remote = menuMetrics.timeGit(operation, () -> git.lsRemote()
+                .setCredentialsProvider(credentialsProvider)
+                .setRemote("origin")
+                .callAsMap()).get(ref);
+        if (remote == null) {
+            return null;
+        }
+
+        Repository repository = git.getRepository();
+        ObjectId id = remote.getObjectId();
+        if (!repository.getObjectDatabase().has(id)) {
+            menuMetrics.timeGit(operation, () -> git.fetch()
+                    .setCredentialsProvider(credentialsProvider)
+                    .setRemote("origin")
+                    .setRefSpecs(new RefSpec("+" + ref + ":" + ref))
+                    .call());
+        }
+        try (RevWalk walk = new RevWalk(repository)) {
+            return walk.parseCommit(id);
+        }
+    }
+
+    /**
+     * Reserves {@code count} numbers of a counter kept in a ref on the remote
+     * and returns the first. The block starts at {@code floor} or after every
+     * block reserved before, by any instance, whichever is higher.
+     */
+    public long reserveNumbers(String ref, long floor, int count) {
+        checkReady();
+        checkLeader();
+        for (int attempt = 1; attempt <= MAX_PUSH_ATTEMPTS; attempt++) {
+            try {
+                RevCommit current = readRemoteRef("counter", ref);
+                long start = Math.max(floor, current == null ? 0 : reservedThrough(current));
+                ObjectId reservation = newCounter(start + count);
+                RemoteRefUpdate.Status status = pushRef("counter", ref,
+                        current == null ? ObjectId.zeroId() : current.getId(), reservation);
+                if (status == RemoteRefUpdate.Status.OK) {
+                    return start;
+                }
+                if (status != RemoteRefUpdate.Status.REJECTED_REMOTE_CHANGED) {
+                    throw new GitOperationException("Push of " + ref + " rejected: " + status);
+                }
+            } catch (GitAPIException | IOException e) {
+                throw new ServiceUnavailableException("Failed to reserve numbers from " + ref + ": " + e.getMessage());
+            }
+        }
+        throw new ServiceUnavailableException("Another instance kept moving " + ref + ", try again shortly");
+    }
+
+    private static long reservedThrough(RevCommit counter) {
+        for (String line : counter.getFullMessage().split("\n")) {
+            if (line.startsWith("reserved: ")) {
+                return Long.parseLong(line.substring("reserved: ".length()).trim());
+            }
+        }
+        throw new GitOperationException("Counter commit " + counter.getName() + " has no reserved line");
+    }
+
+    // Like a lease: an empty tree and no parent, so replaced counters can be collected
+    private ObjectId newCounter(long reservedThrough) throws IOException {
+        Repository repository = git.getRepository();
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(inserter.insert(new TreeFormatter()));
+            PersonIdent ident = new PersonIdent(repository);
+            commit.setAuthor(ident);
+            commit.setCommitter(ident);
+            Lease held = heldLease;
+            commit.setMessage("Menu admin counter\n\nreserved: " + reservedThrough
+                    + "\nholder: " + (held == null ? "none" : held.holder()) + "\n");
+            ObjectId id = inserter.insert(commit);
+            inserter.flush();
+            return id;
+        }
+    }
+
+    /**
+     * Takes the lease if it is still the given one (null: nobody holds it).
+     * Returns false if another instance changed it first.
+     */
+    public boolean acquireLease(Lease expected, String holder, String url) {
+        checkReady();
+        pushLock.lock();
+        try {
+            Lease lease = newLease(holder, url);
+            if (pushLease(expected == null ? ObjectId.zeroId() : expected.id(), lease.id())
+                    != RemoteRefUpdate.Status.OK) {
+                return false;
+            }
+            heldLease = lease;
+            return true;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to take the leader lease: " + e.getMessage(), e);
+        } finally {
+            pushLock.unlock();
+        }
+    }
+
+    /**
+     * Points the lease at a new commit, so followers see that the leader is
+     * alive. Returns false, and stops writing, if another instance took it.
+     */
+    public boolean renewLease() {
+        checkReady();
+        pushLock.lock();
+        try {
+            Lease held = heldLease;
+            if (held == null) {
+                return false;
+            }
+            Lease renewal = newLease(held.holder(), held.url());
+            RemoteRefUpdate.Status status = pushLease(held.id(), renewal.id());
+            if (status == RemoteRefUpdate.Status.OK) {
+                heldLease = renewal;
+                return true;
+            }
+            if (status == RemoteRefUpdate.Status.REJECTED_REMOTE_CHANGED) {
+                heldLease = null;
+                return false;
+            }
+            throw new GitOperationException("Renewing the leader lease failed: " + status);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to renew the leader lease: " + e.getMessage(), e);
+        } finally {
+            pushLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the lease from the remote if this instance still holds it, so
+     * another can take over without waiting for it to expire.
+     */
+    public void releaseLease() {
+        pushLock.lock();
+        try {
+            Lease held = heldLease;
+            heldLease = null;
+            if (held != null && pushLease(held.id(), null) == RemoteRefUpdate.Status.OK) {
+                log.info("Released the leader lease");
+            }
+        } catch (IOException e) {
+            log.warn("Failed to release the leader lease; it expires on its own", e);
+        } finally {
+            pushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops writing without touching the remote, once the lease may have
+     * expired.
+     */
+    public void dropLease() {
+        heldLease = null;
+    }
+
+    // A commit with an empty tree and the holder in its message, parented on nothing so old leases can be collected
+    private Lease newLease(String holder, String url) throws IOException {
+        Repository repository = git.getRepository();
+        try (ObjectInserter inserter = repository.newObjectInserter()) {
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(inserter.insert(new TreeFormatter()));
+            PersonIdent ident = new PersonIdent(repository);
+            commit.setAuthor(ident);
+            commit.setCommitter(ident);
+            // The renewal time makes every renewal a new commit, even within the same second
+            commit.setMessage("Menu admin leader lease\n\nholder: " + holder + "\nurl: " + url
+                    + "\nrenewed: " + Instant.now() + "\n");
+            ObjectId id = inserter.insert(commit);
+            inserter.flush();
+            return new Lease(id, holder, url);
+        }
+    }
+
+    private RemoteRefUpdate.Status pushLease(ObjectId expected, ObjectId update) throws IOException {
+        return pushRef("lease", gitConfig.getLeader().getRef(), expected, update);
+    }
 
-            // Push to remote
-            log.info("Pushing changes to remote repository...");
-            PushCommand pushCommand = git.push()
+    // Compare-and-swap on a remote ref; zeroId expects no ref, a null update deletes it
+    private RemoteRefUpdate.Status pushRef(String operation, String ref, ObjectId expected, ObjectId update)
+            throws IOException {
+        try (Transport transport = Transport.open(git.getRepository(), "origin")) {
+            transport.setCredentialsProvider(credentialsProvider);
+            RemoteRefUpdate refUpdate = new RemoteRefUpdate(git.getRepository(), null, update, ref, true, null,
+                    expected);
+            PushResult result = menuMetrics.timeGit(operation,
+                    () -> transport.push(NullProgressMonitor.INSTANCE, List.of(refUpdate)));
+            return result.getRemoteUpdate(ref).getStatus();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // ==================== Refs outside the branch ====================
+
+    /**
+     * The commit the branch is at.
+     */
+    public ObjectId head() {
+        checkReady();
+        try {
+            return git.getRepository().resolve(Constants.HEAD);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to resolve HEAD: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches the refs under a prefix from the remote, dropping local ones
+     * deleted there, and returns them with the commits they point at.
+     */
+    public Map<String, ObjectId> fetchRefs(String prefix) {
+        checkReady();
+        try {
+            menuMetrics.timeGit("fetch", () -> git.fetch()
                     .setCredentialsProvider(credentialsProvider)
                     .setRemote("origin")
-                    .add(gitConfig.getRepository().getBranch());
+                    .setRefSpecs(new RefSpec("+" + prefix + "*:" + prefix + "*"))
+                    .setRemoveDeletedRefs(true)
+                    .call());
+            Map<String, ObjectId> refs = new TreeMap<>();
+            for (Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(prefix)) {
+                refs.put(ref.getName(), ref.getObjectId());
+            }
+            return refs;
+        } catch (GitAPIException | IOException e) {
+            throw new GitOperationException("Failed to fetch " + prefix + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Commits one file on top of {@code parent} without touching the index or
+     * the working tree, and points {@code ref} at the commit, on the remote and
+     * then locally. The ref must still be at {@code expected} on the remote
+     * (zeroId: not exist yet). Returns null if another instance moved it.
+     */
+    public ObjectId commitToRef(String ref, ObjectId expected, ObjectId parent, String filePath, byte[] content,
+                                String message, String author) {
+        checkReady();
+        checkLeader();
+        Repository repository = git.getRepository();
+        try (ObjectInserter inserter = repository.newObjectInserter();
+             RevWalk walk = new RevWalk(repository)) {
+            DirCache index = DirCache.read(walk.getObjectReader(), walk.parseCommit(parent).getTree());
+            ObjectId blob = inserter.insert(Constants.OBJ_BLOB, content);
+            DirCacheEditor editor = index.editor();
+            editor.add(new DirCacheEditor.PathEdit(filePath) {
+                @Override
+                public void apply(DirCacheEntry entry) {
+                    entry.setFileMode(FileMode.REGULAR_FILE);
+                    entry.setObjectId(blob);
+                }
+            });
+            editor.finish();
+
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(index.writeTree(inserter));
+            commit.setParentId(parent);
+            PersonIdent committer = new PersonIdent(repository);
+            commit.setAuthor(new PersonIdent(author, committer.getEmailAddress()));
+            commit.setCommitter(committer);
+            commit.setMessage(message);
+            ObjectId id = inserter.insert(commit);
+            inserter.flush();
+
+            if (!pushedRef(ref, expected, id)) {
+                return null;
+            }
+            setLocalRef(ref, id);
+            return id;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to commit to " + ref + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Points {@code ref} at an existing commit, on the remote and locally, if
+     * the remote ref is still at {@code expected}.
+     */
+    public boolean updateRef(String ref, ObjectId expected, ObjectId update) {
+        checkReady();
+        checkLeader();
+        try {
+            if (!pushedRef(ref, expected, update)) {
+                return false;
+            }
+            setLocalRef(ref, update);
+            return true;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to update " + ref + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes {@code ref} on the remote and locally if it is still at
+     * {@code expected}.
+     */
+    public boolean deleteRef(String ref, ObjectId expected) {
+        checkReady();
+        checkLeader();
+        try {
+            if (!pushedRef(ref, expected, null)) {
+                return false;
+            }
+            RefUpdate delete = git.getRepository().updateRef(ref);
+            delete.setForceUpdate(true);
+            delete.delete();
+            return true;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to delete " + ref + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean pushedRef(String ref, ObjectId expected, ObjectId update) throws IOException {
+        RemoteRefUpdate.Status status = pushRef("push", ref, expected, update);
+        if (status == RemoteRefUpdate.Status.REJECTED_REMOTE_CHANGED) {
+            return false;
+        }
+        if (status != RemoteRefUpdate.Status.OK && status != RemoteRefUpdate.Status.UP_TO_DATE) {
+            throw new GitOperationException("Push of " + ref + " rejected: " + status);
+        }
+        return true;
+    }
+
+    private void setLocalRef(String ref, ObjectId id) throws IOException {
+        RefUpdate update = git.getRepository().updateRef(ref);
+        update.setNewObjectId(id);
+        update.setForceUpdate(true);
+        RefUpdate.Result result = update.update();
+        if (result == RefUpdate.Result.LOCK_FAILURE || result == RefUpdate.Result.IO_FAILURE) {
+            throw new IOException("Updating local " + ref + " failed: " + result);
+        }
+    }
 
-            pushCommand.call();
-            log.info("Changes pushed successfully to {}", gitConfig.getRepository().getBranch());
+    /**
+     * The most recent commit both commits descend from, or null if they
+     * share no history.
+     */
+    public ObjectId mergeBase(ObjectId a, ObjectId b) {
+        checkReady();
+        try (RevWalk walk = new RevWalk(git.getRepository())) {
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(walk.parseCommit(a));
+            walk.markStart(walk.parseCommit(b));
+            RevCommit base = walk.next();
+            return base == null ? null : base.getId();
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to find a merge base: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Commits reachable from {@code tip} but not from {@code since}, newest first.
+     */
+    public List<CommitInfo> log(ObjectId tip, ObjectId since) {
+        checkReady();
+        try (RevWalk walk = new RevWalk(git.getRepository())) {
+            walk.markStart(walk.parseCommit(tip));
+            walk.markUninteresting(walk.parseCommit(since));
+            List<CommitInfo> commits = new ArrayList<>();
+            for (RevCommit commit : walk) {
+                commits.add(new CommitInfo(commit.getName(), commit.getShortMessage(),
+                        commit.getAuthorIdent().getName(), commit.getAuthorIdent().getWhenAsInstant()));
+            }
+            return commits;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to read history of " + tip.name() + ": " + e.getMessage(), e);
+        }
+    }
 
+    /**
+     * A file's content in a commit, or null if the commit doesn't have it.
+     */
+    public byte[] readFileAt(ObjectId commitId, String filePath) {
+        checkReady();
+        Repository repository = git.getRepository();
+        try (RevWalk walk = new RevWalk(repository);
+             TreeWalk treeWalk = TreeWalk.forPath(repository, filePath, walk.parseCommit(commitId).getTree())) {
+            return treeWalk == null ? null : repository.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).getBytes();
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to read " + filePath + " at " + commitId.name() + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs {@link #maintain(Duration)} in the configured low-traffic window,
+     * unless the clone is still compact.
+     */
+    @Scheduled(cron = "${github.maintenance.cron:0 30 3 * * *}", zone = "${github.maintenance.zone:Asia/Kolkata}")
+    public void scheduledMaintenance() {
+        GitConfig.Maintenance maintenance = gitConfig.getMaintenance();
+        if (!maintenance.isEnabled() || !ready.isDone() || ready.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            Properties statistics = recordStatistics();
+            if (count(statistics, "numberOfLooseObjects") < maintenance.getMinLooseObjects()
+                    && count(statistics, "numberOfPackFiles") <= 1) {
+                log.info("Skipping repository maintenance, {} loose objects in {} pack files",
+                        count(statistics, "numberOfLooseObjects"), count(statistics, "numberOfPackFiles"));
+                return;
+            }
+            maintain(maintenance.getPruneExpire());
+        } catch (GitOperationException e) {
+            log.error("Scheduled repository maintenance failed", e);
+        }
+    }
+
+    /**
+     * Packs all reachable objects into a single pack and prunes unreachable
+     * objects older than the given age. Holds the commit and push locks for
+     * the whole run, so edits arriving meanwhile wait for it instead of
+     * racing the repack.
+     */
+    public Properties maintain(Duration pruneExpire) {
+        checkReady();
+        // Same order as a push that merges remote changes
+        pushLock.lock();
+        commitLock.lock();
+        try {
+            Properties before = git.gc().getStatistics();
+            long start = System.nanoTime();
+            Properties after = menuMetrics.timeGit("gc", () -> git.gc()
+                    .setExpire(new Date(System.currentTimeMillis() - pruneExpire.toMillis()))
+                    .call());
+            menuMetrics.recordRepository(after);
+            log.info("Repository maintenance took {} ms: {} loose and {} packed objects in {} packs "
+                            + "before, {} loose and {} packed in {} packs after, {} KiB packed",
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                    count(before, "numberOfLooseObjects"), count(before, "numberOfPackedObjects"),
+                    count(before, "numberOfPackFiles"),
+                    count(after, "numberOfLooseObjects"), count(after, "numberOfPackedObjects"),
+                    count(after, "numberOfPackFiles"), count(after, "sizeOfPackedObjects") / 1024);
+            return after;
         } catch (GitAPIException e) {
-            log.error("Failed to commit and push changes", e);
-            throw new GitOperationException("Failed to commit and push changes: " + e.getMessage(), e);
+            log.error("Failed to maintain repository", e);
+            throw new GitOperationException("Failed to maintain repository: " + e.getMessage(), e);
+        } finally {
+            commitLock.unlock();
+            pushLock.unlock();
         }
     }
 
-    public Path getMenuFilePath() {
-        return Paths.get(
-                gitConfig.getLocal().getCloneDirectory(),
-                gitConfig.getMenu().getFilePath()
-        );
+    private Properties recordStatistics() {
+        try {
+            Properties statistics = git.gc().getStatistics();
+            menuMetrics.recordRepository(statistics);
+            return statistics;
+        } catch (GitAPIException e) {
+            throw new GitOperationException("Failed to read repository statistics: " + e.getMessage(), e);
+        }
+    }
+
+    private static long count(Properties statistics, String key) {
+        return statistics.get(key) instanceof Number number ? number.longValue() : 0;
     }
 
-    public String readMenuFile() {
+    /**
+     * Where the local branch stands against what was last fetched from or
+     * pushed to the remote, without contacting it.
+     */
+    public SyncStatus syncStatus() {
+        checkReady();
+        Repository repository = git.getRepository();
+        try (RevWalk walk = new RevWalk(repository)) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            Ref tracking = repository.exactRef(
+                    Constants.R_REMOTES + "origin/" + gitConfig.getRepository().getBranch());
+            ObjectId remoteHead = tracking == null ? null : tracking.getObjectId();
+            if (head == null) {
+                return new SyncStatus(null, name(remoteHead), 0, 0, null);
+            }
+
+            walk.markStart(walk.parseCommit(head));
+            if (remoteHead != null) {
+                walk.markUninteresting(walk.parseCommit(remoteHead));
+            }
+            int ahead = 0;
+            Instant oldestUnpushed = null;
+            for (RevCommit commit : walk) {
+                oldestUnpushed = commit.getCommitterIdent().getWhenAsInstant();
+                if (++ahead == SYNC_WALK_LIMIT) {
+                    break;
+                }
+            }
+
+            int behind = 0;
+            if (remoteHead != null) {
+                walk.reset();
+                walk.markStart(walk.parseCommit(remoteHead));
+                walk.markUninteresting(walk.parseCommit(head));
+                for (RevCommit ignored : walk) {
+                    if (++behind == SYNC_WALK_LIMIT) {
+                        break;
+                    }
+                }
+            }
+            return new SyncStatus(head.name(), name(remoteHead), ahead, behind, oldestUnpushed);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to read sync status: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Blob ID of a file in the HEAD commit, or null if HEAD doesn't have it.
+     */
+    public String headBlobId(String filePath) {
+        checkReady();
+        Repository repository = git.getRepository();
+        try (RevWalk walk = new RevWalk(repository)) {
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) {
+                return null;
+            }
+            try (TreeWalk treeWalk = TreeWalk.forPath(repository, filePath, walk.parseCommit(head).getTree())) {
+                return treeWalk == null ? null : treeWalk.getObjectId(0).name();
+            }
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to read " + filePath + " at HEAD: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The blob ID git gives to a file with this content.
+     */
+    public static String blobId(String content) {
+        return blobId(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String blobId(byte[] content) {
+        return new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content).name();
+    }
+
+    private static String name(ObjectId id) {
+        return id == null ? null : id.name();
+    }
+
+    public record CommitInfo(String id, String message, String author, Instant time) {
+    }
+
+    /**
+     * @param ahead          local commits not on the remote yet, counted up to a limit
+     * @param behind         remote commits not merged locally, as of the last fetch
+     * @param oldestUnpushed commit time of the oldest local commit not on the remote
+     */
+    public record SyncStatus(String head, String remoteHead, int ahead, int behind, Instant oldestUnpushed) {
+    }
+
+    /**
+     * A leader lease: the commit the lease ref points at, and the instance it
+     * names with the URL other instances reach it on.
+     */
+    public record Lease(ObjectId id, String holder, String url) {
+
+        static Lease parse(ObjectId id, String message) {
+            String holder = null;
+            String url = null;
+            for (String line : message.split("\n")) {
+                if (line.startsWith("holder: ")) {
+                    holder = line.substring("holder: ".length()).trim();
+                } else if (line.startsWith("url: ")) {
+                    url = line.substring("url: ".length()).trim();
+                }
+            }
+            return new Lease(id, holder, url);
+        }
+    }
+
+    public Path resolve(String filePath) {
+        checkReady();
+        return Paths.get(gitConfig.getLocal().getCloneDirectory(), filePath);
+    }
+
+    public boolean exists(String filePath) {
+        return Files.exists(resolve(filePath));
+    }
+
+    public String readMenuFile(String filePath) {
         try {
-            Path menuPath = getMenuFilePath();
+            Path menuPath = resolve(filePath);
             LOGGER.info("menuPath: {}", menuPath.toString());
             if (!Files.exists(menuPath)) {
                 throw new GitOperationException("Menu file not found at: " + menuPath);
             }
-            return Files.readString(menuPath);
+            return menuMetrics.timeGit("read_file", () -> Files.readString(menuPath));
         } catch (IOException e) {
             log.error("Failed to read menu file", e);
             throw new GitOperationException("Failed to read menu file: " + e.getMessage(), e);
         }
     }
 
-    public void writeMenuFile(String content) {
+    /**
+     * Replaces the file atomically so a concurrent reader never sees a half-written menu.
+     */
+    public void writeMenuFile(String filePath, String content) {
+        writeFile(filePath, content.getBytes(StandardCharsets.UTF_8));
+        log.info("Menu file updated at: {}", resolve(filePath));
+    }
+
+    public void writeFile(String filePath, byte[] content) {
+        try {
+            Path path = resolve(filePath);
+            menuMetrics.timeGit("write_file", () -> {
+                Files.createDirectories(path.getParent());
+                Path tempFile = Files.createTempFile(path.getParent(), ".write-", ".tmp");
+                Files.write(tempFile, content);
+                return Files.move(tempFile, path,
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            });
+        } catch (IOException e) {
+            log.error("Failed to write file: {}", filePath, e);
+            throw new GitOperationException("Failed to write file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void deleteFile(String filePath) {
+        try {
+            Files.deleteIfExists(resolve(filePath));
+        } catch (IOException e) {
+            log.error("Failed to delete file: {}", filePath, e);
+            throw new GitOperationException("Failed to delete file " + filePath + ": " + e.getMessage(), e);
+        }
+    }
+
+    public byte[] readFile(String filePath) {
         try {
-            Path menuPath = getMenuFilePath();
-            Files.writeString(menuPath, content);
-            log.info("Menu file updated at: {}", menuPath);
+            Path path = resolve(filePath);
+            return menuMetrics.timeGit("read_file", () -> Files.readAllBytes(path));
         } catch (IOException e) {
-            log.error("Failed to write menu file", e);
-            throw new GitOperationException("Failed to write menu file: " + e.getMessage(), e);
+            log.error("Failed to read file: {}", filePath, e);
+            throw new GitOperationException("Failed to read file " + filePath + ": " + e.getMessage(), e);
         }
     }
 
@@ -0,0 +1,299 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.ImageConfig;
+import com.bapukikutia.menuadmin.model.Dish;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores uploaded dish images in the repository and derives smaller variants for
+ * the menu's srcset.
+ * <p>
+ * The upload itself only validates the image header, writes the original and
+ * commits it. Decoding, resizing and encoding happen on a small worker pool,
+ * which commits the variants and the dish's srcset once they are all written.
+ * Every file name carries a hash of its content, so a URL never changes meaning.
+ */
+@Slf4j
+@Service
+public class ImageService {
+
+    private static final int MAX_DIMENSION = 8000;
+    private static final int HASH_LENGTH = 12;
+
+    private final ImageConfig imageConfig;
+    private final GitService gitService;
+    private final MenuService menuService;
+    private final ThreadPoolExecutor workers;
+
+    public ImageService(ImageConfig imageConfig, GitService gitService, MenuService menuService) {
+        this.imageConfig = imageConfig;
+        this.gitService = gitService;
+        this.menuService = menuService;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                imageConfig.getWorkerThreads(), imageConfig.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageConfig.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public Dish upload(String restaurantId, String categoryId, String dishId, MultipartFile file) {
+        if (MenuDrafts.selected() != null) {
+            throw new IllegalArgumentException("Images can't be uploaded to a draft; upload to the live menu, "
+                    + "then set the dish's image in the draft");
+        }
+        byte[] bytes;
+        try {
+            bytes = file.getBytes();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read uploaded image: " + e.getMessage(), e);
+        }
+        String extension = validate(bytes);
+
+        // Fail before writing anything if the dish doesn't exist or this instance can't commit
+        menuService.getDishById(restaurantId, categoryId, dishId);
+        gitService.checkWritable();
+
+        String imagePath = imageConfig.getDirectory() + "/" + baseName(dishId) + "-" + hash(bytes) + "." + extension;
+        gitService.writeFile(imagePath, bytes);
+        Dish dish = menuService.updateDishImage(restaurantId, categoryId, dishId, imagePath);
+
+        try {
+            workers.execute(() -> generateVariants(restaurantId, categoryId, dishId, imagePath, bytes));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image worker queue full; dish {} keeps its original image only", dishId);
+        }
+        return dish;
+    }
+
+    private void generateVariants(String restaurantId, String categoryId, String dishId,
+                                  String imagePath, byte[] original) {
+        try {
+            List<Integer> widths = imageConfig.getWidths().stream().sorted().toList();
+            Source source = decode(original, widths.get(widths.size() - 1));
+            String variantPrefix = imageConfig.getDirectory() + "/variants/" + baseName(dishId) + "-";
+
+            List<String> variantPaths = new ArrayList<>();
+            List<String> srcsetEntries = new ArrayList<>();
+
+            for (int width : widths) {
+                if (width >= source.width()) {
+                    break;
+                }
+                String variantPath = writeVariant(variantPrefix, width, resize(source.image(), width));
+                variantPaths.add(variantPath);
+                srcsetEntries.add(variantPath + " " + width + "w");
+            }
+
+            if (variantPaths.isEmpty()) {
+                log.info("Image for dish {} is already smaller than every variant width", dishId);
+                return;
+            }
+
+            // The original is the largest candidate
+            srcsetEntries.add(imagePath + " " + source.width() + "w");
+            menuService.updateDishImageVariants(restaurantId, categoryId, dishId, imagePath,
+                    String.join(", ", srcsetEntries), variantPaths);
+        } catch (Exception e) {
+            log.error("Failed to generate image variants for dish {}", dishId, e);
+        }
+    }
+
+    /**
+     * Decodes every n-th pixel, keeping the raster at least twice as wide as the
+     * largest variant, so an 8000px original never needs a full size raster.
+     * Subsampling drops pixels rather than averaging them; the 2x margin leaves
+     * the smoothing to {@link #resize}.
+     */
+    private static Source decode(byte[] bytes, int largestWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Image could not be decoded");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                checkDimensions(width, reader.getHeight(0));
+
+                int step = Math.max(1, width / (2 * largestWidth));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return new Source(toRgb(reader.read(0, param)), width);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private String writeVariant(String prefix, int width, BufferedImage image) throws IOException {
+        byte[] encoded = encode(image);
+        String path = prefix + width + "w-" + hash(encoded) + ".jpg";
+        gitService.writeFile(path, encoded);
+        return path;
+    }
+
+    /**
+     * Reads only the image header and returns the file extension for its format.
+     */
+    private static String validate(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Uploaded file is not a supported image");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                String extension = switch (format) {
+                    case "jpeg", "jpg" -> "jpg";
+                    case "png" -> "png";
+                    default -> throw new IllegalArgumentException("Only JPEG and PNG images are supported");
+                };
+
+                checkDimensions(reader.getWidth(0), reader.getHeight(0));
+                return extension;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Uploaded file is not a valid image: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkDimensions(int width, int height) {
+        if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Image dimensions must not exceed " + MAX_DIMENSION + " pixels");
+        }
+    }
+
+    // JPEG has no alpha channel, so transparent areas are painted white
+    private static BufferedImage toRgb(BufferedImage image) throws IOException {
+        if (image == null) {
+            throw new IOException("Image could not be decoded");
+        }
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    // Halves the image until it is within 2x of the target, which keeps bilinear
+    // scaling from skipping source pixels and producing aliasing
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(imageConfig.getQuality());
+            }
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private static String baseName(String dishId) {
+        return dishId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9-]+", "-");
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Source(BufferedImage image, int width) {
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Image workers did not finish in time; pending variants are dropped");
+            workers.shutdownNow();
+        }
+    }
+}
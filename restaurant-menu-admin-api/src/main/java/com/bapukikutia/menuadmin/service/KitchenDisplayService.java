@@ -0,0 +1,335 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.KitchenConfig;
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Routes placed orders to kitchen stations and streams each station's queue to
+ * its screens.
+ * <p>
+ * Every station keeps its open tickets in a {@link ConcurrentSkipListSet}
+ * ordered by priority and age, so adding, bumping and completing a ticket are
+ * O(log n) and never block other stations. A bump or completion runs inside
+ * {@link ConcurrentHashMap#compute} on the ticket's ID, which makes concurrent
+ * changes to the same ticket take turns without a wider lock.
+ * <p>
+ * Screens receive server-sent events: a {@code snapshot} of the queue when they
+ * connect, then {@code added}, {@code updated} and {@code removed} per ticket.
+ * Events are upserts by ticket ID, so a ticket that shows up in both the
+ * snapshot and a following {@code added} is harmless.
+ * <p>
+ * Bumps and completions are appended to a per-day {@code kitchen-<date>.log}
+ * next to the order log. On startup the queues are rebuilt from today's order
+ * log with that day's bumps and completions applied; tickets for orders placed
+ * on earlier days are not restored.
+ */
+@Slf4j
+@Service
+public class KitchenDisplayService {
+
+    // Same rule as the station field on Category and Dish
+    private static final Pattern STATION = Pattern.compile("[a-z0-9][a-z0-9-]*");
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final KitchenConfig kitchenConfig;
+    private final OrderLog orderLog;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final ZoneId zone;
+
+    private final ConcurrentHashMap<String, Station> stations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, KitchenTicket> ticketsById = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Sends to screens off the order path and in the order the changes happened
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kitchen-display-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public KitchenDisplayService(TenantMenuRegistry tenantMenuRegistry, KitchenConfig kitchenConfig,
+                                 OrderLog orderLog, OrderConfig orderConfig, ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) throws IOException {
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.kitchenConfig = kitchenConfig;
+        this.orderLog = orderLog;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(orderConfig.getDirectory());
+        Files.createDirectories(directory);
+        this.zone = orderConfig.getZone();
+
+        Gauge.builder("kitchen.tickets.open", ticketsById, ConcurrentHashMap::size)
+                .description("Order lines waiting at kitchen stations")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void replayToday() {
+        LocalDate today = LocalDate.now(zone);
+        try (Stream<String> lines = orderLog.lines(today)) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    addTickets(objectMapper.readValue(line, Order.class), false);
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable order log line: {}", e.getOriginalMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to replay today's orders; kitchen queues start empty", e);
+        }
+
+        Path actions = actionsFile(today);
+        if (Files.exists(actions)) {
+            try (Stream<String> lines = Files.lines(actions, StandardCharsets.UTF_8)) {
+                lines.map(line -> line.split(" ", 2))
+                        .filter(parts -> parts.length == 2)
+                        .forEach(parts -> replayAction(parts[0], parts[1]));
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Failed to replay kitchen bumps and completions from {}", actions, e);
+            }
+        }
+        log.info("Rebuilt {} open kitchen tickets from {}", ticketsById.size(), today);
+    }
+
+    private void replayAction(String action, String ticketId) {
+        KitchenTicket current = ticketsById.get(ticketId);
+        if (current == null) {
+            return;
+        }
+        Station station = station(current.restaurantId(), current.station());
+        station.tickets.remove(current);
+        if ("bump".equals(action)) {
+            KitchenTicket bumped = current.bumped();
+            station.tickets.add(bumped);
+            ticketsById.put(ticketId, bumped);
+        } else {
+            ticketsById.remove(ticketId);
+        }
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        addTickets(event.order(), true);
+    }
+
+    private void addTickets(Order order, boolean publish) {
+        List<Order.Line> lines = order.getItems();
+        for (int i = 0; i < lines.size(); i++) {
+            Order.Line line = lines.get(i);
+            String stationName = line.getStation() != null ? line.getStation() : kitchenConfig.getDefaultStation();
+            KitchenTicket ticket = new KitchenTicket(
+                    order.getBillNumber() + "-" + (i + 1), order.getBillNumber(), order.getRestaurantId(),
+                    stationName, line.getDishId(), line.getName(), line.getQuantity(), 0,
+                    order.getPlacedAt(), sequence.incrementAndGet());
+
+            Station station = station(order.getRestaurantId(), stationName);
+            ticketsById.compute(ticket.id(), (key, previous) -> {
+                station.tickets.add(ticket);
+                if (publish) {
+                    publish(station, "added", ticket);
+                }
+                return ticket;
+            });
+        }
+    }
+
+    public Map<String, Integer> getStations(String restaurantId) {
+        String id = tenantMenuRegistry.get(restaurantId).getRestaurantId();
+        Map<String, Integer> openByStation = new TreeMap<>();
+        stations.values().stream()
+                .filter(station -> station.restaurantId.equals(id))
+                .forEach(station -> openByStation.put(station.name, station.tickets.size()));
+        return openByStation;
+    }
+
+    public List<KitchenTicket> getTickets(String restaurantId, String stationName) {
+        String id = tenantMenuRegistry.get(restaurantId).getRestaurantId();
+        Station station = stations.get(key(id, stationName));
+        return station == null ? List.of() : List.copyOf(station.tickets);
+    }
+
+    /**
+     * Moves a ticket ahead of every ticket with its current priority.
+     */
+    public KitchenTicket bump(String restaurantId, String ticketId) {
+        String id = tenantMenuRegistry.get(restaurantId).getRestaurantId();
+        KitchenTicket[] bumped = new KitchenTicket[1];
+        ticketsById.computeIfPresent(ticketId, (key, current) -> {
+            if (!current.restaurantId().equals(id)) {
+                return current;
+            }
+            Station station = station(current.restaurantId(), current.station());
+            bumped[0] = current.bumped();
+            persist("bump", current);
+            station.tickets.remove(current);
+            station.tickets.add(bumped[0]);
+            publish(station, "updated", bumped[0]);
+            return bumped[0];
+        });
+        if (bumped[0] == null) {
+            throw new ResourceNotFoundException("Kitchen ticket not found with ID: " + ticketId);
+        }
+        return bumped[0];
+    }
+
+    public void complete(String restaurantId, String ticketId) {
+        String id = tenantMenuRegistry.get(restaurantId).getRestaurantId();
+        boolean[] completed = new boolean[1];
+        ticketsById.computeIfPresent(ticketId, (key, current) -> {
+            if (!current.restaurantId().equals(id)) {
+                return current;
+            }
+            Station station = station(current.restaurantId(), current.station());
+            persist("complete", current);
+            station.tickets.remove(current);
+            publish(station, "removed", current);
+            completed[0] = true;
+            return null;
+        });
+        if (!completed[0]) {
+            throw new ResourceNotFoundException("Kitchen ticket not found with ID: " + ticketId);
+        }
+    }
+
+    public SseEmitter stream(String restaurantId, String stationName) {
+        if (!STATION.matcher(stationName).matches()) {
+            throw new IllegalArgumentException("Invalid station: " + stationName);
+        }
+        Station station = station(tenantMenuRegistry.get(restaurantId).getRestaurantId(), stationName);
+        SseEmitter emitter = new SseEmitter(kitchenConfig.getStreamTimeout().toMillis());
+        emitter.onCompletion(() -> station.screens.remove(emitter));
+        emitter.onTimeout(() -> station.screens.remove(emitter));
+        emitter.onError(error -> station.screens.remove(emitter));
+
+        // Queued behind pending events, so the screen never sees a change older than its snapshot
+        dispatcher.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().name("snapshot")
+                        .data(List.copyOf(station.tickets), MediaType.APPLICATION_JSON));
+                station.screens.add(emitter);
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.heartbeat:PT15S}")
+    public void heartbeat() {
+        dispatcher.execute(() -> stations.values().forEach(station -> station.screens.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                station.screens.remove(emitter);
+            }
+        })));
+    }
+
+    private void publish(Station station, String eventName, KitchenTicket ticket) {
+        if (station.screens.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> station.screens.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).id(ticket.id())
+                        .data(ticket, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping kitchen screen for {}: {}", station.name, e.getMessage());
+                station.screens.remove(emitter);
+            }
+        }));
+    }
+
+    // Filed under the day the order was placed, which is the day a replay reads
+    private synchronized void persist(String action, KitchenTicket ticket) {
+        Path file = actionsFile(LocalDate.ofInstant(ticket.placedAt(), zone));
+        byte[] line = (action + " " + ticket.id() + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Failed to record {} of kitchen ticket {}; it is undone by a restart", action, ticket.id(), e);
+        }
+    }
+
+    private Path actionsFile(LocalDate date) {
+        return directory.resolve("kitchen-" + date + ".log");
+    }
+
+    private Station station(String restaurantId, String name) {
+        return stations.computeIfAbsent(key(restaurantId, name), key -> new Station(restaurantId, name));
+    }
+
+    private static String key(String restaurantId, String station) {
+        return restaurantId + "/" + station;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        stations.values().forEach(station -> station.screens.forEach(SseEmitter::complete));
+    }
+
+    private static final class Station {
+
+        private final String restaurantId;
+        private final String name;
+        private final ConcurrentSkipListSet<KitchenTicket> tickets =
+                new ConcurrentSkipListSet<>(KitchenTicket.QUEUE_ORDER);
+        private final CopyOnWriteArrayList<SseEmitter> screens = new CopyOnWriteArrayList<>();
+
+        Station(String restaurantId, String name) {
+            this.restaurantId = restaurantId;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * One order line waiting at a kitchen station. Tickets are immutable because
+ * their priority and age are the sort key of the station queue; a bump
+ * replaces the ticket with a copy.
+ */
+public record KitchenTicket(
+        String id,
+        @JsonProperty("bill_number") String billNumber,
+        @JsonProperty("restaurant_id") String restaurantId,
+        String station,
+        @JsonProperty("dish_id") String dishId,
+        String name,
+        int quantity,
+        int priority,
+        @JsonProperty("placed_at") Instant placedAt,
+        @JsonIgnore long sequence) {
+
+    // Highest priority first, then oldest first; the sequence keeps equal tickets distinct
+    static final Comparator<KitchenTicket> QUEUE_ORDER = Comparator
+            .comparingInt(KitchenTicket::priority).reversed()
+            .thenComparing(KitchenTicket::placedAt)
+            .thenComparingLong(KitchenTicket::sequence);
+
+    KitchenTicket bumped() {
+        return new KitchenTicket(id, billNumber, restaurantId, station, dishId, name, quantity,
+                priority + 1, placedAt, sequence);
+    }
+}
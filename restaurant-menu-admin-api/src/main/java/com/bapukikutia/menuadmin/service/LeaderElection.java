@@ -0,0 +1,176 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the one instance, of several sharing the menu repository, that
+ * commits and pushes; the others are followers that serve reads and send
+ * writes to it.
+ * <p>
+ * The leader holds a lease: {@code github.leader.ref} on the remote, pointing
+ * at a commit that names it. Taking or renewing the lease is a push that only
+ * succeeds if the ref is still where this instance last saw it, and every push
+ * of the branch renews it in the same atomic push, so an instance that lost
+ * the lease can't push menu changes either.
+ * <p>
+ * The leader renews every {@code renew-interval}. Followers read the lease at
+ * the same interval and take over once it has stayed the same for
+ * {@code lease-duration} by their own clock; the leader stops writing once
+ * that long has passed since its last renewal began, which is never later.
+ * Followers also bring their clone up to the remote on every check, so their
+ * reads are at most one interval behind.
+ */
+@Slf4j
+@Service
+public class LeaderElection {
+
+    private final GitService gitService;
+    private final GitConfig.Leader config;
+    private final String instanceId;
+    private final long leaseNanos;
+
+    private volatile boolean leading;
+    private volatile long leaderUntilNanos;
+    private volatile GitService.Lease currentLease;
+
+    // Only touched by the heartbeat thread
+    private ObjectId observedLease;
+    private long observedAtNanos;
+
+    public LeaderElection(GitService gitService, GitConfig gitConfig, MeterRegistry meterRegistry) {
+        this.gitService = gitService;
+        this.config = gitConfig.getLeader();
+        this.instanceId = config.getInstanceId() != null ? config.getInstanceId() : defaultInstanceId();
+        this.leaseNanos = config.getLeaseDuration().toNanos();
+
+        if (config.isEnabled()) {
+            if (config.getUrl() == null || config.getUrl().isBlank()) {
+                throw new IllegalStateException("github.leader.url is required with leader election");
+            }
+            if (config.getRenewInterval().compareTo(config.getLeaseDuration()) >= 0) {
+                throw new IllegalStateException("github.leader.renew-interval must be shorter than lease-duration");
+            }
+            log.info("Leader election on as {} ({})", instanceId, config.getUrl());
+        }
+
+        Gauge.builder("menu.leader", this, election -> election.isLeader() ? 1 : 0)
+                .description("1 on the instance that writes to the menu repository")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Whether this instance may write. Always true without leader election.
+     */
+    public boolean isLeader() {
+        return !config.isEnabled() || (leading && System.nanoTime() - leaderUntilNanos < 0);
+    }
+
+    /**
+     * Base URL of the leader to send writes to, or null if there is none this
+     * instance knows of, or it is this instance.
+     */
+    public String leaderUrl() {
+        GitService.Lease lease = currentLease;
+        return leading || lease == null || instanceId.equals(lease.holder()) ? null : lease.url();
+    }
+
+    public String leaderId() {
+        GitService.Lease lease = currentLease;
+        return lease == null ? null : lease.holder();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Scheduled(fixedDelayString = "${github.leader.renew-interval:PT10S}")
+    public void heartbeat() {
+        if (!config.isEnabled() || !gitService.whenReady().isDone()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (leading) {
+                if (gitService.renewLease()) {
+                    leaderUntilNanos = start + leaseNanos;
+                    return;
+                }
+                stepDown("another instance took the lease");
+            }
+
+            // Before taking over too, so a new leader starts from the latest remote state
+            gitService.syncFromRemote();
+
+            GitService.Lease lease = gitService.readLease();
+            currentLease = lease;
+            // If another instance gets there first, its lease is read on the next heartbeat
+            if ((lease == null || expired(lease, start)) && gitService.acquireLease(lease, instanceId, config.getUrl())) {
+                leaderUntilNanos = start + leaseNanos;
+                leading = true;
+                log.info("Became leader{}", lease == null ? "" : " after " + lease.holder() + "'s lease expired");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Leader election heartbeat failed: {}", e.getMessage());
+            if (leading && !isLeader()) {
+                stepDown("the lease could not be renewed in time");
+            }
+        }
+    }
+
+    // A lease expires once it hasn't changed for a lease duration since this instance first saw it
+    private boolean expired(GitService.Lease lease, long now) {
+        if (instanceId.equals(lease.holder())) {
+            // Left by this instance before a restart
+            return true;
+        }
+        if (!lease.id().equals(observedLease)) {
+            observedLease = lease.id();
+            observedAtNanos = now;
+            return false;
+        }
+        return now - observedAtNanos >= leaseNanos;
+    }
+
+    private void stepDown(String reason) {
+        leading = false;
+        gitService.dropLease();
+        log.warn("No longer leader: {}", reason);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (leading) {
+            leading = false;
+            gitService.releaseLease();
+        }
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "instance";
+        }
+        byte[] suffix = new byte[3];
+        ThreadLocalRandom.current().nextBytes(suffix);
+        return host + "-" + HexFormat.of().formatHex(suffix);
+    }
+}
@@ -0,0 +1,99 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * What guests see of one snapshot right now: the view of the current schedule
+ * window, with its prices, and with sold-out dishes marked unavailable.
+ * Neither needs a commit to change; each change builds the view once and
+ * publishes it with a single volatile write, so reads cost nothing extra.
+ */
+final class LiveMenu {
+
+    private final MenuSchedule schedule;
+    private volatile MenuSnapshot current;
+
+    // Guarded by this
+    private MenuSnapshot window;
+    private Map<String, Set<String>> soldOut = Map.of();
+
+    LiveMenu(MenuSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    MenuSchedule schedule() {
+        return schedule;
+    }
+
+    MenuSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Returns false if the view was already showing.
+     */
+    synchronized boolean showWindow(MenuSnapshot view) {
+        if (view == window) {
+            return false;
+        }
+        window = view;
+        refresh();
+        return true;
+    }
+
+    /**
+     * Replaces the sold-out dishes, given as dish IDs by category ID.
+     */
+    synchronized void markSoldOut(Map<String, Set<String>> dishIdsByCategoryId) {
+        soldOut = dishIdsByCategoryId;
+        refresh();
+    }
+
+    private void refresh() {
+        current = soldOut.isEmpty()
+                ? window
+                : MenuSnapshot.view(rewrite(window.menuData(), (category, dish) ->
+                        Boolean.TRUE.equals(dish.getAvailable())
+                                && soldOut.getOrDefault(category.getId(), Set.of()).contains(dish.getId())
+                                ? dish.toBuilder().available(false).build()
+                                : dish), window.priceTable());
+    }
+
+    /**
+     * Copies only what changes: each dish is replaced by what the function
+     * returns for it, and categories where it returned every dish unchanged are
+     * shared with the given menu.
+     */
+    static MenuData rewrite(MenuData menuData, BiFunction<Category, Dish, Dish> rewrite) {
+        List<Category> categories = new ArrayList<>(menuData.getCategories().size());
+        for (Category category : menuData.getCategories()) {
+            List<Dish> dishes = null;
+            for (int i = 0; i < category.getDishes().size(); i++) {
+                Dish dish = category.getDishes().get(i);
+                Dish rewritten = rewrite.apply(category, dish);
+                if (rewritten != dish) {
+                    if (dishes == null) {
+                        dishes = new ArrayList<>(category.getDishes());
+                    }
+                    dishes.set(i, rewritten);
+                }
+            }
+            categories.add(dishes == null ? category : category.toBuilder().dishes(dishes).build());
+        }
+
+        return MenuData.builder()
+                .categories(categories)
+                .pricingRules(menuData.getPricingRules())
+                .holidays(menuData.getHolidays())
+                .extra(menuData.getExtra())
+                .build();
+    }
+}
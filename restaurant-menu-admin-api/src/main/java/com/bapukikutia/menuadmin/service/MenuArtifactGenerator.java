@@ -0,0 +1,18 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.MenuData;
+
+import java.util.List;
+
+/**
+ * Derives further repository files from an outlet's menu. Generators run on
+ * every menu change after the menu itself is applied, and whatever they write
+ * lands in the same commit as the menu JSON.
+ */
+public interface MenuArtifactGenerator {
+
+    /**
+     * Writes the generated files into the clone and returns their repository paths.
+     */
+    List<String> generate(TenantMenu tenant, MenuData menuData);
+}
@@ -0,0 +1,37 @@
+package com.bapukikutia.menuadmin.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reports outlets whose in-memory menu differs from their menu file at HEAD,
+ * i.e. an instance that would serve an outdated menu. Part of the readiness
+ * group.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuCacheHealthIndicator implements HealthIndicator {
+
+    private final GitService gitService;
+    private final TenantMenuRegistry tenantMenuRegistry;
+
+    @Override
+    public Health health() {
+        CompletableFuture<Void> ready = gitService.whenReady();
+        if (!ready.isDone() || ready.isCompletedExceptionally()) {
+            // Nothing is loaded before the clone is; the git indicator reports why
+            return Health.unknown().build();
+        }
+
+        List<String> stale = tenantMenuRegistry.staleTenants();
+        if (stale.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("staleOutlets", stale).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.dto.MenuChange;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Differences between two menus by structure, matched the way
+ * {@link MenuMerger} matches them: objects field by field, lists of objects
+ * with an {@code id} element by element. A dish added or removed is one
+ * change, not one per field.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuDiff {
+
+    private final ObjectMapper objectMapper;
+
+    public List<MenuChange> diff(MenuData before, MenuData after) {
+        List<MenuChange> changes = new ArrayList<>();
+        diff("", objectMapper.valueToTree(before), objectMapper.valueToTree(after), changes);
+        return changes;
+    }
+
+    private void diff(String path, JsonNode before, JsonNode after, List<MenuChange> changes) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before == null || after == null) {
+            changes.add(change(path, before == null ? MenuChange.Type.ADDED : MenuChange.Type.REMOVED, before, after));
+        } else if (before.isObject() && after.isObject()) {
+            Set<String> names = new LinkedHashSet<>();
+            before.fieldNames().forEachRemaining(names::add);
+            after.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                diff(path.isEmpty() ? name : path + "." + name, before.get(name), after.get(name), changes);
+            }
+        } else if (MenuMerger.keyed(before) && MenuMerger.keyed(after)) {
+            diffKeyed(path, before, after, changes);
+        } else {
+            changes.add(change(path, MenuChange.Type.CHANGED, before, after));
+        }
+    }
+
+    private void diffKeyed(String path, JsonNode before, JsonNode after, List<MenuChange> changes) {
+        Map<String, JsonNode> beforeById = MenuMerger.byId(before);
+        Map<String, JsonNode> afterById = MenuMerger.byId(after);
+
+        List<String> beforeOrder = new ArrayList<>(beforeById.keySet());
+        beforeOrder.retainAll(afterById.keySet());
+        List<String> afterOrder = new ArrayList<>(afterById.keySet());
+        afterOrder.retainAll(beforeById.keySet());
+        if (!beforeOrder.equals(afterOrder)) {
+            changes.add(change(path, MenuChange.Type.REORDERED, objectMapper.valueToTree(beforeOrder),
+                    objectMapper.valueToTree(afterOrder)));
+        }
+
+        Set<String> ids = new LinkedHashSet<>(afterById.keySet());
+        ids.addAll(beforeById.keySet());
+        for (String id : ids) {
+            diff(path + "[" + id + "]", beforeById.get(id), afterById.get(id), changes);
+        }
+    }
+
+    private static MenuChange change(String path, MenuChange.Type type, JsonNode before, JsonNode after) {
+        return MenuChange.builder()
+                .path(path.isEmpty() ? "$" : path)
+                .type(type)
+                .before(before)
+                .after(after)
+                .build();
+    }
+}
@@ -0,0 +1,360 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.DraftConfig;
+import com.bapukikutia.menuadmin.dto.DraftPreview;
+import com.bapukikutia.menuadmin.dto.DraftSummary;
+import com.bapukikutia.menuadmin.dto.MenuChange;
+import com.bapukikutia.menuadmin.exception.GitOperationException;
+import com.bapukikutia.menuadmin.exception.MergeConflictException;
+import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Named drafts of an outlet's menu, where edits are staged before they go
+ * live together.
+ * <p>
+ * A draft is a ref on the remote, outside the deployed branch, that starts
+ * at the branch and gets one commit per staged edit. Each of those commits
+ * changes only the menu file, and is made without touching the clone's
+ * index or working tree. Drafts are cached in memory once read.
+ * <p>
+ * Publishing merges the draft into the live menu the way remote edits are
+ * merged, so changes published since the draft was started are kept, and
+ * commits the result once. The page and shards are regenerated once for it.
+ */
+@Slf4j
+@Service
+public class MenuDrafts {
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9]+([._-][a-z0-9]+)*");
+    private static final int MAX_NAME_LENGTH = 64;
+    // Would be routed to the outlet endpoints of the same name
+    private static final Set<String> RESERVED_NAMES = Set.of(
+            "menu", "categories", "sales", "kitchen", "stock", "pricing-rules", "ratings", "drafts");
+
+    // Draft the current request reads and edits, see MenuDraftFilter
+    private static final ThreadLocal<String> SELECTED = new ThreadLocal<>();
+
+    private final GitService gitService;
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final MenuMerger menuMerger;
+    private final MenuDiff menuDiff;
+    private final ObjectMapper objectMapper;
+    private final DraftConfig config;
+
+    // By ref
+    private final ConcurrentHashMap<String, Draft> drafts = new ConcurrentHashMap<>();
+
+    public MenuDrafts(GitService gitService, TenantMenuRegistry tenantMenuRegistry, MenuMerger menuMerger,
+                      MenuDiff menuDiff, ObjectMapper objectMapper, DraftConfig config) {
+        this.gitService = gitService;
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.menuMerger = menuMerger;
+        this.menuDiff = menuDiff;
+        this.objectMapper = objectMapper;
+        this.config = config;
+    }
+
+    public static String selected() {
+        return SELECTED.get();
+    }
+
+    public static void select(String name) {
+        SELECTED.set(name);
+    }
+
+    public static void clearSelection() {
+        SELECTED.remove();
+    }
+
+    public List<DraftSummary> list(String restaurantId) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        String prefix = refPrefix(tenant);
+        Map<String, ObjectId> refs = gitService.fetchRefs(prefix);
+        // Drop drafts published or discarded elsewhere, and reload those changed elsewhere
+        drafts.keySet().removeIf(ref -> ref.startsWith(prefix) && !refs.containsKey(ref));
+        drafts.entrySet().removeIf(entry -> refs.containsKey(entry.getKey())
+                && !refs.get(entry.getKey()).equals(entry.getValue().state.tip()));
+
+        ObjectId head = gitService.head();
+        return refs.entrySet().stream()
+                .map(entry -> drafts.computeIfAbsent(entry.getKey(),
+                        ref -> load(tenant, ref.substring(prefix.length()), ref, entry.getValue())))
+                .map(draft -> summary(draft, head))
+                .toList();
+    }
+
+    /**
+     * Starts a draft at the live menu. Without a name, the draft is named
+     * after the caller, as their own.
+     */
+    public DraftSummary create(String restaurantId, String name) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        String draftName = name == null ? currentUser() : name;
+        validateName(draftName);
+        String ref = refPrefix(tenant) + draftName;
+
+        ObjectId head = gitService.head();
+        if (!gitService.updateRef(ref, ObjectId.zeroId(), head)) {
+            throw new IllegalArgumentException("Draft " + draftName + " already exists");
+        }
+        Draft draft = load(tenant, draftName, ref, head);
+        drafts.put(ref, draft);
+        log.info("Started draft {} of {} at {}", draftName, tenant.getRestaurantId(), head.name());
+        return summary(draft, head);
+    }
+
+    public DraftSummary get(String restaurantId, String name) {
+        return summary(draft(tenantMenuRegistry.get(restaurantId), name), gitService.head());
+    }
+
+    public MenuData getMenuData(String restaurantId, String name) {
+        return snapshot(tenantMenuRegistry.get(restaurantId), name).menuData();
+    }
+
+    /**
+     * The draft's menu with its lookup indexes, for reads made with the draft selected.
+     */
+    public MenuSnapshot snapshot(TenantMenu tenant, String name) {
+        return draft(tenant, name).state.snapshot();
+    }
+
+    /**
+     * Applies an edit to a private copy of the draft's menu and commits it to
+     * the draft. Edits to one draft are serialized.
+     */
+    public <T> T edit(TenantMenu tenant, String name, Function<MenuData, Edit<T>> change) {
+        Draft draft = draft(tenant, name);
+        draft.lock.lock();
+        try {
+            State state = draft.state;
+            MenuData menuData = parse(state.json());
+            Edit<T> edit = change.apply(menuData);
+
+            byte[] json = serialize(menuData);
+            if (Arrays.equals(json, state.json())) {
+                return edit.result();
+            }
+            ObjectId tip = gitService.commitToRef(draft.ref, state.tip(), state.tip(), tenant.getFilePath(), json,
+                    edit.message(), currentUser());
+            if (tip == null) {
+                throw changedElsewhere(draft);
+            }
+            draft.state = new State(tip, json, MenuSnapshot.of(menuData, json.length));
+            log.info("Staged in draft {} of {}: {}", name, tenant.getRestaurantId(), edit.message());
+            return edit.result();
+        } finally {
+            draft.lock.unlock();
+        }
+    }
+
+    /**
+     * What publishing the draft would change on the live menu, or the
+     * conflicts that keep it from being published.
+     */
+    public DraftPreview preview(String restaurantId, String name) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        Draft draft = draft(tenant, name);
+        State state = draft.state;
+        ObjectId head = gitService.head();
+        byte[] live = gitService.readFileAt(head, tenant.getFilePath());
+        MenuData liveMenu = parse(live);
+        try {
+            return DraftPreview.builder()
+                    .name(name)
+                    .changes(menuDiff.diff(liveMenu, merge(tenant, state, head, live)))
+                    .build();
+        } catch (MergeConflictException e) {
+            return DraftPreview.builder()
+                    .name(name)
+                    .changes(menuDiff.diff(liveMenu, state.snapshot().menuData()))
+                    .conflicts(e.getConflicts())
+                    .build();
+        }
+    }
+
+    /**
+     * Publishes the draft with {@code commit}, which is given a function that
+     * merges the draft into the live menu it is passed, and then deletes the
+     * draft. No edits can be staged in the meantime.
+     */
+    public <T> T publish(TenantMenu tenant, String name, Function<Function<MenuData, Merged>, T> commit) {
+        Draft draft = draft(tenant, name);
+        draft.lock.lock();
+        try {
+            State state = draft.state;
+            T result = commit.apply(live -> {
+                ObjectId head = gitService.head();
+                MenuData merged = merge(tenant, state, head, serialize(live));
+                List<GitService.CommitInfo> edits = gitService.log(state.tip(), head);
+                StringBuilder message = new StringBuilder("Publish draft " + name + " (" + edits.size()
+                        + (edits.size() == 1 ? " edit)" : " edits)"));
+                if (!edits.isEmpty()) {
+                    message.append("\n");
+                    for (GitService.CommitInfo edit : edits.reversed()) {
+                        message.append("\n- ").append(edit.message());
+                    }
+                }
+                return new Merged(merged, menuDiff.diff(live, merged), message.toString());
+            });
+
+            drafts.remove(draft.ref);
+            if (!gitService.deleteRef(draft.ref, state.tip())) {
+                log.warn("Draft {} of {} was changed elsewhere while it was published; keeping it",
+                        name, tenant.getRestaurantId());
+            }
+            log.info("Published draft {} of {}", name, tenant.getRestaurantId());
+            return result;
+        } finally {
+            draft.lock.unlock();
+        }
+    }
+
+    public void discard(String restaurantId, String name) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        Draft draft = draft(tenant, name);
+        draft.lock.lock();
+        try {
+            if (!gitService.deleteRef(draft.ref, draft.state.tip())) {
+                throw changedElsewhere(draft);
+            }
+            drafts.remove(draft.ref);
+            log.info("Discarded draft {} of {}", name, tenant.getRestaurantId());
+        } finally {
+            draft.lock.unlock();
+        }
+    }
+
+    // Three-way, from where the draft and the branch last met
+    private MenuData merge(TenantMenu tenant, State state, ObjectId head, byte[] live) {
+        ObjectId base = gitService.mergeBase(state.tip(), head);
+        byte[] baseJson = base == null ? null : gitService.readFileAt(base, tenant.getFilePath());
+        try {
+            return parse(menuMerger.merge(tenant.getFilePath(), baseJson, state.json(), live));
+        } catch (MergeConflictException e) {
+            throw new MergeConflictException("Draft conflicts with changes made to the live menu since it was started",
+                    e.getConflicts());
+        }
+    }
+
+    private Draft draft(TenantMenu tenant, String name) {
+        validateName(name);
+        String ref = refPrefix(tenant) + name;
+        Draft draft = drafts.get(ref);
+        if (draft != null) {
+            return draft;
+        }
+        // Started on another instance, or before a restart
+        ObjectId tip = gitService.fetchRefs(refPrefix(tenant)).get(ref);
+        if (tip == null) {
+            throw new ResourceNotFoundException("Draft not found: " + name);
+        }
+        return drafts.computeIfAbsent(ref, key -> load(tenant, name, ref, tip));
+    }
+
+    private Draft load(TenantMenu tenant, String name, String ref, ObjectId tip) {
+        byte[] json = gitService.readFileAt(tip, tenant.getFilePath());
+        if (json == null) {
+            throw new GitOperationException("Draft " + name + " has no " + tenant.getFilePath());
+        }
+        return new Draft(ref, tenant.getRestaurantId(), name, new State(tip, json, MenuSnapshot.of(parse(json), json.length)));
+    }
+
+    private DraftSummary summary(Draft draft, ObjectId head) {
+        State state = draft.state;
+        return DraftSummary.builder()
+                .name(draft.name)
+                .restaurantId(draft.restaurantId)
+                .ref(draft.ref)
+                .head(state.tip().name())
+                .edits(gitService.log(state.tip(), head).stream()
+                        .map(commit -> new DraftSummary.Edit(commit.id(), commit.message(), commit.author(),
+                                commit.time()))
+                        .toList())
+                .build();
+    }
+
+    private MergeConflictException changedElsewhere(Draft draft) {
+        drafts.remove(draft.ref);
+        return new MergeConflictException("Draft " + draft.name + " was changed on another instance; reload it",
+                Map.of(draft.ref, "moved on the remote"));
+    }
+
+    private String refPrefix(TenantMenu tenant) {
+        return config.getRefPrefix() + tenant.getRestaurantId() + "/";
+    }
+
+    private static void validateName(String name) {
+        if (name.length() > MAX_NAME_LENGTH || !NAME.matcher(name).matches() || RESERVED_NAMES.contains(name)) {
+            throw new IllegalArgumentException("Invalid draft name: " + name);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "menu-admin" : authentication.getName();
+    }
+
+    private MenuData parse(byte[] json) {
+        try {
+            return objectMapper.readValue(json, MenuData.class);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to parse draft menu: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] serialize(MenuData menuData) {
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(menuData);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to serialize draft menu: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * An edit's result and the message of its commit to the draft.
+     */
+    public record Edit<T>(T result, String message) {
+    }
+
+    /**
+     * The draft merged into the live menu, what that changes and the commit message.
+     */
+    public record Merged(MenuData menuData, List<MenuChange> changes, String message) {
+    }
+
+    private record State(ObjectId tip, byte[] json, MenuSnapshot snapshot) {
+    }
+
+    private static final class Draft {
+
+        private final String ref;
+        private final String restaurantId;
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile State state;
+
+        Draft(String ref, String restaurantId, String name, State state) {
+            this.ref = ref;
+            this.restaurantId = restaurantId;
+            this.name = name;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.exception.MergeConflictException;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Three-way merge of menu files by structure rather than by line.
+ * <p>
+ * Objects are merged field by field and lists of objects with an {@code id}
+ * (categories, dishes, pricing rules) element by element, matched by ID, so
+ * a price changed on GitHub and an availability toggled here combine even
+ * in the same dish. Other lists, such as tags, are single values. Only a
+ * value changed differently on both sides, or an element deleted on one side
+ * and changed on the other, is a conflict.
+ */
+@Component
+public class MenuMerger implements MergeResolver {
+
+    private final ObjectMapper objectMapper;
+    private final Pattern menuFiles;
+
+    public MenuMerger(ObjectMapper objectMapper, GitConfig gitConfig) {
+        this.objectMapper = objectMapper;
+        this.menuFiles = Pattern.compile(Pattern.quote(gitConfig.getMenu().getFilePath()) + "|"
+                + Pattern.quote(gitConfig.getMenu().getOutletFilePath()).replace("{restaurantId}", "\\E[^/]+\\Q"));
+    }
+
+    @Override
+    public boolean handles(String path) {
+        return menuFiles.matcher(path).matches();
+    }
+
+    @Override
+    public byte[] merge(String path, byte[] base, byte[] ours, byte[] theirs) {
+        try {
+            Map<String, String> conflicts = new LinkedHashMap<>();
+            JsonNode merged = merge("", base == null ? null : objectMapper.readTree(base),
+                    objectMapper.readTree(ours), objectMapper.readTree(theirs), conflicts);
+            if (!conflicts.isEmpty()) {
+                throw new MergeConflictException("Changes to " + path + " conflict with changes on the remote",
+                        conflicts);
+            }
+            // Round-trip through the model so the file is formatted as every other write
+            MenuData menuData = objectMapper.treeToValue(merged, MenuData.class);
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(menuData);
+        } catch (IOException e) {
+            throw new MergeConflictException("Can't merge " + path + ": " + e.getMessage(),
+                    Map.of(path, "not a readable menu"));
+        }
+    }
+
+    private JsonNode merge(String path, JsonNode base, JsonNode ours, JsonNode theirs, Map<String, String> conflicts) {
+        if (Objects.equals(ours, theirs)) {
+            return ours;
+        }
+        if (Objects.equals(base, ours)) {
+            return theirs;
+        }
+        if (Objects.equals(base, theirs)) {
+            return ours;
+        }
+        if (ours != null && theirs != null && ours.isObject() && theirs.isObject()) {
+            return mergeObjects(path, base != null && base.isObject() ? base : null, ours, theirs, conflicts);
+        }
+        if (keyed(ours) && keyed(theirs) && (base == null || keyed(base))) {
+            return mergeKeyed(path, base, ours, theirs, conflicts);
+        }
+
+        conflicts.put(path.isEmpty() ? "$" : path, ours == null ? "deleted here, changed on the remote"
+                : theirs == null ? "changed here, deleted on the remote"
+                : "changed both here and on the remote");
+        return ours;
+    }
+
+    private ObjectNode mergeObjects(String path, JsonNode base, JsonNode ours, JsonNode theirs,
+                                    Map<String, String> conflicts) {
+        Set<String> names = new LinkedHashSet<>();
+        ours.fieldNames().forEachRemaining(names::add);
+        theirs.fieldNames().forEachRemaining(names::add);
+
+        ObjectNode merged = objectMapper.createObjectNode();
+        for (String name : names) {
+            JsonNode value = merge(path.isEmpty() ? name : path + "." + name,
+                    base == null ? null : base.get(name), ours.get(name), theirs.get(name), conflicts);
+            if (value != null) {
+                merged.set(name, value);
+            }
+        }
+        return merged;
+    }
+
+    private ArrayNode mergeKeyed(String path, JsonNode base, JsonNode ours, JsonNode theirs,
+                                 Map<String, String> conflicts) {
+        Map<String, JsonNode> baseById = byId(base);
+        Map<String, JsonNode> oursById = byId(ours);
+        Map<String, JsonNode> theirsById = byId(theirs);
+
+        // Keep the order of the side that reordered, falling back to ours if both did
+        Set<String> order = new LinkedHashSet<>(reordered(baseById, oursById) || !reordered(baseById, theirsById)
+                ? oursById.keySet() : theirsById.keySet());
+        order.addAll(oursById.keySet());
+        order.addAll(theirsById.keySet());
+
+        ArrayNode merged = objectMapper.createArrayNode();
+        for (String id : order) {
+            JsonNode element = merge(path + "[" + id + "]", baseById.get(id), oursById.get(id), theirsById.get(id),
+                    conflicts);
+            if (element != null) {
+                merged.add(element);
+            }
+        }
+        return merged;
+    }
+
+    static boolean keyed(JsonNode node) {
+        if (node == null || !node.isArray()) {
+            return false;
+        }
+        for (JsonNode element : node) {
+            if (!element.isObject() || !element.path("id").isTextual()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Map<String, JsonNode> byId(JsonNode array) {
+        Map<String, JsonNode> byId = new LinkedHashMap<>();
+        if (array != null) {
+            for (Iterator<JsonNode> elements = array.elements(); elements.hasNext(); ) {
+                JsonNode element = elements.next();
+                byId.putIfAbsent(element.get("id").asText(), element);
+            }
+        }
+        return byId;
+    }
+
+    private static boolean reordered(Map<String, JsonNode> base, Map<String, JsonNode> side) {
+        List<String> baseOrder = new ArrayList<>(base.keySet());
+        baseOrder.retainAll(side.keySet());
+        List<String> sideOrder = new ArrayList<>(side.keySet());
+        sideOrder.retainAll(base.keySet());
+        return !baseOrder.equals(sideOrder);
+    }
+}
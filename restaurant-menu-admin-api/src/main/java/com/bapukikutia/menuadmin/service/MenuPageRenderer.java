@@ -0,0 +1,194 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.PrerenderConfig;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the category nav and dish cards of the default outlet into its public
+ * page, so the menu is in the HTML on first paint instead of being built by
+ * script.js after menu-data.json has been fetched.
+ * <p>
+ * Each fragment replaces the content between a pair of marker comments in the
+ * page; everything outside the markers is left as it is. The loading overlay is
+ * inside its own pair of markers and is removed once the menu is rendered.
+ */
+@Slf4j
+@Component
+public class MenuPageRenderer implements MenuArtifactGenerator {
+
+    private static final String NAV_REGION = "menu:nav";
+    private static final String CATEGORIES_REGION = "menu:categories";
+    private static final String LOADING_REGION = "menu:loading";
+
+    // Keep in sync with DISH_IMAGE_SIZES in static/js/script.js
+    private static final String IMAGE_SIZES = "(max-width: 640px) 100vw, 400px";
+
+    private final PrerenderConfig prerenderConfig;
+    private final GitService gitService;
+    private final MenuMetrics menuMetrics;
+    private final DishRatings dishRatings;
+
+    // Compiled once; templates are immutable and safe to share between threads
+    private final Template navTemplate;
+    private final Template categoriesTemplate;
+
+    public MenuPageRenderer(PrerenderConfig prerenderConfig, GitService gitService, MenuMetrics menuMetrics,
+                            DishRatings dishRatings) {
+        this.prerenderConfig = prerenderConfig;
+        this.gitService = gitService;
+        this.menuMetrics = menuMetrics;
+        this.dishRatings = dishRatings;
+
+        Mustache.Compiler compiler = Mustache.compiler()
+                .escapeHTML(true)
+                .emptyStringIsFalse(true)
+                .nullValue("");
+        this.navTemplate = compile(compiler, "templates/menu/category-nav.mustache");
+        this.categoriesTemplate = compile(compiler, "templates/menu/menu-categories.mustache");
+    }
+
+    @Override
+    public List<String> generate(TenantMenu tenant, MenuData menuData) {
+        if (!prerenderConfig.isEnabled()
+                || !TenantMenuRegistry.DEFAULT_RESTAURANT_ID.equals(tenant.getRestaurantId())
+                || !gitService.exists(prerenderConfig.getPage())) {
+            return List.of();
+        }
+
+        String page = new String(gitService.readFile(prerenderConfig.getPage()), StandardCharsets.UTF_8);
+        String rendered = menuMetrics.timeRender("page", () -> render(page, tenant.getRestaurantId(), menuData));
+        if (rendered == null) {
+            log.warn("{} has no menu markers; skipping pre-rendering", prerenderConfig.getPage());
+            return List.of();
+        }
+        if (rendered.equals(page)) {
+            return List.of();
+        }
+
+        gitService.writeFile(prerenderConfig.getPage(), rendered.getBytes(StandardCharsets.UTF_8));
+        return List.of(prerenderConfig.getPage());
+    }
+
+    /**
+     * Returns the page with its menu regions replaced, or null if it has none.
+     */
+    private String render(String page, String restaurantId, MenuData menuData) {
+        Map<String, Object> model = Map.of("categories", categoryViews(restaurantId, menuData));
+
+        String rendered = replaceRegion(page, NAV_REGION, navTemplate.execute(model));
+        if (rendered == null) {
+            return null;
+        }
+        rendered = replaceRegion(rendered, CATEGORIES_REGION, categoriesTemplate.execute(model));
+        if (rendered == null) {
+            return null;
+        }
+
+        String withoutLoading = replaceRegion(rendered, LOADING_REGION, "");
+        return withoutLoading != null ? withoutLoading : rendered;
+    }
+
+    // Same ordering and filtering as renderMenuCategories in script.js
+    private List<CategoryView> categoryViews(String restaurantId, MenuData menuData) {
+        List<CategoryView> categories = new ArrayList<>();
+        int eagerImages = prerenderConfig.getEagerImages();
+
+        List<Category> ordered = menuData.getCategories().stream()
+                .sorted(Comparator.comparing(Category::getDisplayOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (Category category : ordered) {
+            List<DishView> dishes = new ArrayList<>();
+            for (Dish dish : category.getDishes()) {
+                if (Boolean.TRUE.equals(dish.getAvailable())) {
+                    dishes.add(DishView.of(dish, eagerImages-- > 0,
+                            dishRatings.rating(restaurantId, category.getId(), dish).rating()));
+                }
+            }
+            if (!dishes.isEmpty()) {
+                categories.add(new CategoryView(category.getId(), category.getName(),
+                        category.getName().split("\\(")[0].trim(), dishes));
+            }
+        }
+        return categories;
+    }
+
+    private static String replaceRegion(String page, String region, String content) {
+        String start = "<!-- " + region + ":start -->";
+        String end = "<!-- " + region + ":end -->";
+
+        int startIndex = page.indexOf(start);
+        int endIndex = page.indexOf(end);
+        if (startIndex < 0 || endIndex < startIndex) {
+            return null;
+        }
+
+        // The end marker keeps the indentation it already has
+        int endLineStart = page.lastIndexOf('\n', endIndex) + 1;
+        String indent = endLineStart > startIndex ? page.substring(endLineStart, endIndex) : "";
+        if (!indent.isBlank()) {
+            indent = "";
+        }
+
+        return page.substring(0, startIndex + start.length()) + "\n" + content + indent + page.substring(endIndex);
+    }
+
+    private static Template compile(Mustache.Compiler compiler, String path) {
+        try (Reader reader = new InputStreamReader(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8)) {
+            return compiler.compile(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load template " + path, e);
+        }
+    }
+
+    record CategoryView(String id, String name, String navLabel, List<DishView> dishes) {
+    }
+
+    record DishView(String id, String name, Integer price, String image, String altText,
+                    String srcset, String sizes, String loading,
+                    String ratingClass, String ratingText) {
+
+        static DishView of(Dish dish, boolean eager, Double rating) {
+            String altText = dish.getAltText() != null && !dish.getAltText().isEmpty()
+                    ? dish.getAltText() : dish.getName();
+            return new DishView(dish.getId(), dish.getName(), dish.getPrice(), dish.getImage(), altText,
+                    dish.getSrcset(), IMAGE_SIZES, eager ? "eager" : "lazy",
+                    ratingClass(rating), ratingText(rating));
+        }
+
+        // Same thresholds as renderMenuCategories in script.js
+        private static String ratingClass(Double rating) {
+            if (rating != null && rating >= 4.5) {
+                return "rating-high";
+            }
+            return rating != null && rating >= 4.0 ? "rating-medium" : "rating-low";
+        }
+
+        // Printed as JavaScript prints a number, e.g. 4 rather than 4.0
+        private static String ratingText(Double rating) {
+            if (rating == null || rating == 0) {
+                return "-";
+            }
+            return BigDecimal.valueOf(rating).stripTrailingZeros().toPlainString();
+        }
+    }
+}
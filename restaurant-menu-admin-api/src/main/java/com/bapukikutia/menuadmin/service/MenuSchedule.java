@@ -0,0 +1,259 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.model.PricingRule;
+import com.bapukikutia.menuadmin.model.Schedule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * The schedules and pricing rules of one menu snapshot, compiled once when it
+ * is loaded.
+ * <p>
+ * A window is the time between two consecutive start or end times of any
+ * schedule, or midnight. Within a window the same rules are active, so the
+ * view for a window is keyed by the set of active rules and built only once;
+ * most days share the few views a menu actually has. Each view carries its
+ * window's {@link PriceTable}, so pricing never walks the rules.
+ * {@link MenuScheduler} shows the next view on the snapshot's
+ * {@link LiveMenu} at each boundary.
+ */
+final class MenuSchedule {
+
+    private final MenuData menuData;
+    private final List<Schedule> rules;
+    private final Map<Category, Integer> categoryRules = new IdentityHashMap<>();
+    private final Map<Dish, Integer> dishRules = new IdentityHashMap<>();
+    private final List<PricingRule> pricingRules;
+    // Window rule of each pricing rule, null for rules without a schedule
+    private final List<Integer> pricingRuleWindows = new ArrayList<>();
+    private final int[] minItems;
+    private final Map<String, Map<String, Integer>> ordinals = new HashMap<>();
+    private final Set<LocalDate> holidays;
+    private final NavigableSet<LocalTime> boundaries = new TreeSet<>();
+
+    private final ConcurrentHashMap<BitSet, MenuSnapshot> views = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private ScheduledFuture<?> timer;
+    private boolean stopped;
+
+    private MenuSchedule(MenuData menuData) {
+        this.menuData = menuData;
+        this.rules = new ArrayList<>();
+        this.holidays = new HashSet<>(menuData.getHolidays() == null ? List.of() : menuData.getHolidays());
+        this.pricingRules = menuData.getPricingRules() == null ? List.of() : menuData.getPricingRules();
+        boundaries.add(LocalTime.MIDNIGHT);
+
+        int ordinal = 0;
+        for (Category category : menuData.getCategories()) {
+            if (category.getSchedule() != null) {
+                categoryRules.put(category, add(category.getSchedule()));
+            }
+            Map<String, Integer> dishOrdinals = ordinals.computeIfAbsent(category.getId(), id -> new HashMap<>());
+            for (Dish dish : category.getDishes()) {
+                if (dish.getSchedule() != null) {
+                    dishRules.put(dish, add(dish.getSchedule()));
+                }
+                dishOrdinals.putIfAbsent(dish.getId(), ordinal++);
+            }
+        }
+
+        TreeSet<Integer> tiers = new TreeSet<>(List.of(1));
+        for (PricingRule rule : pricingRules) {
+            pricingRuleWindows.add(rule.getSchedule() == null ? null : add(rule.getSchedule()));
+            if (rule.getMinItems() != null) {
+                tiers.add(rule.getMinItems());
+            }
+        }
+        this.minItems = tiers.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns null when nothing on the menu has a schedule and there are no
+     * pricing rules.
+     */
+    static MenuSchedule compile(MenuData menuData) {
+        MenuSchedule schedule = new MenuSchedule(menuData);
+        return schedule.rules.isEmpty() && schedule.pricingRules.isEmpty() ? null : schedule;
+    }
+
+    private int add(Schedule schedule) {
+        for (Schedule.Hours hours : hoursOf(schedule)) {
+            boundaries.add(hours.getFrom());
+            boundaries.add(hours.getUntil());
+        }
+        rules.add(schedule);
+        return rules.size() - 1;
+    }
+
+    NavigableSet<LocalTime> boundaries() {
+        return boundaries;
+    }
+
+    /**
+     * The view for the window that contains the given local time.
+     */
+    MenuSnapshot viewAt(LocalDateTime time) {
+        return views.computeIfAbsent(activeAt(time), this::buildView);
+    }
+
+    int viewCount() {
+        return views.size();
+    }
+
+    /**
+     * The first window boundary after the given time.
+     */
+    ZonedDateTime nextBoundary(ZonedDateTime now) {
+        LocalTime next = boundaries.higher(now.toLocalTime());
+        LocalDate date = now.toLocalDate();
+        if (next == null) {
+            next = LocalTime.MIDNIGHT;
+            date = date.plusDays(1);
+        }
+        return date.atTime(next).atZone(now.getZone());
+    }
+
+    synchronized boolean arm(ScheduledFuture<?> next) {
+        if (stopped) {
+            next.cancel(false);
+            return false;
+        }
+        timer = next;
+        return true;
+    }
+
+    synchronized void stop() {
+        stopped = true;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+    }
+
+    synchronized boolean isStopped() {
+        return stopped;
+    }
+
+    private BitSet activeAt(LocalDateTime time) {
+        BitSet active = new BitSet(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            if (covers(rules.get(i), time)) {
+                active.set(i);
+            }
+        }
+        return active;
+    }
+
+    private boolean covers(Schedule schedule, LocalDateTime time) {
+        LocalDate date = time.toLocalDate();
+        List<Schedule.Hours> hours = hoursOf(schedule);
+        if (hours.isEmpty()) {
+            return runsOn(schedule, date);
+        }
+        LocalTime clock = time.toLocalTime();
+        for (Schedule.Hours range : hours) {
+            LocalTime from = range.getFrom();
+            LocalTime until = range.getUntil();
+            if (from.isBefore(until)) {
+                if (!clock.isBefore(from) && clock.isBefore(until) && runsOn(schedule, date)) {
+                    return true;
+                }
+            } else if (!clock.isBefore(from) ? runsOn(schedule, date)
+                    // Past midnight the window still belongs to the day it opened on
+                    : clock.isBefore(until) && runsOn(schedule, date.minusDays(1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean runsOn(Schedule schedule, LocalDate date) {
+        if (schedule.getHolidays() != null && holidays.contains(date)) {
+            return schedule.getHolidays();
+        }
+        return schedule.getDays() == null || schedule.getDays().isEmpty()
+                || schedule.getDays().contains(date.getDayOfWeek());
+    }
+
+    private static List<Schedule.Hours> hoursOf(Schedule schedule) {
+        return schedule.getHours() == null ? List.of() : schedule.getHours();
+    }
+
+    private MenuSnapshot buildView(BitSet active) {
+        int[][] prices = new int[minItems.length][menuData.getCategories().stream()
+                .mapToInt(category -> category.getDishes().size()).sum()];
+
+        MenuData view = LiveMenu.rewrite(menuData, (category, dish) -> {
+            int ordinal = ordinals.get(category.getId()).get(dish.getId());
+            for (int tier = 0; tier < minItems.length; tier++) {
+                prices[tier][ordinal] = priceOf(category, dish, active, minItems[tier]);
+            }
+
+            Integer categoryRule = categoryRules.get(category);
+            Integer dishRule = dishRules.get(dish);
+            boolean off = (categoryRule != null && !active.get(categoryRule))
+                    || (dishRule != null && !active.get(dishRule));
+            boolean repriced = dish.getPrice() != null && prices[0][ordinal] != dish.getPrice();
+            if (!repriced && !(off && Boolean.TRUE.equals(dish.getAvailable()))) {
+                return dish;
+            }
+            return dish.toBuilder()
+                    .price(repriced ? prices[0][ordinal] : dish.getPrice())
+                    .available(off ? Boolean.FALSE : dish.getAvailable())
+                    .build();
+        });
+
+        PriceTable priceTable = pricingRules.isEmpty() ? null : new PriceTable(ordinals, minItems, prices);
+        return MenuSnapshot.view(view, priceTable);
+    }
+
+    private int priceOf(Category category, Dish dish, BitSet active, int orderItems) {
+        if (dish.getPrice() == null) {
+            return 0;
+        }
+        long price = dish.getPrice();
+        for (int i = 0; i < pricingRules.size(); i++) {
+            PricingRule rule = pricingRules.get(i);
+            Integer window = pricingRuleWindows.get(i);
+            if ((window != null && !active.get(window))
+                    || (rule.getMinItems() != null && rule.getMinItems() > orderItems)
+                    || !matches(rule, category, dish)) {
+                continue;
+            }
+            if (rule.getPercent() != null) {
+                price = Math.round(price * (100 + rule.getPercent()) / 100.0);
+            }
+            if (rule.getAmount() != null) {
+                price += rule.getAmount();
+            }
+        }
+        return (int) Math.max(0, price);
+    }
+
+    private static boolean matches(PricingRule rule, Category category, Dish dish) {
+        if (rule.getCategories() != null && !rule.getCategories().isEmpty()
+                && !rule.getCategories().contains(category.getId())) {
+            return false;
+        }
+        return rule.getTags() == null || rule.getTags().isEmpty()
+                || (dish.getTags() != null && dish.getTags().stream().anyMatch(rule.getTags()::contains));
+    }
+}
@@ -0,0 +1,100 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.MenuScheduleConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each loaded snapshot's live view on the current schedule window.
+ * <p>
+ * When a snapshot is installed the views for the coming week are built and the
+ * one for now is shown. One timer per snapshot then fires at the next
+ * window boundary, swaps in the next view and rearms itself, so a window change
+ * is a reference swap and needs no commit. Readers only ever read the volatile
+ * reference.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuScheduler {
+
+    // A week covers every day-of-week rule; views for holidays further out are built when reached
+    private static final int PRECOMPUTE_DAYS = 7;
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final MenuScheduleConfig menuScheduleConfig;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-schedule");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Builds the snapshot's views and arms its timer. Must run before the
+     * snapshot is published so its live view is never missing.
+     */
+    void start(MenuSnapshot snapshot) {
+        MenuSchedule schedule = snapshot.liveMenu().schedule();
+        if (schedule == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(menuScheduleConfig.getZone());
+        for (int day = 0; day < PRECOMPUTE_DAYS; day++) {
+            for (LocalTime boundary : schedule.boundaries()) {
+                schedule.viewAt(today.plusDays(day).atTime(boundary));
+            }
+        }
+        log.debug("Precomputed {} menu views for {} schedule windows a day",
+                schedule.viewCount(), schedule.boundaries().size());
+        advance(snapshot.liveMenu());
+    }
+
+    /**
+     * Stops switching views of a snapshot that has been replaced or evicted.
+     */
+    void stop(MenuSnapshot snapshot) {
+        if (snapshot != null && snapshot.liveMenu().schedule() != null) {
+            snapshot.liveMenu().schedule().stop();
+        }
+    }
+
+    private void advance(LiveMenu liveMenu) {
+        MenuSchedule schedule = liveMenu.schedule();
+        if (schedule.isStopped()) {
+            return;
+        }
+
+        Duration delay;
+        try {
+            ZonedDateTime now = ZonedDateTime.now(menuScheduleConfig.getZone());
+            MenuSnapshot view = schedule.viewAt(now.toLocalDateTime());
+            if (liveMenu.showWindow(view)) {
+                log.info("Switched menu view at {}", now.toLocalTime().withNano(0));
+            }
+            // A timer that fires a little early sees the old window and comes back at the boundary
+            delay = Duration.between(now, schedule.nextBoundary(now));
+        } catch (RuntimeException e) {
+            log.error("Failed to switch menu view, retrying in {}", RETRY_DELAY, e);
+            delay = RETRY_DELAY;
+        }
+
+        schedule.arm(timer.schedule(() -> advance(liveMenu), Math.max(delay.toMillis(), 1), TimeUnit.MILLISECONDS));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -1,266 +1,578 @@
 package com.bapukikutia.menuadmin.service;
 
+import com.bapukikutia.menuadmin.dto.DraftPreview;
+import com.bapukikutia.menuadmin.dto.ImportResult;
+import com.bapukikutia.menuadmin.dto.MenuChange;
+import com.bapukikutia.menuadmin.dto.MenuRow;
 import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.exception.StaleWriteException;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import com.bapukikutia.menuadmin.metrics.ServerTiming;
 import com.bapukikutia.menuadmin.model.Category;
 import com.bapukikutia.menuadmin.model.Dish;
 import com.bapukikutia.menuadmin.model.MenuData;
+import com.bapukikutia.menuadmin.model.PricingRule;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MenuService {
 
+    private static final int MAX_APPLY_ATTEMPTS = 3;
+
     private final GitService gitService;
+    private final TenantMenuRegistry tenantMenuRegistry;
     private final ObjectMapper objectMapper;
+    private final MenuMetrics menuMetrics;
+    private final List<MenuArtifactGenerator> artifactGenerators;
+    private final MenuDrafts menuDrafts;
 
     // ==================== Menu Data Operations ====================
 
-    public MenuData getMenuData() {
-        try {
-            String menuJson = gitService.readMenuFile();
-            return objectMapper.readValue(menuJson, MenuData.class);
-        } catch (IOException e) {
-            log.error("Failed to parse menu data", e);
-            throw new RuntimeException("Failed to parse menu data: " + e.getMessage(), e);
-        }
+    public MenuData getMenuData(String restaurantId) {
+        return snapshot(restaurantId).menuData();
     }
 
-    private void saveMenuData(MenuData menuData, String commitMessage) {
-        try {
-            String menuJson = objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(menuData);
-            gitService.writeMenuFile(menuJson);
-            gitService.commitAndPush(commitMessage);
-            log.info("Menu data saved and committed: {}", commitMessage);
-        } catch (IOException e) {
-            log.error("Failed to serialize menu data", e);
-            throw new RuntimeException("Failed to serialize menu data: " + e.getMessage(), e);
-        }
+    /**
+     * The menu as guests see it now, with dishes outside their schedule window
+     * marked unavailable.
+     */
+    public MenuData getLiveMenuData(String restaurantId) {
+        return snapshot(restaurantId).live().menuData();
     }
 
-    // ==================== Category Operations ====================
+    public List<LocalDate> updateHolidays(String restaurantId, List<LocalDate> holidays) {
+        return mutate(restaurantId, "holidays_update", menuData -> {
+            List<LocalDate> sorted = holidays.stream().distinct().sorted().toList();
+            menuData.setHolidays(new ArrayList<>(sorted));
 
-    public List<Category> getAllCategories() {
-        return getMenuData().getCategories();
+            log.info("Updated holidays: {}", sorted);
+            return new Change<>(sorted, "Update holidays (" + sorted.size() + " dates)");
+        });
     }
 
-    public Category getCategoryById(String categoryId) {
-        return getMenuData().getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+    public List<PricingRule> getPricingRules(String restaurantId) {
+        return getMenuData(restaurantId).getPricingRules();
     }
 
-    public Category createCategory(Category category) {
-        MenuData menuData = getMenuData();
+    /**
+     * Replaces the outlet's pricing rules. Their windows then apply without
+     * further commits.
+     */
+    public List<PricingRule> updatePricingRules(String restaurantId, List<PricingRule> pricingRules) {
+        long distinctIds = pricingRules.stream().map(PricingRule::getId).distinct().count();
+        if (distinctIds != pricingRules.size()) {
+            throw new IllegalArgumentException("Pricing rule IDs must be unique");
+        }
+
+        return mutate(restaurantId, "pricing_rules_update", menuData -> {
+            menuData.setPricingRules(new ArrayList<>(pricingRules));
 
-        // Check if category ID already exists
-        boolean exists = menuData.getCategories().stream()
-                .anyMatch(cat -> cat.getId().equals(category.getId()));
+            log.info("Updated pricing rules: {}", pricingRules.stream().map(PricingRule::getId).toList());
+            return new Change<>(pricingRules, "Update pricing rules (" + pricingRules.size() + " rules)");
+        });
+    }
 
-        if (exists) {
-            throw new IllegalArgumentException("Category with ID " + category.getId() + " already exists");
+    /**
+     * Applies validated import rows as one commit. A row updates the dish with
+     * the same category and ID or adds it, creating a missing category at the
+     * end of the menu; existing categories keep their settings. With
+     * {@code replace}, dishes and categories without rows are removed, so the
+     * menu ends up exactly as imported, and an outlet without a menu file gets
+     * one.
+     */
+    public ImportResult importMenu(String restaurantId, List<MenuRow> rows, boolean replace) {
+        if (!replace || MenuDrafts.selected() != null) {
+            return importRows(restaurantId, rows, replace);
         }
+        TenantMenu tenant = tenantMenuRegistry.getOrCreate(restaurantId);
+        try {
+            return importRows(restaurantId, rows, true);
+        } catch (RuntimeException e) {
+            tenantMenuRegistry.forgetIfMissing(tenant);
+            throw e;
+        }
+    }
 
-        menuData.getCategories().add(category);
-        saveMenuData(menuData, "Add new category: " + category.getName());
-
-        log.info("Created category: {}", category.getId());
-        return category;
+    private ImportResult importRows(String restaurantId, List<MenuRow> rows, boolean replace) {
+        return mutate(restaurantId, "menu_import", menuData -> {
+            Map<String, Map<String, Dish>> dishesByCategoryId = new HashMap<>();
+            Map<String, Category> categoriesById = new HashMap<>();
+            int nextDisplayOrder = 1;
+            for (Category category : menuData.getCategories()) {
+                categoriesById.put(category.getId(), category);
+                Map<String, Dish> dishesById = new HashMap<>();
+                category.getDishes().forEach(dish -> dishesById.put(dish.getId(), dish));
+                dishesByCategoryId.put(category.getId(), dishesById);
+                nextDisplayOrder = Math.max(nextDisplayOrder, Objects.requireNonNullElse(category.getDisplayOrder(), 0) + 1);
+            }
+
+            int created = 0, updated = 0, unchanged = 0, categoriesCreated = 0;
+            Set<Dish> imported = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<String> importedCategoryIds = new HashSet<>();
+            for (MenuRow row : rows) {
+                Category category = categoriesById.get(row.getCategoryId());
+                if (category == null) {
+                    category = Category.builder()
+                            .id(row.getCategoryId())
+                            .name(Objects.requireNonNullElse(row.getCategoryName(), row.getCategoryId()))
+                            .displayOrder(nextDisplayOrder++)
+                            .build();
+                    menuData.getCategories().add(category);
+                    categoriesById.put(category.getId(), category);
+                    dishesByCategoryId.put(category.getId(), new HashMap<>());
+                    categoriesCreated++;
+                }
+                importedCategoryIds.add(category.getId());
+
+                Map<String, Dish> dishesById = dishesByCategoryId.get(category.getId());
+                Dish dish = dishesById.get(row.getId());
+                if (dish == null) {
+                    dish = row.applyTo(new Dish());
+                    category.getDishes().add(dish);
+                    dishesById.put(dish.getId(), dish);
+                    created++;
+                } else {
+                    Dish before = dish.toBuilder().build();
+                    if (row.applyTo(dish).equals(before)) {
+                        unchanged++;
+                    } else {
+                        updated++;
+                    }
+                }
+                imported.add(dish);
+            }
+
+            int removed = 0, categoriesRemoved = 0;
+            if (replace) {
+                for (Category category : menuData.getCategories()) {
+                    int before = category.getDishes().size();
+                    category.getDishes().removeIf(dish -> !imported.contains(dish));
+                    removed += before - category.getDishes().size();
+                }
+                int before = menuData.getCategories().size();
+                menuData.getCategories().removeIf(category -> !importedCategoryIds.contains(category.getId()));
+                categoriesRemoved = before - menuData.getCategories().size();
+            }
+
+            ImportResult result = ImportResult.builder()
+                    .rows(rows.size())
+                    .dishesCreated(created)
+                    .dishesUpdated(updated)
+                    .dishesUnchanged(unchanged)
+                    .dishesRemoved(removed)
+                    .categoriesCreated(categoriesCreated)
+                    .categoriesRemoved(categoriesRemoved)
+                    .build();
+            log.info("Imported {} rows: {}", rows.size(), result);
+            return new Change<>(result, String.format("Import menu (%d rows): %d dishes added, %d updated, %d removed",
+                    rows.size(), created, updated, removed));
+        });
     }
 
-    public Category updateCategory(String categoryId, Category updatedCategory) {
-        MenuData menuData = getMenuData();
+    /**
+     * Merges a draft into the live menu and commits the result as one change,
+     * then deletes the draft.
+     */
+    public DraftPreview publishDraft(String restaurantId, String name) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        List<MenuChange> changes = menuDrafts.publish(tenant, name, merge ->
+                mutate(restaurantId, "draft_publish", menuData -> {
+                    MenuDrafts.Merged merged = merge.apply(menuData);
+                    if (merged.changes().isEmpty()) {
+                        throw new IllegalArgumentException("Draft " + name + " doesn't change the live menu");
+                    }
+                    menuData.setCategories(merged.menuData().getCategories());
+                    menuData.setPricingRules(merged.menuData().getPricingRules());
+                    menuData.setHolidays(merged.menuData().getHolidays());
+                    menuData.setExtra(merged.menuData().getExtra());
+
+                    log.info("Publishing draft {}: {} changes", name, merged.changes().size());
+                    return new Change<>(merged.changes(), merged.message());
+                }));
+        return DraftPreview.builder()
+                .name(name)
+                .commit(gitService.head().name())
+                .changes(changes)
+                .build();
+    }
 
-        Optional<Category> existingCategory = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst();
+    private MenuSnapshot snapshot(String restaurantId) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        String draft = MenuDrafts.selected();
+        return draft == null ? tenantMenuRegistry.snapshot(tenant) : menuDrafts.snapshot(tenant, draft);
+    }
 
-        if (existingCategory.isEmpty()) {
-            throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
+    private String serialize(MenuData menuData) {
+        try {
+            return menuMetrics.timeJson("serialize", () -> objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(menuData));
+        } catch (IOException e) {
+            log.error("Failed to serialize menu data", e);
+            throw new RuntimeException("Failed to serialize menu data: " + e.getMessage(), e);
         }
+    }
 
-        Category category = existingCategory.get();
-        category.setName(updatedCategory.getName());
-        category.setDisplayOrder(updatedCategory.getDisplayOrder());
-
-        saveMenuData(menuData, "Update category: " + category.getName());
+    /**
+     * Loads the outlet's menu, applies a change to it and commits the result.
+     * <p>
+     * Writers to the same outlet queue on its lock; writers to different outlets
+     * only meet briefly in GitService while committing. The change is applied to a
+     * private copy read from disk, so readers keep seeing the previous snapshot
+     * until the commit succeeds. If remote edits are merged into the file before
+     * the commit, the change is applied again to the merged menu.
+     * <p>
+     * With a draft selected, the change is staged in the draft instead.
+     */
+    private <T> T mutate(String restaurantId, String mutationType, Function<MenuData, Change<T>> change) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        String draft = MenuDrafts.selected();
+        if (draft != null) {
+            return menuDrafts.edit(tenant, draft, menuData -> {
+                Change<T> applied = change.apply(menuData);
+                if (!applied.extraFilePaths().isEmpty()) {
+                    throw new IllegalArgumentException("Only menu changes can be staged in a draft");
+                }
+                return new MenuDrafts.Edit<>(applied.result(), applied.commitMessage());
+            });
+        }
 
-        log.info("Updated category: {}", categoryId);
-        return category;
+        // Not the leader, or not ready: fail before writing anything
+        gitService.checkWritable();
+        tenant.getWriteLock().lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return applyAndCommit(tenant, mutationType, change);
+                } catch (StaleWriteException e) {
+                    if (attempt == MAX_APPLY_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.info("Menu for {} was merged with remote changes while saving; applying the change again",
+                            tenant.getRestaurantId());
+                }
+            }
+        } finally {
+            tenant.getWriteLock().unlock();
+        }
     }
 
-    public void deleteCategory(String categoryId) {
-        MenuData menuData = getMenuData();
+    // Caller holds the outlet's write lock
+    private <T> T applyAndCommit(TenantMenu tenant, String mutationType, Function<MenuData, Change<T>> change) {
+        TenantMenuRegistry.LoadedMenu loaded = tenantMenuRegistry.readMenuData(tenant);
+        MenuData menuData = loaded.menuData();
 
-        boolean removed = menuData.getCategories().removeIf(cat -> cat.getId().equals(categoryId));
+        long applyStart = ServerTiming.start();
+        Change<T> applied = change.apply(menuData);
+        ServerTiming.record(ServerTiming.Phase.APPLY, applyStart);
 
-        if (!removed) {
-            throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
+        String menuJson = serialize(menuData);
+        List<String> filePaths = new ArrayList<>(applied.extraFilePaths());
+        filePaths.add(tenant.getFilePath());
+        try {
+            gitService.writeMenuFile(tenant.getFilePath(), menuJson);
+            for (MenuArtifactGenerator generator : artifactGenerators) {
+                filePaths.addAll(generator.generate(tenant, menuData));
+            }
+            // Another outlet's push may merge remote edits into this file before the commit
+            gitService.commitAndPush(applied.commitMessage(),
+                    Collections.singletonMap(tenant.getFilePath(), loaded.blobId()),
+                    filePaths.toArray(String[]::new));
+        } catch (RuntimeException e) {
+            // Don't leave uncommitted files for the next commit to pick up
+            restoreFromHead(filePaths, e);
+            tenantMenuRegistry.invalidate(tenant);
+            throw e;
         }
 
-        saveMenuData(menuData, "Delete category: " + categoryId);
-        log.info("Deleted category: {}", categoryId);
+        TenantMenuRegistry.LoadedMenu committed = new TenantMenuRegistry.LoadedMenu(menuData, menuJson);
+        if (!committed.blobId().equals(gitService.headBlobId(tenant.getFilePath()))) {
+            committed = afterRemoteMerge(tenant);
+        }
+        tenantMenuRegistry.publish(tenant, committed);
+        menuMetrics.recordMutation(mutationType);
+        log.info("Menu data saved and committed for {}: {}", tenant.getRestaurantId(), applied.commitMessage());
+        return applied.result();
     }
 
-    // ==================== Dish Operations ====================
+    private void restoreFromHead(List<String> filePaths, RuntimeException failure) {
+        try {
+            gitService.restoreFromHead(filePaths);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
 
-    public List<Dish> getAllDishes() {
-        return getMenuData().getCategories().stream()
-                .flatMap(category -> category.getDishes().stream())
+    /**
+     * The push merged remote edits into the outlet's menu file: reads the
+     * merged menu back and commits artifacts regenerated from it, so the
+     * page and shards don't keep showing the pre-merge menu.
+     */
+    private TenantMenuRegistry.LoadedMenu afterRemoteMerge(TenantMenu tenant) {
+        TenantMenuRegistry.LoadedMenu merged = tenantMenuRegistry.readMenuData(tenant);
+        List<String> filePaths = new ArrayList<>();
+        for (MenuArtifactGenerator generator : artifactGenerators) {
+            filePaths.addAll(generator.generate(tenant, merged.menuData()));
+        }
+        List<String> changed = filePaths.stream()
+                .filter(path -> !Objects.equals(gitService.headBlobId(path),
+                        gitService.exists(path) ? GitService.blobId(gitService.readFile(path)) : null))
                 .toList();
+        if (!changed.isEmpty()) {
+            gitService.commitAndPush("Regenerate menu artifacts after merging remote changes",
+                    changed.toArray(String[]::new));
+        }
+        log.info("Menu for {} merged with remote changes", tenant.getRestaurantId());
+        return merged;
     }
 
-    public List<Dish> getDishesByCategory(String categoryId) {
-        Category category = getCategoryById(categoryId);
-        return category.getDishes();
-    }
+    /**
+     * Outcome of a change: the value to return, the commit message and any files
+     * besides the menu that were written for it and belong in the same commit.
+     */
+    private record Change<T>(T result, String commitMessage, List<String> extraFilePaths) {
 
-    public Dish getDishById(String categoryId, String dishId) {
-        Category category = getCategoryById(categoryId);
+        Change(T result, String commitMessage) {
+            this(result, commitMessage, List.of());
+        }
+    }
 
-        return category.getDishes().stream()
-                .filter(dish -> dish.getId().equals(dishId))
+    private static Category findCategory(MenuData menuData, String categoryId) {
+        return menuData.getCategories().stream()
+                .filter(cat -> cat.getId().equals(categoryId))
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        "Dish not found with ID: " + dishId + " in category: " + categoryId));
+                        "Category not found with ID: " + categoryId));
     }
 
-    public Dish createDish(String categoryId, Dish dish) {
-        MenuData menuData = getMenuData();
-
-        Category category = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
+    private static Dish findDish(Category category, String dishId) {
+        return category.getDishes().stream()
+                .filter(d -> d.getId().equals(dishId))
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+                        "Dish not found with ID: " + dishId));
+    }
 
-        // Check if dish ID already exists in this category
-        boolean exists = category.getDishes().stream()
-                .anyMatch(d -> d.getId().equals(dish.getId()));
+    // ==================== Category Operations ====================
+
+    public List<Category> getAllCategories(String restaurantId) {
+        return getMenuData(restaurantId).getCategories();
+    }
 
-        if (exists) {
-            throw new IllegalArgumentException(
-                    "Dish with ID " + dish.getId() + " already exists in category " + categoryId);
+    public Category getCategoryById(String restaurantId, String categoryId) {
+        Category category = snapshot(restaurantId).categoriesById().get(categoryId);
+        if (category == null) {
+            throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
         }
+        return category;
+    }
 
-        // Set the category ID
-        dish.setCategoryId(categoryId);
-        category.getDishes().add(dish);
+    public Category createCategory(String restaurantId, Category category) {
+        return mutate(restaurantId, "category_create", menuData -> {
+            // Check if category ID already exists
+            boolean exists = menuData.getCategories().stream()
+                    .anyMatch(cat -> cat.getId().equals(category.getId()));
 
-        saveMenuData(menuData, "Add new dish: " + dish.getName() + " to category: " + category.getName());
+            if (exists) {
+                throw new IllegalArgumentException("Category with ID " + category.getId() + " already exists");
+            }
 
-        log.info("Created dish: {} in category: {}", dish.getId(), categoryId);
-        return dish;
+            menuData.getCategories().add(category);
+            log.info("Created category: {}", category.getId());
+            return new Change<>(category, "Add new category: " + category.getName());
+        });
     }
 
-    public Dish updateDish(String categoryId, String dishId, Dish updatedDish) {
-        MenuData menuData = getMenuData();
+    public Category updateCategory(String restaurantId, String categoryId, Category updatedCategory) {
+        return mutate(restaurantId, "category_update", menuData -> {
+            Category category = findCategory(menuData, categoryId);
+            category.setName(updatedCategory.getName());
+            category.setDisplayOrder(updatedCategory.getDisplayOrder());
+            category.setStation(updatedCategory.getStation());
+            category.setSchedule(updatedCategory.getSchedule());
+
+            log.info("Updated category: {}", categoryId);
+            return new Change<>(category, "Update category: " + category.getName());
+        });
+    }
 
-        Category category = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+    public void deleteCategory(String restaurantId, String categoryId) {
+        mutate(restaurantId, "category_delete", menuData -> {
+            boolean removed = menuData.getCategories().removeIf(cat -> cat.getId().equals(categoryId));
 
-        Dish dish = category.getDishes().stream()
-                .filter(d -> d.getId().equals(dishId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Dish not found with ID: " + dishId));
+            if (!removed) {
+                throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
+            }
 
-        // Update dish properties
-        dish.setName(updatedDish.getName());
-        dish.setPrice(updatedDish.getPrice());
-        dish.setImage(updatedDish.getImage());
-        dish.setAltText(updatedDish.getAltText());
-        dish.setDescription(updatedDish.getDescription());
-        dish.setAvailable(updatedDish.getAvailable());
-        dish.setIsVegetarian(updatedDish.getIsVegetarian());
-        dish.setIsVegan(updatedDish.getIsVegan());
-        dish.setIsSpicy(updatedDish.getIsSpicy());
-        dish.setTags(updatedDish.getTags());
-
-        saveMenuData(menuData, "Update dish: " + dish.getName() + " (₹" + dish.getPrice() + ")");
-
-        log.info("Updated dish: {} in category: {}", dishId, categoryId);
-        return dish;
+            log.info("Deleted category: {}", categoryId);
+            return new Change<>(null, "Delete category: " + categoryId);
+        });
     }
 
-    public void deleteDish(String categoryId, String dishId) {
-        MenuData menuData = getMenuData();
+    // ==================== Dish Operations ====================
 
-        Category category = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+    public List<Dish> getAllDishes(String restaurantId) {
+        return snapshot(restaurantId).allDishes();
+    }
 
-        boolean removed = category.getDishes().removeIf(dish -> dish.getId().equals(dishId));
+    public List<Dish> getDishesByCategory(String restaurantId, String categoryId) {
+        Category category = getCategoryById(restaurantId, categoryId);
+        return category.getDishes();
+    }
 
-        if (!removed) {
-            throw new ResourceNotFoundException("Dish not found with ID: " + dishId);
+    public Dish getDishById(String restaurantId, String categoryId, String dishId) {
+        Map<String, Dish> dishesById = snapshot(restaurantId).dishesByCategoryId().get(categoryId);
+        if (dishesById == null) {
+            throw new ResourceNotFoundException("Category not found with ID: " + categoryId);
         }
 
-        saveMenuData(menuData, "Delete dish: " + dishId + " from category: " + category.getName());
-        log.info("Deleted dish: {} from category: {}", dishId, categoryId);
+        Dish dish = dishesById.get(dishId);
+        if (dish == null) {
+            throw new ResourceNotFoundException(
+                    "Dish not found with ID: " + dishId + " in category: " + categoryId);
+        }
+        return dish;
     }
 
-    public Dish toggleDishAvailability(String categoryId, String dishId) {
-        MenuData menuData = getMenuData();
+    public Dish createDish(String restaurantId, String categoryId, Dish dish) {
+        return mutate(restaurantId, "dish_create", menuData -> {
+            Category category = findCategory(menuData, categoryId);
 
-        Category category = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+            // Check if dish ID already exists in this category
+            boolean exists = category.getDishes().stream()
+                    .anyMatch(d -> d.getId().equals(dish.getId()));
 
-        Dish dish = category.getDishes().stream()
-                .filter(d -> d.getId().equals(dishId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Dish not found with ID: " + dishId));
+            if (exists) {
+                throw new IllegalArgumentException(
+                        "Dish with ID " + dish.getId() + " already exists in category " + categoryId);
+            }
 
-        dish.setAvailable(!dish.getAvailable());
+            // Set the category ID
+            dish.setCategoryId(categoryId);
+            category.getDishes().add(dish);
 
-        String status = dish.getAvailable() ? "available" : "unavailable";
-        saveMenuData(menuData, "Mark dish " + status + ": " + dish.getName());
+            log.info("Created dish: {} in category: {}", dish.getId(), categoryId);
+            return new Change<>(dish, "Add new dish: " + dish.getName() + " to category: " + category.getName());
+        });
+    }
 
-        log.info("Toggled availability for dish: {} to {}", dishId, status);
-        return dish;
+    public Dish updateDish(String restaurantId, String categoryId, String dishId, Dish updatedDish) {
+        return mutate(restaurantId, "dish_update", menuData -> {
+            Dish dish = findDish(findCategory(menuData, categoryId), dishId);
+
+            // Variants were generated from the old image
+            if (!Objects.equals(dish.getImage(), updatedDish.getImage())) {
+                dish.setSrcset(null);
+            }
+
+            // Update dish properties
+            dish.setName(updatedDish.getName());
+            dish.setPrice(updatedDish.getPrice());
+            dish.setImage(updatedDish.getImage());
+            dish.setAltText(updatedDish.getAltText());
+            dish.setDescription(updatedDish.getDescription());
+            dish.setAvailable(updatedDish.getAvailable());
+            dish.setIsVegetarian(updatedDish.getIsVegetarian());
+            dish.setIsVegan(updatedDish.getIsVegan());
+            dish.setIsSpicy(updatedDish.getIsSpicy());
+            dish.setTags(updatedDish.getTags());
+            dish.setStation(updatedDish.getStation());
+            dish.setSchedule(updatedDish.getSchedule());
+
+            log.info("Updated dish: {} in category: {}", dishId, categoryId);
+            return new Change<>(dish, "Update dish: " + dish.getName() + " (₹" + dish.getPrice() + ")");
+        });
     }
 
-    public Dish updateDishPrice(String categoryId, String dishId, Integer newPrice) {
-        MenuData menuData = getMenuData();
+    public void deleteDish(String restaurantId, String categoryId, String dishId) {
+        mutate(restaurantId, "dish_delete", menuData -> {
+            Category category = findCategory(menuData, categoryId);
 
-        Category category = menuData.getCategories().stream()
-                .filter(cat -> cat.getId().equals(categoryId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with ID: " + categoryId));
+            boolean removed = category.getDishes().removeIf(dish -> dish.getId().equals(dishId));
 
-        Dish dish = category.getDishes().stream()
-                .filter(d -> d.getId().equals(dishId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Dish not found with ID: " + dishId));
+            if (!removed) {
+                throw new ResourceNotFoundException("Dish not found with ID: " + dishId);
+            }
+
+            log.info("Deleted dish: {} from category: {}", dishId, categoryId);
+            return new Change<>(null, "Delete dish: " + dishId + " from category: " + category.getName());
+        });
+    }
 
-        Integer oldPrice = dish.getPrice();
-        dish.setPrice(newPrice);
+    public Dish toggleDishAvailability(String restaurantId, String categoryId, String dishId) {
+        return mutate(restaurantId, "dish_availability", menuData -> {
+            Dish dish = findDish(findCategory(menuData, categoryId), dishId);
 
-        saveMenuData(menuData, String.format(
-                "Update %s price: ₹%d → ₹%d", dish.getName(), oldPrice, newPrice));
+            dish.setAvailable(!dish.getAvailable());
 
-        log.info("Updated price for dish: {} from ₹{} to ₹{}", dishId, oldPrice, newPrice);
-        return dish;
+            String status = dish.getAvailable() ? "available" : "unavailable";
+            log.info("Toggled availability for dish: {} to {}", dishId, status);
+            return new Change<>(dish, "Mark dish " + status + ": " + dish.getName());
+        });
+    }
+
+    public Dish updateDishPrice(String restaurantId, String categoryId, String dishId, Integer newPrice) {
+        return mutate(restaurantId, "dish_price", menuData -> {
+            Dish dish = findDish(findCategory(menuData, categoryId), dishId);
+
+            Integer oldPrice = dish.getPrice();
+            dish.setPrice(newPrice);
+
+            log.info("Updated price for dish: {} from ₹{} to ₹{}", dishId, oldPrice, newPrice);
+            return new Change<>(dish, String.format(
+                    "Update %s price: ₹%d → ₹%d", dish.getName(), oldPrice, newPrice));
+        });
+    }
+
+    /**
+     * Points a dish at a newly uploaded image. The image file must already be
+     * written to the clone; it is committed together with the menu.
+     */
+    public Dish updateDishImage(String restaurantId, String categoryId, String dishId, String imagePath) {
+        return mutate(restaurantId, "dish_image", menuData -> {
+            Dish dish = findDish(findCategory(menuData, categoryId), dishId);
+
+            dish.setImage(imagePath);
+            dish.setSrcset(null);
+
+            log.info("Updated image for dish: {} to {}", dishId, imagePath);
+            return new Change<>(dish, "Update image: " + dish.getName(), List.of(imagePath));
+        });
+    }
+
+    /**
+     * Records the resized variants generated from a dish's image, unless the dish
+     * has been given a different image in the meantime.
+     */
+    public Dish updateDishImageVariants(String restaurantId, String categoryId, String dishId, String imagePath,
+                                        String srcset, List<String> variantPaths) {
+        return mutate(restaurantId, "dish_image_variants", menuData -> {
+            Dish dish = findDish(findCategory(menuData, categoryId), dishId);
+
+            if (!imagePath.equals(dish.getImage())) {
+                throw new IllegalStateException("Image of dish " + dishId + " changed while its variants were generated");
+            }
+            dish.setSrcset(srcset);
+
+            log.info("Added {} image variants for dish: {}", variantPaths.size(), dishId);
+            return new Change<>(dish, "Add image variants: " + dish.getName(), variantPaths);
+        });
     }
 }
@@ -0,0 +1,157 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.MenuShardConfig;
+import com.bapukikutia.menuadmin.exception.GitOperationException;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Splits an outlet's menu into one JSON file per category plus a manifest.
+ * <p>
+ * Shard names carry a hash of their content, so a change to one category gives
+ * only that shard a new name and every other shard stays cached. The manifest is
+ * the only file whose name never changes; it lists the current shard of each
+ * category. Shards no longer listed are removed in the same commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuShardGenerator implements MenuArtifactGenerator {
+
+    public static final String MANIFEST = "manifest.json";
+
+    private static final int HASH_LENGTH = 12;
+    private static final Pattern SHARD_NAME = Pattern.compile("[a-z0-9-]+-[0-9a-f]{" + HASH_LENGTH + "}\\.json");
+
+    private final MenuShardConfig menuShardConfig;
+    private final GitService gitService;
+    private final ObjectMapper objectMapper;
+    private final MenuMetrics menuMetrics;
+
+    @Override
+    public List<String> generate(TenantMenu tenant, MenuData menuData) {
+        if (!menuShardConfig.isEnabled()) {
+            return List.of();
+        }
+
+        try {
+            return menuMetrics.timeRender("shards", () -> writeShards(shardDirectory(tenant), menuData));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize menu shards", e);
+            throw new RuntimeException("Failed to serialize menu shards: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> writeShards(String directory, MenuData menuData) throws JsonProcessingException {
+        List<String> filePaths = new ArrayList<>();
+        List<ManifestEntry> entries = new ArrayList<>();
+        Set<String> currentShards = new HashSet<>();
+
+        List<Category> ordered = menuData.getCategories().stream()
+                .sorted(Comparator.comparing(Category::getDisplayOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        for (Category category : ordered) {
+            byte[] shard = objectMapper.writeValueAsBytes(category);
+            String fileName = baseName(category.getId()) + "-" + hash(shard) + ".json";
+            String path = directory + "/" + fileName;
+            currentShards.add(fileName);
+
+            // An existing file with this name already has exactly this content
+            if (!gitService.exists(path)) {
+                gitService.writeFile(path, shard);
+            }
+            filePaths.add(path);
+
+            long available = category.getDishes().stream()
+                    .filter(dish -> Boolean.TRUE.equals(dish.getAvailable()))
+                    .count();
+            entries.add(new ManifestEntry(category.getId(), category.getName(), category.getDisplayOrder(),
+                    (int) available, path));
+        }
+
+        String version = hash(objectMapper.writeValueAsBytes(entries));
+        byte[] manifest = objectMapper.writeValueAsBytes(new Manifest(version, entries));
+        String manifestPath = directory + "/" + MANIFEST;
+        gitService.writeFile(manifestPath, manifest);
+        filePaths.add(manifestPath);
+
+        for (String stale : staleShards(directory, currentShards)) {
+            gitService.deleteFile(stale);
+            filePaths.add(stale);
+        }
+
+        log.debug("Wrote {} menu shards to {}", entries.size(), directory);
+        return filePaths;
+    }
+
+    private List<String> staleShards(String directory, Set<String> currentShards) {
+        Path path = gitService.resolve(directory);
+        if (!Files.isDirectory(path)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(path)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> SHARD_NAME.matcher(name).matches() && !currentShards.contains(name))
+                    .map(name -> directory + "/" + name)
+                    .toList();
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to list menu shards: " + e.getMessage(), e);
+        }
+    }
+
+    // Shards live next to the outlet's menu file, e.g. static/data/menu/
+    private String shardDirectory(TenantMenu tenant) {
+        String filePath = tenant.getFilePath();
+        int slash = filePath.lastIndexOf('/');
+        String parent = slash < 0 ? "" : filePath.substring(0, slash + 1);
+        return parent + menuShardConfig.getDirectory();
+    }
+
+    private static String baseName(String categoryId) {
+        return categoryId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9-]+", "-");
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    record Manifest(String version, List<ManifestEntry> categories) {
+    }
+
+    record ManifestEntry(
+            String id,
+            String name,
+            @JsonProperty("display_order") Integer displayOrder,
+            @JsonProperty("available_dishes") int availableDishes,
+            String file) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.MenuData;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed menu together with its lookup indexes. Snapshots are replaced as a
+ * whole after every committed change and must not be modified once published.
+ */
+public record MenuSnapshot(
+        MenuData menuData,
+        Map<String, Category> categoriesById,
+        Map<String, Map<String, Dish>> dishesByCategoryId,
+        List<Dish> allDishes,
+        long estimatedBytes,
+        LiveMenu liveMenu,
+        PriceTable priceTable) {
+
+    public static MenuSnapshot of(MenuData menuData, long estimatedBytes) {
+        LiveMenu liveMenu = new LiveMenu(MenuSchedule.compile(menuData));
+        MenuSnapshot snapshot = index(menuData, estimatedBytes, liveMenu, null);
+        liveMenu.showWindow(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * A live view of a menu; it shares the menu's unchanged objects and is
+     * itself what guests see. Its dish prices are those for the smallest
+     * orders; the price table, if any, has them for every order size.
+     */
+    static MenuSnapshot view(MenuData menuData, PriceTable priceTable) {
+        return index(menuData, 0, null, priceTable);
+    }
+
+    private static MenuSnapshot index(MenuData menuData, long estimatedBytes, LiveMenu liveMenu,
+                                      PriceTable priceTable) {
+        Map<String, Category> categoriesById = new HashMap<>();
+        Map<String, Map<String, Dish>> dishesByCategoryId = new HashMap<>();
+
+        for (Category category : menuData.getCategories()) {
+            categoriesById.put(category.getId(), category);
+            Map<String, Dish> dishesById = new HashMap<>();
+            for (Dish dish : category.getDishes()) {
+                dishesById.put(dish.getId(), dish);
+            }
+            dishesByCategoryId.put(category.getId(), dishesById);
+        }
+
+        List<Dish> allDishes = menuData.getCategories().stream()
+                .flatMap(category -> category.getDishes().stream())
+                .toList();
+
+        return new MenuSnapshot(menuData, categoriesById, dishesByCategoryId, allDishes, estimatedBytes, liveMenu,
+                priceTable);
+    }
+
+    /**
+     * The menu as guests see it right now, with pricing rules applied and dishes
+     * outside their schedule window or out of stock marked unavailable.
+     */
+    public MenuSnapshot live() {
+        return liveMenu == null ? this : liveMenu.current();
+    }
+}
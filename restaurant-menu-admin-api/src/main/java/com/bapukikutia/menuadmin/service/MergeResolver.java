@@ -0,0 +1,19 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.exception.MergeConflictException;
+
+/**
+ * Merges a file that was changed both locally and on the remote, for file
+ * types that can be merged more precisely than line by line.
+ */
+public interface MergeResolver {
+
+    boolean handles(String path);
+
+    /**
+     * Returns the merged content. {@code base} is null if both sides added the file.
+     *
+     * @throws MergeConflictException if the two changes touch the same value
+     */
+    byte[] merge(String path, byte[] base, byte[] ours, byte[] theirs);
+}
@@ -0,0 +1,193 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only order log with one NDJSON file per day.
+ * <p>
+ * Callers hand over an already serialized line and get a future that completes
+ * once the line is on disk. A single writer thread drains whatever has queued
+ * up, writes it with one gathering write and fsyncs once for the whole batch,
+ * so the cost of an fsync is shared by every order that arrived while the
+ * previous one was running.
+ */
+@Slf4j
+@Component
+public class OrderLog {
+
+    private static final long POLL_MILLIS = 100;
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final Path directory;
+    private final ZoneId zone;
+    private final int maxBatch;
+    private final ArrayBlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final DistributionSummary batchSize;
+    private final Timer fsyncTimer;
+
+    private volatile boolean running = true;
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private LocalDate channelDate;
+    private boolean failed;
+
+    public OrderLog(OrderConfig orderConfig, MeterRegistry meterRegistry) throws IOException {
+        this.directory = Path.of(orderConfig.getDirectory());
+        Files.createDirectories(directory);
+        this.zone = orderConfig.getZone();
+        this.maxBatch = orderConfig.getMaxBatch();
+        this.queue = new ArrayBlockingQueue<>(orderConfig.getQueueCapacity());
+
+        this.batchSize = DistributionSummary.builder("orders.log.batch")
+                .description("Orders written per fsync")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("orders.log.write")
+                .description("Order log write and fsync latency per batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("orders.log.queue", queue, ArrayBlockingQueue::size)
+                .description("Orders waiting for the log writer")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "order-log-writer");
+        this.writer.start();
+    }
+
+    /**
+     * Queues a line for the log. The line must end with a newline.
+     */
+    public CompletableFuture<Void> append(byte[] line) {
+        Entry entry = new Entry(line, new CompletableFuture<>());
+        if (!running || !queue.offer(entry)) {
+            throw new ServiceUnavailableException("Order log is not accepting orders right now, please retry");
+        }
+        return entry.written();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        closeChannel();
+    }
+
+    private void write(List<Entry> batch) {
+        long start = System.nanoTime();
+        try {
+            FileChannel target = channelFor(LocalDate.now(zone));
+            // After a failed write the file may end in a partial line; terminate it first
+            int offset = failed ? 1 : 0;
+            ByteBuffer[] buffers = new ByteBuffer[batch.size() + offset];
+            if (failed) {
+                buffers[0] = ByteBuffer.wrap(NEWLINE);
+            }
+            long remaining = offset;
+            for (int i = 0; i < batch.size(); i++) {
+                buffers[i + offset] = ByteBuffer.wrap(batch.get(i).line());
+                remaining += buffers[i + offset].remaining();
+            }
+            while (remaining > 0) {
+                remaining -= target.write(buffers);
+            }
+            target.force(false);
+            failed = false;
+
+            fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+            batch.forEach(entry -> entry.written().complete(null));
+        } catch (IOException e) {
+            log.error("Failed to write {} orders to the order log", batch.size(), e);
+            failed = true;
+            closeChannel();
+            batch.forEach(entry -> entry.written().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Reads back one day's log. The caller must close the stream.
+     */
+    public Stream<String> lines(LocalDate date) throws IOException {
+        Path file = fileFor(date);
+        return Files.exists(file) ? Files.lines(file, StandardCharsets.UTF_8) : Stream.empty();
+    }
+
+    private Path fileFor(LocalDate date) {
+        return directory.resolve("orders-" + date + ".ndjson");
+    }
+
+    private FileChannel channelFor(LocalDate date) throws IOException {
+        if (channel == null || !date.equals(channelDate)) {
+            closeChannel();
+            channel = FileChannel.open(fileFor(date),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            channelDate = date;
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close order log file: {}", e.getMessage());
+        }
+        channel = null;
+        channelDate = null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            log.warn("Order log writer did not finish in time; {} queued orders may be lost", queue.size());
+        }
+    }
+
+    private record Entry(byte[] line, CompletableFuture<Void> written) {
+    }
+}
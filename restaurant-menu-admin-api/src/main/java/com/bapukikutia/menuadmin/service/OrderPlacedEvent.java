@@ -0,0 +1,9 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.model.Order;
+
+/**
+ * Published after an order has been written to the order log.
+ */
+public record OrderPlacedEvent(Order order) {
+}
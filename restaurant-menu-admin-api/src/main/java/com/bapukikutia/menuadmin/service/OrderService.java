@@ -0,0 +1,220 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.KitchenConfig;
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.dto.OrderRequest;
+import com.bapukikutia.menuadmin.exception.ServiceUnavailableException;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prices guest orders against the outlet's current menu snapshot, numbers them
+ * and records them in the order log.
+ * <p>
+ * An order is only acknowledged once its log line has been fsynced; listeners
+ * of {@link OrderPlacedEvent} therefore never see an order that could be lost.
+ */
+@Slf4j
+@Service
+public class OrderService {
+
+    private static final DateTimeFormatter BILL_MONTH = DateTimeFormatter.ofPattern("yyMM");
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final BillNumberSequence billNumberSequence;
+    private final OrderLog orderLog;
+    private final OrderConfig orderConfig;
+    private final KitchenConfig kitchenConfig;
+    private final StockLevels stockLevels;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter placedCounter;
+
+    public OrderService(TenantMenuRegistry tenantMenuRegistry, BillNumberSequence billNumberSequence,
+                        OrderLog orderLog, OrderConfig orderConfig, KitchenConfig kitchenConfig,
+                        StockLevels stockLevels, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry) {
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.billNumberSequence = billNumberSequence;
+        this.orderLog = orderLog;
+        this.orderConfig = orderConfig;
+        this.kitchenConfig = kitchenConfig;
+        this.stockLevels = stockLevels;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.placedCounter = Counter.builder("orders.placed")
+                .description("Orders written to the order log")
+                .register(meterRegistry);
+    }
+
+    public Order placeOrder(String restaurantId, OrderRequest request) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        // Dishes outside their schedule window are unavailable in the live view
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant).live();
+
+        if (request.getItems().size() > orderConfig.getMaxItems()) {
+            throw new IllegalArgumentException("An order can have at most " + orderConfig.getMaxItems() + " items");
+        }
+
+        List<Order.Line> lines = new ArrayList<>(request.getItems().size());
+        List<StockLevels.Reservation> reservations = new ArrayList<>();
+        int orderItems = request.getItems().stream().mapToInt(OrderRequest.Item::getQuantity).sum();
+        Order order;
+        try {
+            long subtotal = 0;
+            for (OrderRequest.Item item : request.getItems()) {
+                Order.Line line = price(tenant, snapshot, item, orderItems, reservations);
+                lines.add(line);
+                subtotal += line.getAmount();
+            }
+
+            // Rounded the same way as Math.round() in bill.html
+            long gst = Math.round(subtotal * orderConfig.getGstRate());
+            long serviceCharge = Math.round(subtotal * orderConfig.getServiceChargeRate());
+
+            Instant placedAt = Instant.now();
+            order = Order.builder()
+                    .billNumber(billNumber(placedAt))
+                    .restaurantId(tenant.getRestaurantId())
+                    .placedAt(placedAt)
+                    .items(lines)
+                    .subtotal(subtotal)
+                    .gst(gst)
+                    .serviceCharge(serviceCharge)
+                    .grandTotal(subtotal + gst + serviceCharge)
+                    .build();
+
+            awaitWritten(order);
+        } catch (RuntimeException e) {
+            // An order that timed out may still be logged, so its portions stay taken
+            if (!(e.getCause() instanceof TimeoutException)) {
+                stockLevels.release(reservations);
+            }
+            throw e;
+        }
+        placedCounter.increment();
+        log.debug("Placed order {} for {} ({} items, total {})",
+                order.getBillNumber(), order.getRestaurantId(), lines.size(), order.getGrandTotal());
+
+        eventPublisher.publishEvent(new OrderPlacedEvent(order));
+        return order;
+    }
+
+    private Order.Line price(TenantMenu tenant, MenuSnapshot snapshot, OrderRequest.Item item, int orderItems,
+                             List<StockLevels.Reservation> reservations) {
+        if (item.getQuantity() > orderConfig.getMaxQuantity()) {
+            throw new IllegalArgumentException("Quantity must not exceed " + orderConfig.getMaxQuantity());
+        }
+
+        Dish dish = findDish(snapshot, item);
+        if (!Boolean.TRUE.equals(dish.getAvailable())) {
+            throw new IllegalArgumentException("Dish is not available: " + dish.getName());
+        }
+        StockLevels.Reservation reservation = stockLevels.reserve(tenant.getRestaurantId(), dish, item.getQuantity());
+        if (reservation != null) {
+            reservations.add(reservation);
+        }
+
+        int price = priceOf(snapshot, dish, orderItems);
+        return Order.Line.builder()
+                .dishId(dish.getId())
+                .categoryId(dish.getCategoryId())
+                .name(dish.getName())
+                .station(stationOf(snapshot, dish))
+                .price(price)
+                .quantity(item.getQuantity())
+                .amount((long) price * item.getQuantity())
+                .build();
+    }
+
+    // The live view's prices are for the smallest orders; larger ones may have their own tier
+    private static int priceOf(MenuSnapshot snapshot, Dish dish, int orderItems) {
+        if (snapshot.priceTable() == null) {
+            return dish.getPrice();
+        }
+        int price = snapshot.priceTable().price(dish.getCategoryId(), dish.getId(), orderItems);
+        return price >= 0 ? price : dish.getPrice();
+    }
+
+    private String stationOf(MenuSnapshot snapshot, Dish dish) {
+        if (dish.getStation() != null) {
+            return dish.getStation();
+        }
+        Category category = snapshot.categoriesById().get(dish.getCategoryId());
+        return category != null && category.getStation() != null
+                ? category.getStation()
+                : kitchenConfig.getDefaultStation();
+    }
+
+    private static Dish findDish(MenuSnapshot snapshot, OrderRequest.Item item) {
+        if (item.getCategoryId() != null) {
+            Dish dish = snapshot.dishesByCategoryId().getOrDefault(item.getCategoryId(), Map.of())
+                    .get(item.getDishId());
+            if (dish == null) {
+                throw new IllegalArgumentException("Dish not found: " + item.getDishId());
+            }
+            return dish;
+        }
+
+        List<Dish> matches = snapshot.allDishes().stream()
+                .filter(dish -> item.getDishId().equals(dish.getId()))
+                .limit(2)
+                .toList();
+        if (matches.isEmpty()) {
+            throw new IllegalArgumentException("Dish not found: " + item.getDishId());
+        }
+        if (matches.size() > 1) {
+            throw new IllegalArgumentException("Dish ID is in more than one category, category_id is required: "
+                    + item.getDishId());
+        }
+        return matches.get(0);
+    }
+
+    private String billNumber(Instant placedAt) {
+        return orderConfig.getBillPrefix()
+                + BILL_MONTH.format(placedAt.atZone(orderConfig.getZone()))
+                + String.format("%06d", billNumberSequence.next());
+    }
+
+    private void awaitWritten(Order order) {
+        byte[] line;
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(order);
+            line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize order", e);
+            throw new RuntimeException("Failed to serialize order: " + e.getMessage(), e);
+        }
+
+        try {
+            orderLog.append(line).get(orderConfig.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while recording order", e);
+        } catch (ExecutionException e) {
+            throw new ServiceUnavailableException("Failed to record order: " + e.getCause().getMessage(), e);
+        } catch (TimeoutException e) {
+            // The order may still be written; its bill number is never handed out again either way
+            throw new ServiceUnavailableException("Timed out recording order " + order.getBillNumber(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bapukikutia.menuadmin.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Effective dish prices for one schedule window, with every pricing rule
+ * already applied. There is one row per order-size tier: row {@code t} holds
+ * the prices for orders of at least {@code minItems[t]} items.
+ */
+final class PriceTable {
+
+    // Shared by all windows of a snapshot
+    private final Map<String, Map<String, Integer>> ordinals;
+    private final int[] minItems;
+    private final int[][] prices;
+
+    PriceTable(Map<String, Map<String, Integer>> ordinals, int[] minItems, int[][] prices) {
+        this.ordinals = ordinals;
+        this.minItems = minItems;
+        this.prices = prices;
+    }
+
+    /**
+     * Returns the price of a dish in an order of the given size, or -1 if the
+     * dish isn't on the menu the table was built from.
+     */
+    int price(String categoryId, String dishId, int orderItems) {
+        Integer ordinal = ordinals.getOrDefault(categoryId, Map.of()).get(dishId);
+        if (ordinal == null) {
+            return -1;
+        }
+        return prices[tier(orderItems)][ordinal];
+    }
+
+    private int tier(int orderItems) {
+        int index = Arrays.binarySearch(minItems, orderItems);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+}
@@ -0,0 +1,125 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.dto.PublicMenu;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the guest-facing view of each outlet's menu.
+ * <p>
+ * The view is serialized once per menu snapshot and kept as bytes with an ETag
+ * derived from them, so a read is a map lookup and a copy to the socket. The
+ * ETag depends only on the content, so every node hands out the same one.
+ * Outlets with schedules are serialized again once per window, when the live
+ * view changes, and outlets with new reviews once per ratings flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublicMenuService {
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final DishRatings dishRatings;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<String, PublishedMenu> published = new ConcurrentHashMap<>();
+
+    public PublishedMenu getPublishedMenu(String restaurantId) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant).live();
+        // Read before building, so reviews flushed while building trigger another rebuild
+        long ratingsVersion = dishRatings.version(tenant.getRestaurantId());
+
+        PublishedMenu current = published.get(tenant.getRestaurantId());
+        if (current != null && current.isFor(snapshot, ratingsVersion)) {
+            return current;
+        }
+
+        // Concurrent rebuilds for the same snapshot produce identical results
+        PublishedMenu rebuilt = publish(tenant.getRestaurantId(), snapshot, ratingsVersion);
+        published.put(tenant.getRestaurantId(), rebuilt);
+        return rebuilt;
+    }
+
+    private PublishedMenu publish(String restaurantId, MenuSnapshot snapshot, long ratingsVersion) {
+        List<PublicMenu.PublicCategory> categories = snapshot.menuData().getCategories().stream()
+                .sorted(Comparator.comparing(Category::getDisplayOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(category -> toPublicCategory(restaurantId, category))
+                .filter(category -> !category.getDishes().isEmpty())
+                .toList();
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(PublicMenu.builder().categories(categories).build());
+            return new PublishedMenu(new WeakReference<>(snapshot), ratingsVersion, body, etag(body));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize public menu", e);
+            throw new RuntimeException("Failed to serialize public menu: " + e.getMessage(), e);
+        }
+    }
+
+    private PublicMenu.PublicCategory toPublicCategory(String restaurantId, Category category) {
+        List<PublicMenu.PublicDish> dishes = category.getDishes().stream()
+                .filter(dish -> Boolean.TRUE.equals(dish.getAvailable()))
+                .map(dish -> toPublicDish(dish, dishRatings.rating(restaurantId, category.getId(), dish)))
+                .toList();
+
+        return PublicMenu.PublicCategory.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .displayOrder(category.getDisplayOrder())
+                .dishes(dishes)
+                .build();
+    }
+
+    private static PublicMenu.PublicDish toPublicDish(Dish dish, DishRatings.Rating rating) {
+        return PublicMenu.PublicDish.builder()
+                .id(dish.getId())
+                .name(dish.getName())
+                .price(dish.getPrice())
+                .image(dish.getImage())
+                .srcset(dish.getSrcset())
+                .altText(dish.getAltText())
+                .description(dish.getDescription())
+                .isVegetarian(dish.getIsVegetarian())
+                .isVegan(dish.getIsVegan())
+                .isSpicy(dish.getIsSpicy())
+                .tags(dish.getTags())
+                .rating(rating.rating())
+                .numReviews(rating.numReviews())
+                .build();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A serialized public menu. It refers to its snapshot weakly so that keeping
+     * it here doesn't stop TenantMenuRegistry from evicting the snapshot.
+     */
+    public record PublishedMenu(WeakReference<MenuSnapshot> source, long ratingsVersion, byte[] body, String etag) {
+
+        boolean isFor(MenuSnapshot snapshot, long ratingsVersion) {
+            return source.get() == snapshot && this.ratingsVersion == ratingsVersion;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bapukikutia.menuadmin.service;
+
+import java.util.Set;
+
+/**
+ * Published after files in the clone were rewritten with changes fetched
+ * from the remote, either merged with local commits or replacing them.
+ */
+public record RemoteChangesMergedEvent(Set<String> paths) {
+}
@@ -0,0 +1,426 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.dto.SalesReport;
+import com.bapukikutia.menuadmin.model.Category;
+import com.bapukikutia.menuadmin.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Live per-dish and per-category sales for the last 15 minutes, the last hour
+ * and today, fed by {@link OrderPlacedEvent}.
+ * <p>
+ * Each outlet counts orders into {@link LongAdder}s in a ring of one-minute
+ * slices and in a tally for the current day, so recording an order never blocks
+ * another. A minute's slice is sealed once the minute after it is over too,
+ * which leaves in-flight orders time to land, and a scheduled task folds the
+ * sealed slices of each window into a precomputed total. A query adds the two
+ * open slices to that total, so its cost depends on the number of dishes and
+ * never on the number of orders. Until the task has caught up with a new
+ * minute, queries sum the window's slices instead.
+ */
+@Slf4j
+@Component
+public class SalesAggregator {
+
+    private static final long SLICE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // Slices that still take orders: the current minute and the one before
+    private static final int OPEN_SLICES = 2;
+    // An hour of slices plus the open ones
+    private static final int RING_SIZE = 60 + OPEN_SLICES;
+
+    public enum Window {
+        LAST_15_MINUTES("15m", 15),
+        LAST_HOUR("1h", 60),
+        TODAY("today", 0);
+
+        private final String label;
+        private final int slices;
+
+        Window(String label, int slices) {
+            this.label = label;
+            this.slices = slices;
+        }
+
+        public static Window of(String label) {
+            for (Window window : values()) {
+                if (window.label.equals(label)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("Unknown sales window: " + label + " (expected 15m, 1h or today)");
+        }
+    }
+
+    public enum SortBy {
+        QUANTITY, REVENUE;
+
+        public static SortBy of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort: " + name + " (expected quantity or revenue)");
+            }
+        }
+    }
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final OrderLog orderLog;
+    private final ObjectMapper objectMapper;
+    private final ZoneId zone;
+
+    private final ConcurrentHashMap<String, OutletSales> outlets = new ConcurrentHashMap<>();
+
+    public SalesAggregator(TenantMenuRegistry tenantMenuRegistry, OrderLog orderLog,
+                           OrderConfig orderConfig, ObjectMapper objectMapper) {
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.orderLog = orderLog;
+        this.objectMapper = objectMapper;
+        this.zone = orderConfig.getZone();
+    }
+
+    /**
+     * Rebuilds today's totals from the order log. This runs while the context
+     * starts, before the web server takes orders, so nothing is counted twice.
+     */
+    @PostConstruct
+    public void replayToday() {
+        LocalDate today = LocalDate.now(zone);
+        int replayed = 0;
+        try (Stream<String> lines = orderLog.lines(today)) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    record(objectMapper.readValue(line, Order.class));
+                    replayed++;
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable order log line: {}", e.getOriginalMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to replay today's orders; sales totals start from zero", e);
+        }
+        seal();
+        log.info("Replayed {} orders from {} into sales totals", replayed, today);
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        record(event.order());
+    }
+
+    private void record(Order order) {
+        OutletSales outlet = outlets.computeIfAbsent(order.getRestaurantId(), id -> new OutletSales());
+        Tally slice = outlet.slice(order.getPlacedAt().toEpochMilli() / SLICE_MILLIS);
+        Tally day = outlet.day(LocalDate.ofInstant(order.getPlacedAt(), zone));
+        for (Order.Line line : order.getItems()) {
+            if (slice != null) {
+                slice.add(line);
+            }
+            if (day != null) {
+                day.add(line);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 5000)
+    public void seal() {
+        long through = currentSlice() - OPEN_SLICES;
+        outlets.values().forEach(outlet -> outlet.seal(through));
+    }
+
+    public SalesReport topDishes(String restaurantId, Window window, SortBy sortBy, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        Totals totals = totals(tenant.getRestaurantId(), window);
+
+        Comparator<Sum> order = sortBy == SortBy.REVENUE
+                ? Comparator.comparingLong(Sum::getRevenue).thenComparingLong(Sum::getQuantity)
+                : Comparator.comparingLong(Sum::getQuantity).thenComparingLong(Sum::getRevenue);
+        List<SalesReport.Entry> dishes = totals.dishes.values().stream()
+                .sorted(order.reversed())
+                .limit(limit)
+                .map(sum -> SalesReport.Entry.builder()
+                        .id(sum.id)
+                        .categoryId(sum.categoryId)
+                        .name(sum.name)
+                        .quantity(sum.quantity)
+                        .revenue(sum.revenue)
+                        .build())
+                .toList();
+
+        return report(tenant, window, totals).dishes(dishes).build();
+    }
+
+    public SalesReport revenueByCategory(String restaurantId, Window window) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        Totals totals = totals(tenant.getRestaurantId(), window);
+        Map<String, Category> categoriesById = tenantMenuRegistry.snapshot(tenant).categoriesById();
+
+        List<SalesReport.Entry> categories = totals.categories.values().stream()
+                .sorted(Comparator.comparingLong(Sum::getRevenue).reversed())
+                .map(sum -> {
+                    Category category = categoriesById.get(sum.id);
+                    return SalesReport.Entry.builder()
+                            .id(sum.id)
+                            .name(category == null ? null : category.getName())
+                            .quantity(sum.quantity)
+                            .revenue(sum.revenue)
+                            .build();
+                })
+                .toList();
+
+        return report(tenant, window, totals).categories(categories).build();
+    }
+
+    private static SalesReport.SalesReportBuilder report(TenantMenu tenant, Window window, Totals totals) {
+        long quantity = 0;
+        long revenue = 0;
+        for (Sum sum : totals.categories.values()) {
+            quantity += sum.quantity;
+            revenue += sum.revenue;
+        }
+        return SalesReport.builder()
+                .restaurantId(tenant.getRestaurantId())
+                .window(window.label)
+                .quantity(quantity)
+                .revenue(revenue);
+    }
+
+    private Totals totals(String restaurantId, Window window) {
+        Totals result = new Totals();
+        OutletSales outlet = outlets.get(restaurantId);
+        if (outlet == null) {
+            return result;
+        }
+
+        if (window == Window.TODAY) {
+            Day day = outlet.today.get();
+            if (day != null && day.date().equals(LocalDate.now(zone))) {
+                result.add(day.tally());
+            }
+            return result;
+        }
+
+        long current = currentSlice();
+        long from = current - window.slices + 1;
+        // Totals sealed before the last minute boundary start one slice before this window
+        Sealed sealed = outlet.sealed;
+        if (sealed != null && sealed.through() == current - OPEN_SLICES) {
+            result.add(sealed.totals().get(window));
+            from = sealed.through() + 1;
+        }
+        for (long index = from; index <= current; index++) {
+            Tally tally = outlet.sliceIfPresent(index);
+            if (tally != null) {
+                result.add(tally);
+            }
+        }
+        return result;
+    }
+
+    private static long currentSlice() {
+        return System.currentTimeMillis() / SLICE_MILLIS;
+    }
+
+    private static final class OutletSales {
+
+        private final AtomicReferenceArray<Slice> ring = new AtomicReferenceArray<>(RING_SIZE);
+        private final AtomicReference<Day> today = new AtomicReference<>();
+        private volatile Sealed sealed;
+
+        /**
+         * Returns the tally for a slice, claiming its ring slot from an older
+         * slice if needed, or null if the slot has already moved past it.
+         */
+        Tally slice(long index) {
+            int slot = (int) (index % RING_SIZE);
+            Slice current = ring.get(slot);
+            while (current == null || current.index() < index) {
+                Slice fresh = new Slice(index, new Tally());
+                if (ring.compareAndSet(slot, current, fresh)) {
+                    return fresh.tally();
+                }
+                current = ring.get(slot);
+            }
+            return current.index() == index ? current.tally() : null;
+        }
+
+        Tally sliceIfPresent(long index) {
+            Slice slice = ring.get((int) (index % RING_SIZE));
+            return slice != null && slice.index() == index ? slice.tally() : null;
+        }
+
+        Tally day(LocalDate date) {
+            Day current = today.get();
+            while (current == null || current.date().isBefore(date)) {
+                Day fresh = new Day(date, new Tally());
+                if (today.compareAndSet(current, fresh)) {
+                    return fresh.tally();
+                }
+                current = today.get();
+            }
+            return current.date().equals(date) ? current.tally() : null;
+        }
+
+        void seal(long through) {
+            Sealed previous = sealed;
+            if (previous != null && previous.through() == through) {
+                return;
+            }
+
+            Map<Window, Totals> totals = new EnumMap<>(Window.class);
+            for (Window window : List.of(Window.LAST_15_MINUTES, Window.LAST_HOUR)) {
+                Totals sum = new Totals();
+                for (long index = through + OPEN_SLICES - window.slices + 1; index <= through; index++) {
+                    Tally tally = sliceIfPresent(index);
+                    if (tally != null) {
+                        sum.add(tally);
+                    }
+                }
+                totals.put(window, sum);
+            }
+            sealed = new Sealed(through, totals);
+        }
+    }
+
+    private record Slice(long index, Tally tally) {
+    }
+
+    private record Day(LocalDate date, Tally tally) {
+    }
+
+    // Totals of the sealed slices of each window, up to and including slice "through"
+    private record Sealed(long through, Map<Window, Totals> totals) {
+    }
+
+    private static final class Tally {
+
+        private final ConcurrentHashMap<String, Counter> dishes = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Counter> categories = new ConcurrentHashMap<>();
+
+        void add(Order.Line line) {
+            // Dish IDs are only unique within a category
+            String dishKey = line.getCategoryId() + "/" + line.getDishId();
+            Counter dish = dishes.get(dishKey);
+            if (dish == null) {
+                dish = dishes.computeIfAbsent(dishKey,
+                        key -> new Counter(line.getDishId(), line.getCategoryId(), line.getName()));
+            }
+            dish.add(line);
+
+            Counter category = categories.get(line.getCategoryId());
+            if (category == null) {
+                category = categories.computeIfAbsent(line.getCategoryId(), key -> new Counter(key, null, null));
+            }
+            category.add(line);
+        }
+    }
+
+    private static final class Counter {
+
+        private final String id;
+        private final String categoryId;
+        private final String name;
+        private final LongAdder quantity = new LongAdder();
+        private final LongAdder revenue = new LongAdder();
+
+        Counter(String id, String categoryId, String name) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.name = name;
+        }
+
+        void add(Order.Line line) {
+            quantity.add(line.getQuantity());
+            revenue.add(line.getAmount());
+        }
+    }
+
+    // Plain sums, built by one thread and read-only once published
+    private static final class Totals {
+
+        private final Map<String, Sum> dishes = new HashMap<>();
+        private final Map<String, Sum> categories = new HashMap<>();
+
+        void add(Tally tally) {
+            tally.dishes.forEach((key, counter) -> dishes.computeIfAbsent(key, k -> Sum.of(counter))
+                    .add(counter.quantity.sum(), counter.revenue.sum()));
+            tally.categories.forEach((key, counter) -> categories.computeIfAbsent(key, k -> Sum.of(counter))
+                    .add(counter.quantity.sum(), counter.revenue.sum()));
+        }
+
+        void add(Totals totals) {
+            totals.dishes.forEach((key, sum) -> dishes.computeIfAbsent(key, k -> sum.emptyCopy())
+                    .add(sum.quantity, sum.revenue));
+            totals.categories.forEach((key, sum) -> categories.computeIfAbsent(key, k -> sum.emptyCopy())
+                    .add(sum.quantity, sum.revenue));
+        }
+    }
+
+    private static final class Sum {
+
+        private final String id;
+        private final String categoryId;
+        private final String name;
+        private long quantity;
+        private long revenue;
+
+        private Sum(String id, String categoryId, String name) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.name = name;
+        }
+
+        static Sum of(Counter counter) {
+            return new Sum(counter.id, counter.categoryId, counter.name);
+        }
+
+        Sum emptyCopy() {
+            return new Sum(id, categoryId, name);
+        }
+
+        void add(long quantity, long revenue) {
+            this.quantity += quantity;
+            this.revenue += revenue;
+        }
+
+        long getQuantity() {
+            return quantity;
+        }
+
+        long getRevenue() {
+            return revenue;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.OrderConfig;
+import com.bapukikutia.menuadmin.dto.StockLevel;
+import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.model.Dish;
+import com.bapukikutia.menuadmin.model.Order;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Portions left per dish, for dishes whose stock is tracked.
+ * <p>
+ * Each dish has its own counter, and orders take portions with a
+ * compare-and-set loop that never lets it go below zero. Concurrent orders
+ * for the same dish retry instead of waiting on a lock, and orders for
+ * different dishes never meet. Only when a counter reaches or leaves zero is
+ * the outlet's live menu rebuilt, so the dish shows as unavailable right away.
+ * <p>
+ * Counters are written to a file outside the menu repository every
+ * {@code stock.flush-interval}, and straight away when staff change them.
+ * After a crash, orders logged since the last write are taken off again; an
+ * order may be counted twice then, but never missed, so a restart can't
+ * oversell.
+ */
+@Slf4j
+@Service
+public class StockLevels {
+
+    private static final String FILE_NAME = "stock-levels.json";
+
+    private final TenantMenuRegistry tenantMenuRegistry;
+    private final GitService gitService;
+    private final OrderLog orderLog;
+    private final OrderConfig orderConfig;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Counter sellouts;
+
+    private final ConcurrentHashMap<String, OutletStock> outlets = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public StockLevels(TenantMenuRegistry tenantMenuRegistry, GitService gitService, OrderLog orderLog,
+                       OrderConfig orderConfig, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+            throws IOException {
+        this.tenantMenuRegistry = tenantMenuRegistry;
+        this.gitService = gitService;
+        this.orderLog = orderLog;
+        this.orderConfig = orderConfig;
+        this.objectMapper = objectMapper;
+
+        Path directory = Path.of(orderConfig.getDirectory());
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.sellouts = Counter.builder("stock.sellouts")
+                .description("Times a tracked dish ran out")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        StockFile saved = objectMapper.readValue(file.toFile(), StockFile.class);
+        saved.outlets().forEach((restaurantId, categories) -> {
+            OutletStock outlet = outlet(restaurantId);
+            categories.forEach((categoryId, dishes) -> dishes.forEach((dishId, remaining) ->
+                    outlet.counters.put(new DishKey(categoryId, dishId), new AtomicInteger(remaining))));
+        });
+
+        int replayed = takeOrdersSince(saved.asOf());
+        log.info("Loaded stock for {} outlets as of {}; took off {} orders logged since",
+                outlets.size(), saved.asOf(), replayed);
+
+        // Outlets are looked up in the clone, which may still be loading
+        gitService.whenReady().thenRun(() -> outlets.forEach((restaurantId, outlet) -> {
+            try {
+                publishSoldOut(restaurantId, outlet);
+            } catch (ResourceNotFoundException e) {
+                log.warn("Stock kept for unknown restaurant: {}", restaurantId);
+            }
+        }));
+    }
+
+    private int takeOrdersSince(Instant asOf) {
+        int replayed = 0;
+        LocalDate today = LocalDate.now(orderConfig.getZone());
+        for (LocalDate date = LocalDate.ofInstant(asOf, orderConfig.getZone()); !date.isAfter(today);
+             date = date.plusDays(1)) {
+            try (Stream<String> lines = orderLog.lines(date)) {
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Order order = objectMapper.readValue(line, Order.class);
+                        if (!order.getPlacedAt().isBefore(asOf)) {
+                            takeOff(order);
+                            replayed++;
+                        }
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping unreadable order log line: {}", e.getOriginalMessage());
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Failed to read order log for {}; stock may be too high", date, e);
+            }
+        }
+        return replayed;
+    }
+
+    private void takeOff(Order order) {
+        OutletStock outlet = outlets.get(order.getRestaurantId());
+        if (outlet == null) {
+            return;
+        }
+        for (Order.Line line : order.getItems()) {
+            AtomicInteger remaining = outlet.counters.get(new DishKey(line.getCategoryId(), line.getDishId()));
+            if (remaining != null) {
+                remaining.updateAndGet(value -> Math.max(0, value - line.getQuantity()));
+                dirty.set(true);
+            }
+        }
+    }
+
+    /**
+     * Takes portions of a dish for an order being priced. Returns null if the
+     * dish's stock isn't tracked.
+     */
+    public Reservation reserve(String restaurantId, Dish dish, int quantity) {
+        OutletStock outlet = outlets.get(restaurantId);
+        AtomicInteger remaining = outlet == null ? null
+                : outlet.counters.get(new DishKey(dish.getCategoryId(), dish.getId()));
+        if (remaining == null) {
+            return null;
+        }
+
+        int current;
+        do {
+            current = remaining.get();
+            if (current < quantity) {
+                throw new IllegalArgumentException(current == 0
+                        ? "Sold out: " + dish.getName()
+                        : "Only " + current + " left of " + dish.getName());
+            }
+        } while (!remaining.compareAndSet(current, current - quantity));
+
+        dirty.set(true);
+        if (current == quantity) {
+            sellouts.increment();
+            log.info("Sold out: {} at {}", dish.getName(), restaurantId);
+            publishSoldOut(restaurantId, outlet);
+        }
+        return new Reservation(restaurantId, remaining, quantity);
+    }
+
+    /**
+     * Gives back the portions of an order that wasn't placed.
+     */
+    public void release(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            int before = reservation.remaining().getAndAdd(reservation.quantity());
+            dirty.set(true);
+            if (before == 0) {
+                OutletStock outlet = outlets.get(reservation.restaurantId());
+                if (outlet != null) {
+                    publishSoldOut(reservation.restaurantId(), outlet);
+                }
+            }
+        }
+    }
+
+    public List<StockLevel> getLevels(String restaurantId) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        OutletStock outlet = outlets.get(tenant.getRestaurantId());
+        if (outlet == null) {
+            return List.of();
+        }
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant);
+        return outlet.counters.entrySet().stream()
+                .map(entry -> toLevel(snapshot, entry.getKey(), entry.getValue().get()))
+                .sorted(Comparator.comparing(StockLevel::getCategoryId).thenComparing(StockLevel::getDishId))
+                .toList();
+    }
+
+    /**
+     * Sets the portions left of a dish, starting to track it if needed.
+     */
+    public StockLevel set(String restaurantId, String categoryId, String dishId, int quantity) {
+        return change(restaurantId, categoryId, dishId, remaining -> {
+            remaining.set(quantity);
+            return quantity;
+        });
+    }
+
+    public StockLevel replenish(String restaurantId, String categoryId, String dishId, int quantity) {
+        return change(restaurantId, categoryId, dishId, remaining -> remaining.addAndGet(quantity));
+    }
+
+    public void untrack(String restaurantId, String categoryId, String dishId) {
+        String id = tenantMenuRegistry.get(restaurantId).getRestaurantId();
+        OutletStock outlet = outlets.get(id);
+        if (outlet == null || outlet.counters.remove(new DishKey(categoryId, dishId)) == null) {
+            throw new ResourceNotFoundException("Stock is not tracked for dish: " + dishId);
+        }
+        log.info("Stopped tracking stock of {} in {}", dishId, categoryId);
+        publishSoldOut(id, outlet);
+        persist();
+    }
+
+    private StockLevel change(String restaurantId, String categoryId, String dishId,
+                              ToIntFunction<AtomicInteger> update) {
+        TenantMenu tenant = tenantMenuRegistry.get(restaurantId);
+        MenuSnapshot snapshot = tenantMenuRegistry.snapshot(tenant);
+        if (!snapshot.dishesByCategoryId().getOrDefault(categoryId, Map.of()).containsKey(dishId)) {
+            throw new ResourceNotFoundException("Dish not found with ID: " + dishId + " in category: " + categoryId);
+        }
+
+        OutletStock outlet = outlet(tenant.getRestaurantId());
+        AtomicInteger remaining = outlet.counters.computeIfAbsent(new DishKey(categoryId, dishId),
+                key -> new AtomicInteger());
+        int updated = update.applyAsInt(remaining);
+        log.info("Stock of {} in {} is now {}", dishId, categoryId, updated);
+
+        publishSoldOut(tenant.getRestaurantId(), outlet);
+        persist();
+        return toLevel(snapshot, new DishKey(categoryId, dishId), updated);
+    }
+
+    private static StockLevel toLevel(MenuSnapshot snapshot, DishKey key, int remaining) {
+        Dish dish = snapshot.dishesByCategoryId().getOrDefault(key.categoryId(), Map.of()).get(key.dishId());
+        return StockLevel.builder()
+                .categoryId(key.categoryId())
+                .dishId(key.dishId())
+                .name(dish == null ? null : dish.getName())
+                .remaining(remaining)
+                .build();
+    }
+
+    // Rebuilt from the counters under the outlet's lock, so the last of two racing changes wins with both applied
+    private void publishSoldOut(String restaurantId, OutletStock outlet) {
+        synchronized (outlet) {
+            Map<String, Set<String>> soldOut = outlet.counters.entrySet().stream()
+                    .filter(entry -> entry.getValue().get() == 0)
+                    .collect(Collectors.groupingBy(entry -> entry.getKey().categoryId(),
+                            Collectors.mapping(entry -> entry.getKey().dishId(), Collectors.toCollection(HashSet::new))));
+            tenantMenuRegistry.markSoldOut(tenantMenuRegistry.get(restaurantId), soldOut);
+        }
+    }
+
+    private OutletStock outlet(String restaurantId) {
+        return outlets.computeIfAbsent(restaurantId, id -> new OutletStock());
+    }
+
+    @Scheduled(fixedDelayString = "${stock.flush-interval:PT5S}")
+    public void flush() {
+        if (dirty.getAndSet(false)) {
+            persist();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private synchronized void persist() {
+        // Taken before the counters are read: orders priced after this are replayed if the write is lost
+        Instant asOf = Instant.now();
+        Map<String, Map<String, Map<String, Integer>>> saved = new TreeMap<>();
+        outlets.forEach((restaurantId, outlet) -> outlet.counters.forEach((key, remaining) ->
+                saved.computeIfAbsent(restaurantId, id -> new TreeMap<>())
+                        .computeIfAbsent(key.categoryId(), id -> new TreeMap<>())
+                        .put(key.dishId(), remaining.get())));
+        try {
+            DurableFiles.replace(file, objectMapper.writeValueAsBytes(new StockFile(asOf, saved)));
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to write stock levels; retrying on the next flush", e);
+        }
+    }
+
+    public record Reservation(String restaurantId, AtomicInteger remaining, int quantity) {
+    }
+
+    private record DishKey(String categoryId, String dishId) {
+    }
+
+    private static final class OutletStock {
+
+        private final ConcurrentHashMap<DishKey, AtomicInteger> counters = new ConcurrentHashMap<>();
+    }
+
+    private record StockFile(
+            @JsonProperty("as_of") Instant asOf,
+            Map<String, Map<String, Map<String, Integer>>> outlets) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.bapukikutia.menuadmin.service;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-outlet state. These objects are small and stay registered for the life of
+ * the application; only the snapshot they point to is loaded and evicted.
+ */
+@Getter
+public class TenantMenu {
+
+    private final String restaurantId;
+    private final String filePath;
+
+    // Serializes read-modify-write of this outlet's menu file
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile MenuSnapshot snapshot;
+    // Kept instead of the snapshot once it is evicted, if there is room
+    private volatile CompactMenu compactMenu;
+    // Blob ID and length of the menu file the snapshot was parsed from
+    private volatile String loadedBlobId;
+    private volatile long loadedJsonLength;
+    private volatile long lastAccessNanos;
+
+    // Out-of-stock dish IDs by category ID; outlives snapshots, so reloads start with it
+    private volatile Map<String, Set<String>> soldOut = Map.of();
+
+    TenantMenu(String restaurantId, String filePath) {
+        this.restaurantId = restaurantId;
+        this.filePath = filePath;
+    }
+
+    void setSnapshot(MenuSnapshot snapshot, String loadedBlobId, long loadedJsonLength) {
+        this.snapshot = snapshot;
+        this.loadedBlobId = loadedBlobId;
+        this.loadedJsonLength = loadedJsonLength;
+    }
+
+    void setCompactMenu(CompactMenu compactMenu) {
+        this.compactMenu = compactMenu;
+    }
+
+    void setSoldOut(Map<String, Set<String>> soldOut) {
+        this.soldOut = soldOut;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,391 @@
+package com.bapukikutia.menuadmin.service;
+
+import com.bapukikutia.menuadmin.config.GitConfig;
+import com.bapukikutia.menuadmin.config.MenuCacheConfig;
+import com.bapukikutia.menuadmin.exception.ResourceNotFoundException;
+import com.bapukikutia.menuadmin.metrics.MenuMetrics;
+import com.bapukikutia.menuadmin.model.MenuData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Routes a restaurant ID to its menu file and keeps parsed menus in memory.
+ * <p>
+ * Outlets are registered on first access and their snapshot is parsed lazily.
+ * When the estimated size of all loaded snapshots exceeds the configured budget,
+ * the least recently read ones are packed into a {@link CompactMenu}, which is
+ * rebuilt into a snapshot on their next access without reading the menu file.
+ * Compact menus have a budget of their own, beyond which the least recently
+ * read are dropped and reparsed from the file.
+ * Reads never take a lock: they read a volatile snapshot and stamp an access time.
+ */
+@Slf4j
+@Component
+public class TenantMenuRegistry {
+
+    public static final String DEFAULT_RESTAURANT_ID = "default";
+
+    private static final Pattern RESTAURANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+    // First path segments that already belong to other endpoints under /api
+    private static final Set<String> RESERVED_IDS = Set.of(
+            "auth", "menu", "categories", "sales", "kitchen", "stock", "pricing-rules", "ratings", "drafts");
+    // Rough heap cost of a parsed menu relative to its JSON size
+    private static final int HEAP_BYTES_PER_JSON_BYTE = 4;
+    // The same for a compact menu, which takes about half its JSON size
+    private static final int JSON_BYTES_PER_COMPACT_HEAP_BYTE = 2;
+
+    private final GitService gitService;
+    private final GitConfig gitConfig;
+    private final MenuCacheConfig menuCacheConfig;
+    private final ObjectMapper objectMapper;
+    private final MenuMetrics menuMetrics;
+    private final MenuScheduler menuScheduler;
+
+    private final ConcurrentHashMap<String, TenantMenu> tenants = new ConcurrentHashMap<>();
+    private final AtomicLong loadedBytes = new AtomicLong();
+    private final AtomicLong compactBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    public TenantMenuRegistry(GitService gitService, GitConfig gitConfig, MenuCacheConfig menuCacheConfig,
+                              ObjectMapper objectMapper, MenuMetrics menuMetrics, MenuScheduler menuScheduler,
+                              MeterRegistry meterRegistry) {
+        this.gitService = gitService;
+        this.gitConfig = gitConfig;
+        this.menuCacheConfig = menuCacheConfig;
+        this.objectMapper = objectMapper;
+        this.menuMetrics = menuMetrics;
+        this.menuScheduler = menuScheduler;
+
+        Gauge.builder("menu.outlets.registered", tenants, ConcurrentHashMap::size)
+                .description("Outlets seen since startup")
+                .register(meterRegistry);
+        Gauge.builder("menu.outlets.loaded", this, registry -> registry.loadedTenants().size())
+                .description("Outlets with a parsed menu in memory")
+                .register(meterRegistry);
+        Gauge.builder("menu.outlets.loaded.size", loadedBytes, AtomicLong::get)
+                .description("Estimated heap used by parsed outlet menus")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("menu.outlets.compacted", this, registry -> registry.compactedTenants().size())
+                .description("Evicted outlets whose menu is kept in compact form")
+                .register(meterRegistry);
+        Gauge.builder("menu.outlets.compacted.size", compactBytes, AtomicLong::get)
+                .description("Estimated heap used by compact outlet menus")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the outlet for a restaurant ID, or the default outlet when the ID is null.
+     */
+    public TenantMenu get(String restaurantId) {
+        String id = restaurantId == null ? DEFAULT_RESTAURANT_ID : restaurantId;
+        TenantMenu tenant = tenants.get(id);
+        if (tenant != null) {
+            return tenant;
+        }
+
+        if (!RESTAURANT_ID.matcher(id).matches() || RESERVED_IDS.contains(id)) {
+            throw new ResourceNotFoundException("Restaurant not found with ID: " + id);
+        }
+        String filePath = filePathOf(id);
+        if (!gitService.exists(filePath)) {
+            throw new ResourceNotFoundException("Restaurant not found with ID: " + id);
+        }
+        return tenants.computeIfAbsent(id, key -> new TenantMenu(key, filePath));
+    }
+
+    /**
+     * Like {@link #get}, but also registers a valid outlet ID that has no menu
+     * file yet. Such an outlet reads as an empty menu until its first write
+     * commits the file; call {@link #forgetIfMissing} if that write fails.
+     */
+    public TenantMenu getOrCreate(String restaurantId) {
+        String id = restaurantId == null ? DEFAULT_RESTAURANT_ID : restaurantId;
+        TenantMenu tenant = tenants.get(id);
+        if (tenant != null) {
+            return tenant;
+        }
+        checkNewRestaurantId(id);
+        return tenants.computeIfAbsent(id, key -> new TenantMenu(key, filePathOf(key)));
+    }
+
+    public static void checkNewRestaurantId(String restaurantId) {
+        if (!RESTAURANT_ID.matcher(restaurantId).matches()) {
+            throw new IllegalArgumentException("Invalid restaurant ID: " + restaurantId
+                    + " (lowercase letters, digits and hyphens, up to 64 characters)");
+        }
+        if (RESERVED_IDS.contains(restaurantId)) {
+            throw new IllegalArgumentException("Restaurant ID is reserved: " + restaurantId);
+        }
+    }
+
+    /**
+     * Unregisters an outlet from {@link #getOrCreate} whose menu file was never
+     * committed.
+     */
+    public void forgetIfMissing(TenantMenu tenant) {
+        if (gitService.headBlobId(tenant.getFilePath()) == null) {
+            invalidate(tenant);
+            tenants.remove(tenant.getRestaurantId(), tenant);
+        }
+    }
+
+    public List<TenantMenu> getRegisteredTenants() {
+        return List.copyOf(tenants.values());
+    }
+
+    /**
+     * Returns the current snapshot, rebuilding it from the compact menu or
+     * parsing the menu file if it isn't loaded.
+     */
+    public MenuSnapshot snapshot(TenantMenu tenant) {
+        tenant.touch();
+        MenuSnapshot snapshot = tenant.getSnapshot();
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        synchronized (tenant) {
+            snapshot = tenant.getSnapshot();
+            if (snapshot == null) {
+                snapshot = install(tenant, load(tenant));
+            }
+        }
+        evictIfOverBudget(tenant);
+        return snapshot;
+    }
+
+    private LoadedMenu load(TenantMenu tenant) {
+        CompactMenu compactMenu = tenant.getCompactMenu();
+        if (compactMenu != null) {
+            dropCompactMenu(tenant);
+            // Events drop compact menus whose file changed; this catches anything else that moved HEAD
+            if (Objects.equals(tenant.getLoadedBlobId(), gitService.headBlobId(tenant.getFilePath()))) {
+                log.info("Restoring compacted menu for restaurant: {}", tenant.getRestaurantId());
+                return new LoadedMenu(compactMenu.toMenuData(), tenant.getLoadedJsonLength(), tenant.getLoadedBlobId());
+            }
+        }
+        log.info("Loading menu for restaurant: {}", tenant.getRestaurantId());
+        return readMenuData(tenant);
+    }
+
+    /**
+     * Parses a private copy of the outlet's menu file for a writer to modify.
+     */
+    public LoadedMenu readMenuData(TenantMenu tenant) {
+        if (!gitService.exists(tenant.getFilePath()) && gitService.headBlobId(tenant.getFilePath()) == null) {
+            // A new outlet whose first write hasn't been committed yet
+            return new LoadedMenu(MenuData.builder().build(), 0, null);
+        }
+        try {
+            String menuJson = gitService.readMenuFile(tenant.getFilePath());
+            MenuData menuData = menuMetrics.timeJson("parse", () -> objectMapper.readValue(menuJson, MenuData.class));
+            return new LoadedMenu(menuData, menuJson);
+        } catch (IOException e) {
+            log.error("Failed to parse menu data", e);
+            throw new RuntimeException("Failed to parse menu data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Makes a committed menu the outlet's current snapshot.
+     */
+    public MenuSnapshot publish(TenantMenu tenant, LoadedMenu menu) {
+        MenuSnapshot snapshot;
+        synchronized (tenant) {
+            snapshot = install(tenant, menu);
+        }
+        evictIfOverBudget(tenant);
+        return snapshot;
+    }
+
+    /**
+     * Drops the outlet's snapshot so the next read reparses the file.
+     */
+    public void invalidate(TenantMenu tenant) {
+        synchronized (tenant) {
+            dropCompactMenu(tenant);
+            MenuSnapshot previous = tenant.getSnapshot();
+            tenant.setSnapshot(null, null, 0);
+            if (previous != null) {
+                menuScheduler.stop(previous);
+                loadedBytes.addAndGet(-previous.estimatedBytes());
+            }
+        }
+    }
+
+    /**
+     * Replaces the outlet's snapshot with its compact form, or drops it if
+     * compact menus have no room.
+     */
+    private void evict(TenantMenu tenant) {
+        if (menuCacheConfig.getCompactMaxSize().toBytes() <= 0) {
+            invalidate(tenant);
+            return;
+        }
+        synchronized (tenant) {
+            MenuSnapshot previous = tenant.getSnapshot();
+            if (previous == null) {
+                return;
+            }
+            tenant.setCompactMenu(CompactMenu.of(previous.menuData()));
+            tenant.setSnapshot(null, tenant.getLoadedBlobId(), tenant.getLoadedJsonLength());
+            menuScheduler.stop(previous);
+            loadedBytes.addAndGet(-previous.estimatedBytes());
+            compactBytes.addAndGet(compactBytesOf(tenant));
+        }
+    }
+
+    // Guarded by the tenant's monitor
+    private void dropCompactMenu(TenantMenu tenant) {
+        if (tenant.getCompactMenu() != null) {
+            compactBytes.addAndGet(-compactBytesOf(tenant));
+            tenant.setCompactMenu(null);
+        }
+    }
+
+    private static long compactBytesOf(TenantMenu tenant) {
+        return tenant.getLoadedJsonLength() / JSON_BYTES_PER_COMPACT_HEAP_BYTE;
+    }
+
+    /**
+     * Marks the outlet's sold-out dishes unavailable in its live menu, now and
+     * in every snapshot loaded later.
+     */
+    public void markSoldOut(TenantMenu tenant, Map<String, Set<String>> dishIdsByCategoryId) {
+        synchronized (tenant) {
+            tenant.setSoldOut(dishIdsByCategoryId);
+            MenuSnapshot snapshot = tenant.getSnapshot();
+            if (snapshot != null) {
+                snapshot.liveMenu().markSoldOut(dishIdsByCategoryId);
+            }
+        }
+    }
+
+    /**
+     * Outlets whose parsed menu no longer matches their menu file at HEAD.
+     * Outlets with a write in progress are skipped, since their file is
+     * committed just before the new snapshot is published.
+     */
+    public List<String> staleTenants() {
+        return loadedTenants().stream()
+                .filter(tenant -> !tenant.getWriteLock().isLocked())
+                .filter(tenant -> {
+                    String loadedBlobId = tenant.getLoadedBlobId();
+                    return loadedBlobId != null && !loadedBlobId.equals(gitService.headBlobId(tenant.getFilePath()));
+                })
+                .map(TenantMenu::getRestaurantId)
+                .toList();
+    }
+
+    /**
+     * Drops snapshots of outlets whose menu file was rewritten from the remote.
+     */
+    @EventListener
+    public void onRemoteChangesMerged(RemoteChangesMergedEvent event) {
+        tenants.values().stream()
+                .filter(tenant -> event.paths().contains(tenant.getFilePath()))
+                .forEach(this::invalidate);
+    }
+
+    public void invalidateAll() {
+        tenants.values().forEach(this::invalidate);
+    }
+
+    private MenuSnapshot install(TenantMenu tenant, LoadedMenu menu) {
+        MenuSnapshot snapshot = MenuSnapshot.of(menu.menuData(), menu.jsonLength() * HEAP_BYTES_PER_JSON_BYTE);
+        snapshot.liveMenu().markSoldOut(tenant.getSoldOut());
+        menuScheduler.start(snapshot);
+        MenuSnapshot previous = tenant.getSnapshot();
+        dropCompactMenu(tenant);
+        tenant.setSnapshot(snapshot, menu.blobId(), menu.jsonLength());
+        menuScheduler.stop(previous);
+        loadedBytes.addAndGet(snapshot.estimatedBytes() - (previous == null ? 0 : previous.estimatedBytes()));
+
+        if (DEFAULT_RESTAURANT_ID.equals(tenant.getRestaurantId())) {
+            menuMetrics.recordMenuSize(menu.menuData());
+        }
+        return snapshot;
+    }
+
+    private void evictIfOverBudget(TenantMenu justUsed) {
+        long budget = menuCacheConfig.getMaxSize().toBytes();
+        if (loadedBytes.get() <= budget) {
+            return;
+        }
+
+        synchronized (evictionLock) {
+            List<TenantMenu> leastRecentFirst = loadedTenants().stream()
+                    .filter(tenant -> tenant != justUsed)
+                    .sorted(Comparator.comparingLong(TenantMenu::getLastAccessNanos))
+                    .toList();
+
+            for (TenantMenu tenant : leastRecentFirst) {
+                if (loadedBytes.get() <= budget) {
+                    break;
+                }
+                log.info("Evicting menu for restaurant: {}", tenant.getRestaurantId());
+                evict(tenant);
+            }
+
+            long compactBudget = menuCacheConfig.getCompactMaxSize().toBytes();
+            if (compactBytes.get() > compactBudget) {
+                List<TenantMenu> compactedLeastRecentFirst = compactedTenants().stream()
+                        .sorted(Comparator.comparingLong(TenantMenu::getLastAccessNanos))
+                        .toList();
+                for (TenantMenu tenant : compactedLeastRecentFirst) {
+                    if (compactBytes.get() <= compactBudget) {
+                        break;
+                    }
+                    log.info("Dropping compacted menu for restaurant: {}", tenant.getRestaurantId());
+                    invalidate(tenant);
+                }
+            }
+        }
+    }
+
+    private List<TenantMenu> loadedTenants() {
+        return tenants.values().stream()
+                .filter(tenant -> tenant.getSnapshot() != null)
+                .toList();
+    }
+
+    private List<TenantMenu> compactedTenants() {
+        return tenants.values().stream()
+                .filter(tenant -> tenant.getCompactMenu() != null)
+                .toList();
+    }
+
+    private String filePathOf(String restaurantId) {
+        if (DEFAULT_RESTAURANT_ID.equals(restaurantId)) {
+            return gitConfig.getMenu().getFilePath();
+        }
+        return gitConfig.getMenu().getOutletFilePath().replace("{restaurantId}", restaurantId);
+    }
+
+    /**
+     * A parsed menu file, with the length and git blob ID of the JSON it was
+     * parsed from or serialized to.
+     */
+    public record LoadedMenu(MenuData menuData, long jsonLength, String blobId) {
+
+        public LoadedMenu(MenuData menuData, String menuJson) {
+            this(menuData, menuJson.length(), GitService.blobId(menuJson));
+        }
+    }
+}
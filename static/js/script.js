@@ -12,8 +12,34 @@ let menuData = null;
 // Rating Display - Simple Star Generation
 // =================================================================
 
+// Per-category shards have content-hashed names, so unchanged categories stay
+// cached across menu updates; only the small manifest is always revalidated
+async function loadMenuShards() {
+    const manifestResponse = await fetch('static/data/menu/manifest.json', { cache: 'no-cache' });
+    if (!manifestResponse.ok) {
+        throw new Error(`HTTP error! status: ${manifestResponse.status}`);
+    }
+    const manifest = await manifestResponse.json();
+
+    const categories = await Promise.all(manifest.categories.map(async entry => {
+        const response = await fetch(entry.file);
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+        return response.json();
+    }));
+    return { categories };
+}
+
 async function loadMenuData() {
     try {
+        try {
+            menuData = await loadMenuShards();
+            return menuData;
+        } catch (shardError) {
+            console.warn('Menu shards unavailable, loading full menu:', shardError);
+        }
+
         const response = await fetch('static/data/menu-data.json');
         if (!response.ok) {
             throw new Error(`HTTP error! status: ${response.status}`);
@@ -87,7 +113,7 @@ function renderMenuCategories(categories) {
 
                 return `
                 <div class="dish-card" data-dish-id="${dish.id}">
-                    <img src="${dish.image}" alt="${dish.alt_text || dish.name}" loading="lazy">
+                    ${dishImageHTML(dish)}
                     <h3>${dish.name}</h3>
                     <div class="price-rating-row">
                         <p class="price">₹${dish.price}</p>
@@ -137,16 +163,22 @@ function showErrorMessage(message) {
 
 async function initializeMenu() {
     try {
-        // Load menu data from JSON
-        const data = await loadMenuData();
+        // The admin API pre-renders the menu into index.html; only build it here if it didn't
+        const menuContainer = document.getElementById('menuContainer');
+        const prerendered = menuContainer && menuContainer.querySelector('.menu-category');
 
-        if (!data || !data.categories) {
-            throw new Error('Invalid menu data structure');
-        }
+        if (!prerendered) {
+            // Load menu data from JSON
+            const data = await loadMenuData();
 
-        // Render category navigation and menu
-        renderCategoryNav(data.categories);
-        renderMenuCategories(data.categories);
+            if (!data || !data.categories) {
+                throw new Error('Invalid menu data structure');
+            }
+
+            // Render category navigation and menu
+            renderCategoryNav(data.categories);
+            renderMenuCategories(data.categories);
+        }
 
         // Hide loading indicator
         hideLoadingIndicator();
@@ -167,7 +199,7 @@ async function initializeMenu() {
         initPriceFilter();
 
         console.log('✅ Restaurant Menu loaded successfully!');
-        console.log(`📊 Loaded ${data.categories.length} categories with ${data.categories.reduce((sum, cat) => sum + cat.dishes.length, 0)} dishes`);
+        console.log(`📊 Showing ${document.querySelectorAll('.menu-category').length} categories with ${document.querySelectorAll('.dish-card').length} dishes${prerendered ? ' (pre-rendered)' : ''}`);
     } catch (error) {
         console.error('Error initializing menu:', error);
         hideLoadingIndicator();
@@ -191,7 +223,7 @@ const Cart = {
     },
 
     // Add item to cart
-    addItem(id, name, price, image) {
+    addItem(id, name, price, image, categoryId) {
         const existingItem = this.items.find(item => item.id === id);
 
         if (existingItem) {
@@ -199,6 +231,7 @@ const Cart = {
         } else {
             this.items.push({
                 id,
+                categoryId,
                 name,
                 price,
                 image,
@@ -433,6 +466,17 @@ function initScrollToTop() {
     });
 }
 
+// =================================================================
+// Responsive Dish Images - resized variants generated by the admin API
+// =================================================================
+const DISH_IMAGE_SIZES = '(max-width: 640px) 100vw, 400px';
+
+function dishImageHTML(dish) {
+    const alt = dish.alt_text || dish.name;
+    const srcset = dish.srcset ? ` srcset="${dish.srcset}" sizes="${DISH_IMAGE_SIZES}"` : '';
+    return `<img src="${dish.image}"${srcset} alt="${alt}" loading="lazy">`;
+}
+
 // =================================================================
 // Image Error Handling - Fallback for Missing Images
 // =================================================================
@@ -466,7 +510,9 @@ function initImageErrorHandling() {
             ctx.fillStyle = 'white';
             ctx.fillText(dishName, 200, 180);
             
-            // Set the canvas as image source
+            // Set the canvas as image source (variants would otherwise take precedence)
+            this.removeAttribute('srcset');
+            this.parentElement.querySelectorAll('picture > source').forEach(source => source.remove());
             this.src = canvas.toDataURL();
         });
     });
@@ -812,7 +858,10 @@ function initAddToCartButtons() {
         const priceText = card.querySelector('.price').textContent;
         const price = parseInt(priceText.replace(/[^\d]/g, ''));
         const image = card.querySelector('img').src;
-        const dishId = dishName.toLowerCase().replace(/\s+/g, '-');
+        // Menu IDs let the order API price the dish; the name-derived ID is a fallback for old pages
+        const dishId = card.dataset.dishId || dishName.toLowerCase().replace(/\s+/g, '-');
+        const category = card.closest('.menu-category');
+        const categoryId = category ? category.id : undefined;
 
         // Create Add to Cart button
         const addToCartBtn = document.createElement('button');
@@ -822,7 +871,7 @@ function initAddToCartButtons() {
 
         addToCartBtn.addEventListener('click', function(e) {
             e.preventDefault();
-            Cart.addItem(dishId, dishName, price, image);
+            Cart.addItem(dishId, dishName, price, image, categoryId);
 
             // Button animation
             this.classList.add('added');